@@ -3,7 +3,14 @@ package io.easeci.commons;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * This static utilities methods are custom wrapper for IO operations.
@@ -94,11 +101,79 @@ public class FileUtils {
      * @exception RuntimeException throws when file not exists
      *  */
     public static Path fileChange(String path, String contentNew) {
-        boolean removed = fileDelete(path);
-        if (removed) {
-            return fileSave(path, contentNew, false);
+        if (!isExist(path)) {
+            throw new RuntimeException("Cannot update content of file because not exists!");
+        }
+        try {
+            return fileWriteAtomically(Path.of(path), contentNew.getBytes(StandardCharsets.UTF_8), true);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot update content of file: " + path, e);
+        }
+    }
+
+    /**
+     * This method writes file on local storage device in atomic and durable way.
+     * Content is written to temporary file placed in the same directory,
+     * flushed to storage device and next moved in place of target file in one step,
+     * so other readers see old or new content, but never missing or partially written file.
+     * Temporary file is created like any other file, and when target file exists, its POSIX
+     * permissions are copied, so replaced file keeps permissions it had before.
+     * @param path is a path of file to write
+     * @param content is a content of file
+     * @param overwrite specifies if existing file could be replaced.
+     *                  If is `false` and file just exists, FileAlreadyExistsException is thrown
+     * @return a path to resource that was written
+     * @exception IOException when file could not be written or just exists and cannot be overwritten
+     * */
+    public static Path fileWriteAtomically(Path path, byte[] content, boolean overwrite) throws IOException {
+        final Path directory = path.toAbsolutePath().getParent();
+        final Path tempFile = directory.resolve("." + path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            copyPermissions(path, tempFile);
+            if (overwrite) {
+                Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                createWithoutOverwrite(path, tempFile);
+            }
+            forceDirectory(directory);
+            return path;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        if (!Files.exists(source) || !Files.getFileStore(target).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            return;
+        }
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(source);
+        Files.setPosixFilePermissions(target, permissions);
+    }
+
+    private static void createWithoutOverwrite(Path path, Path tempFile) throws IOException {
+        try {
+            Files.createLink(path, tempFile);
+        } catch (UnsupportedOperationException e) {
+            if (Files.exists(path)) {
+                throw new FileAlreadyExistsException(path.toString());
+            }
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Directory cannot be flushed on this platform: {}", directory);
         }
-        throw new RuntimeException("Cannot update content of file because not exists!");
     }
 
     /**
@@ -6,8 +6,11 @@ import io.easeci.api.extension.ExtensionHandlers;
 import io.easeci.api.log.LogHandler;
 import io.easeci.api.parsing.EasefileParsingHandlers;
 import io.easeci.core.bootstrap.BootstrapperFactory;
+import io.easeci.core.engine.easefile.parser.MainEasefileParser;
+import io.easeci.core.engine.script.ParallelScriptGenerator;
 import io.easeci.core.extension.ExtensionSystem;
 import io.easeci.core.extension.PluginSystemCriticalException;
+import io.easeci.core.workspace.cache.CacheManager;
 import io.easeci.extension.bootstrap.OnStartup;
 import io.easeci.server.BaseExternalHandlers;
 import io.easeci.server.ServerBootstrapper;
@@ -20,6 +23,7 @@ public class EaseciCoreApplication {
 
     public static void main(String[] args) throws PluginSystemCriticalException {
         BootstrapperFactory.factorize().bootstrap(args);
+        CacheManager.getInstance().startEviction();
 
         ExtensionSystem.getInstance().get("io.easeci.extension.bootstrap.OnStartup", OnStartup.class)
                 .ifPresentOrElse(OnStartup::action, () -> EaseciCoreApplication.log.error("===> Could not find {} implementation in system", OnStartup.class));
@@ -28,7 +32,7 @@ public class EaseciCoreApplication {
                                                new LogHandler(),
                                                new ClientHandlers(),
                                                new EasefileManagementHandlers(),
-                                               new EasefileParsingHandlers()),
+                                               new EasefileParsingHandlers(new MainEasefileParser(new ParallelScriptGenerator(ExtensionSystem.getInstance())))),
                                        BaseExternalHandlers.get());
         ServerBootstrapper.getInstance().run();
     }
@@ -6,4 +6,5 @@ import lombok.Data;
 public class AddEasefileRequest {
     private String path;
     private String encodedEasefileContent;
+    private String etag;
 }
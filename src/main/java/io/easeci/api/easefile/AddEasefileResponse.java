@@ -15,6 +15,7 @@ public class AddEasefileResponse {
     private String easefileStatus;
     private String errorMessage;
     private Path path;
+    private String etag;
 
     public static AddEasefileResponse withError(String errorMessage, EasefileStatus easefileStatus) {
         AddEasefileResponse addEasefileResponse = new AddEasefileResponse();
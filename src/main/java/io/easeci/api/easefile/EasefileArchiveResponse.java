@@ -0,0 +1,28 @@
+package io.easeci.api.easefile;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.easeci.api.Errorable;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EasefileArchiveResponse extends Errorable {
+    private List<Path> imported;
+
+    private EasefileArchiveResponse(String errorMessage) {
+        super.setErrorMessage(errorMessage);
+    }
+
+    public EasefileArchiveResponse(List<Path> imported) {
+        this.imported = imported;
+    }
+
+    public static EasefileArchiveResponse withError(String errorMessage) {
+        return new EasefileArchiveResponse(errorMessage);
+    }
+}
@@ -6,26 +6,46 @@ import io.easeci.core.workspace.easefiles.DefaultEasefileManager;
 import io.easeci.core.workspace.easefiles.EasefileManager;
 import io.easeci.core.workspace.easefiles.EasefileOut;
 import io.easeci.core.workspace.easefiles.EasefileStatus;
+import io.easeci.core.workspace.easefiles.filetree.FileTreeEntry;
 import io.easeci.server.EndpointDeclaration;
 import io.easeci.server.InternalHandlers;
+import io.netty.buffer.ByteBufAllocator;
 import ratpack.http.HttpMethod;
+import ratpack.stream.Streams;
+import ratpack.util.MultiValueMap;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 
+import static io.easeci.core.workspace.LocationUtils.retrieveFromGeneralInt;
+import static io.easeci.core.workspace.easefiles.EasefileManager.normalized;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static ratpack.http.MediaType.APPLICATION_JSON;
 
 public class EasefileManagementHandlers implements InternalHandlers {
     private final static String MAPPING = "easefile/";
+    private final static int DEFAULT_PAGE_DEPTH = 1,
+                             DEFAULT_PAGE_LIMIT = 100,
+                             MAX_PAGE_LIMIT = 1000,
+                             DEFAULT_SEARCH_LIMIT = 100,
+                             DEFAULT_MAX_ARCHIVE_SIZE = 256 * 1024 * 1024;
+    private final static String APPLICATION_ZIP = "application/zip";
     private EasefileManager easefileManager;
     private ObjectMapper objectMapper;
+    private final long maxArchiveSize;
 
     public EasefileManagementHandlers() {
         this.objectMapper = new ObjectMapper();
         this.easefileManager = DefaultEasefileManager.getInstance();
+        this.maxArchiveSize = retrieveFromGeneralInt("workspace.archive.max-size", DEFAULT_MAX_ARCHIVE_SIZE);
     }
 
     @Override
@@ -34,12 +54,16 @@ public class EasefileManagementHandlers implements InternalHandlers {
                 getRootEasefileDirectory(),
                 scanWorkspaceDirectoryTree(),
                 scanPathDirectoryTree(),
+                scanDirectoryTreePage(),
                 createDirectory(),
                 deleteDirectory(),
                 getEasefileContent(),
                 addEasefile(),
                 updateEasefile(),
-                deleteEasefile()
+                deleteEasefile(),
+                searchEasefiles(),
+                exportArchive(),
+                importArchive()
         );
     }
 
@@ -55,6 +79,10 @@ public class EasefileManagementHandlers implements InternalHandlers {
                 .build();
     }
 
+    /**
+     * Whole file tree of workspace in one response, kept for existing clients.
+     * Tree is served from index built at startup, large workspaces should be listed by scanDirectoryTreePage().
+     * */
     public EndpointDeclaration scanWorkspaceDirectoryTree() {
         return EndpointDeclaration.builder()
                 .httpMethod(HttpMethod.GET)
@@ -67,6 +95,10 @@ public class EasefileManagementHandlers implements InternalHandlers {
                 .build();
     }
 
+    /**
+     * Whole file tree of requested directory in one response, kept for existing clients.
+     * Large directories should be listed by scanDirectoryTreePage().
+     * */
     public EndpointDeclaration scanPathDirectoryTree() {
         return EndpointDeclaration.builder()
                 .httpMethod(HttpMethod.POST)
@@ -83,6 +115,50 @@ public class EasefileManagementHandlers implements InternalHandlers {
                 .build();
     }
 
+    /**
+     * Scan file tree page by page. Query parameters:
+     * path - directory where scanning starts, root of workspace by default,
+     * depth - how deep nested directories are scanned, 1 by default,
+     * cursor - 'nextCursor' value from previous page,
+     * limit - max amount of entries in page, 100 by default.
+     * Page is sent as chunked response written by JsonGenerator while file tree is scanned,
+     * so neither whole file tree nor whole page is held in memory.
+     * */
+    public EndpointDeclaration scanDirectoryTreePage() {
+        return EndpointDeclaration.builder()
+                .httpMethod(HttpMethod.GET)
+                .endpointUri(MAPPING + "workspace/scan/page")
+                .handler(ctx -> ctx.getRequest().getBody()
+                        .map(typedData -> scanPage(ctx.getRequest().getQueryParams(), ctx.get(ByteBufAllocator.class)))
+                        .onError(throwable -> ctx.getResponse().contentType(APPLICATION_JSON).send(objectMapper.writeValueAsBytes(errorMapping(throwable))))
+                        .then(chunks -> ctx.getResponse().contentType(APPLICATION_JSON).sendStream(Streams.yield(request -> chunks.next()))))
+                .build();
+    }
+
+    private ScanPageChunks scanPage(MultiValueMap<String, String> queryParams, ByteBufAllocator allocator) {
+        final Path path = normalized(isNull(queryParams.get("path")) ? easefileManager.getRootEasefilePath() : Paths.get(queryParams.get("path")));
+        final int depth = intParam(queryParams, "depth", DEFAULT_PAGE_DEPTH);
+        final int limit = Math.min(intParam(queryParams, "limit", DEFAULT_PAGE_LIMIT), MAX_PAGE_LIMIT);
+        final Path cursor = isNull(queryParams.get("cursor")) ? null : Paths.get(queryParams.get("cursor"));
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit of page must be at least 1, but was: " + limit);
+        }
+        Iterator<FileTreeEntry> entries = easefileManager.scan(path, depth, cursor);
+        return new ScanPageChunks(objectMapper.getFactory(), allocator, entries, path, depth, limit);
+    }
+
+    private static int intParam(MultiValueMap<String, String> queryParams, String name, int defaultValue) {
+        String value = queryParams.get(name);
+        if (isNull(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Query parameter '" + name + "' must be a number, but was: " + value);
+        }
+    }
+
     public EndpointDeclaration createDirectory() {
         return EndpointDeclaration.builder()
                 .httpMethod(HttpMethod.POST)
@@ -134,7 +210,7 @@ public class EasefileManagementHandlers implements InternalHandlers {
         }
         byte[] encodedContent = Base64.getEncoder().encode(easefileOut.getEasefileContent().getBytes());
         String encodedContentAsString = new String(encodedContent, Charset.defaultCharset());
-        return EasefileResponse.of(easefileOut.getEasefileStatus(), easefileOut.getErrorMessage(), encodedContentAsString);
+        return EasefileResponse.of(easefileOut.getEasefileStatus(), easefileOut.getErrorMessage(), encodedContentAsString, easefileOut.getEtag());
     }
 
     public EndpointDeclaration addEasefile() {
@@ -159,10 +235,11 @@ public class EasefileManagementHandlers implements InternalHandlers {
     }
 
     private AddEasefileResponse mapSaveResponse(EasefileOut easefileOut) {
-        if (nonNull(easefileOut.getErrorMessage())) {
-            return AddEasefileResponse.withError(easefileOut.getErrorMessage(), easefileOut.getEasefileStatus());
-        }
-        return AddEasefileResponse.of(easefileOut.getFilePath(), easefileOut.getEasefileStatus());
+        AddEasefileResponse addEasefileResponse = nonNull(easefileOut.getErrorMessage())
+                ? AddEasefileResponse.withError(easefileOut.getErrorMessage(), easefileOut.getEasefileStatus())
+                : AddEasefileResponse.of(easefileOut.getFilePath(), easefileOut.getEasefileStatus());
+        addEasefileResponse.setEtag(easefileOut.getEtag());
+        return addEasefileResponse;
     }
 
     public EndpointDeclaration updateEasefile() {
@@ -173,7 +250,7 @@ public class EasefileManagementHandlers implements InternalHandlers {
                         .map(typedData -> {
                             AddEasefileRequest addEasefileRequest = objectMapper.readValue(typedData.getBytes(), AddEasefileRequest.class);
                             String decodedEasefileContent = decode(addEasefileRequest.getEncodedEasefileContent());
-                            return easefileManager.update(Paths.get(addEasefileRequest.getPath()), decodedEasefileContent);
+                            return easefileManager.update(Paths.get(addEasefileRequest.getPath()), decodedEasefileContent, addEasefileRequest.getEtag());
                         }).map(this::mapSaveResponse)
                         .mapError(this::addEasefileErrorMapping)
                         .map(saveResponse -> objectMapper.writeValueAsBytes(saveResponse))
@@ -196,6 +273,90 @@ public class EasefileManagementHandlers implements InternalHandlers {
                 .build();
     }
 
+    /**
+     * Find Easefiles by terms. Query parameters:
+     * query - terms separated by whitespaces, like '$git tag:release',
+     * limit - max amount of paths in response, 100 by default.
+     * */
+    public EndpointDeclaration searchEasefiles() {
+        return EndpointDeclaration.builder()
+                .httpMethod(HttpMethod.GET)
+                .endpointUri(MAPPING + "search")
+                .handler(ctx -> ctx.getRequest().getBody()
+                        .map(typedData -> {
+                            MultiValueMap<String, String> queryParams = ctx.getRequest().getQueryParams();
+                            final String query = queryParams.get("query");
+                            final int limit = Math.min(intParam(queryParams, "limit", DEFAULT_SEARCH_LIMIT), MAX_PAGE_LIMIT);
+                            if (isNull(query) || query.isBlank()) {
+                                throw new IllegalArgumentException("Query parameter 'query' is required");
+                            }
+                            return new EasefileSearchResponse(query, easefileManager.search(query, limit));
+                        })
+                        .mapError(this::searchErrorMapping)
+                        .map(searchResponse -> objectMapper.writeValueAsBytes(searchResponse))
+                        .then(bytes -> ctx.getResponse().contentType(APPLICATION_JSON).send(bytes)))
+                .build();
+    }
+
+    private EasefileSearchResponse searchErrorMapping(Throwable throwable) {
+        if (throwable instanceof IllegalArgumentException) {
+            return EasefileSearchResponse.withError(throwable.getMessage());
+        }
+        return EasefileSearchResponse.withError("Not expected, unrecognized exception occurred while processing request");
+    }
+
+    /**
+     * Download zip archive with Easefiles. Query parameters:
+     * path - directory to archive, root of workspace by default,
+     * projects - if 'true', file with projects structure is added to archive.
+     * Archive is written to temporary file and sent from disk, then removed.
+     * */
+    public EndpointDeclaration exportArchive() {
+        return EndpointDeclaration.builder()
+                .httpMethod(HttpMethod.GET)
+                .endpointUri(MAPPING + "archive/export")
+                .handler(ctx -> ctx.getRequest().getBody()
+                        .map(typedData -> {
+                            MultiValueMap<String, String> queryParams = ctx.getRequest().getQueryParams();
+                            final Path path = isNull(queryParams.get("path")) ? easefileManager.getRootEasefilePath() : Paths.get(queryParams.get("path"));
+                            return easefileManager.exportArchive(path, Boolean.parseBoolean(queryParams.get("projects")));
+                        })
+                        .onError(throwable -> ctx.getResponse().contentType(APPLICATION_JSON).send(objectMapper.writeValueAsBytes(archiveErrorMapping(throwable))))
+                        .then(archive -> {
+                            ctx.onClose(outcome -> Files.deleteIfExists(archive));
+                            ctx.getResponse().contentType(APPLICATION_ZIP).sendFile(archive);
+                        }))
+                .build();
+    }
+
+    /**
+     * Upload zip archive made by export and apply all Easefiles from it. Query parameters:
+     * projects - if 'true', file with projects structure from archive replaces current one.
+     * */
+    public EndpointDeclaration importArchive() {
+        return EndpointDeclaration.builder()
+                .httpMethod(HttpMethod.POST)
+                .endpointUri(MAPPING + "archive/import")
+                .handler(ctx -> ctx.getRequest().getBody(maxArchiveSize)
+                        .map(typedData -> {
+                            try (InputStream archive = typedData.getInputStream()) {
+                                boolean withProjects = Boolean.parseBoolean(ctx.getRequest().getQueryParams().get("projects"));
+                                return new EasefileArchiveResponse(easefileManager.importArchive(archive, withProjects));
+                            }
+                        })
+                        .mapError(this::archiveErrorMapping)
+                        .map(archiveResponse -> objectMapper.writeValueAsBytes(archiveResponse))
+                        .then(bytes -> ctx.getResponse().contentType(APPLICATION_JSON).send(bytes)))
+                .build();
+    }
+
+    private EasefileArchiveResponse archiveErrorMapping(Throwable throwable) {
+        if (throwable instanceof IllegalArgumentException || throwable instanceof IOException) {
+            return EasefileArchiveResponse.withError(throwable.getMessage());
+        }
+        return EasefileArchiveResponse.withError("Not expected, unrecognized exception occurred while processing request");
+    }
+
     private AddEasefileResponse mapDeleteResponse(Boolean deleteResult) {
         return AddEasefileResponse.of(deleteResult ? EasefileStatus.REMOVED_CORRECTLY : EasefileStatus.REMOVE_FAILED);
     }
@@ -204,6 +365,9 @@ public class EasefileManagementHandlers implements InternalHandlers {
         if (throwable instanceof UnrecognizedPropertyException) {
             return EasefileWorkspaceResponse.withError("Data in request body is not correct.");
         }
+        if (throwable instanceof IllegalArgumentException) {
+            return EasefileWorkspaceResponse.withError(throwable.getMessage());
+        }
         return EasefileWorkspaceResponse.withError("Not expected, unrecognized exception occurred while processing request");
     }
 
@@ -15,6 +15,7 @@ public class EasefileResponse {
     private EasefileStatus easefileStatus;
     private String errorMessage;
     private String encodedEasefileContent;
+    private String etag;
 
     public static EasefileResponse of(String fileContentEncoded, EasefileStatus status) {
         EasefileResponse easefileResponse = new EasefileResponse();
@@ -0,0 +1,30 @@
+package io.easeci.api.easefile;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.easeci.api.Errorable;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EasefileSearchResponse extends Errorable {
+    private String query;
+    private List<Path> paths;
+
+    private EasefileSearchResponse(String errorMessage) {
+        super.setErrorMessage(errorMessage);
+    }
+
+    public EasefileSearchResponse(String query, List<Path> paths) {
+        this.query = query;
+        this.paths = paths;
+    }
+
+    public static EasefileSearchResponse withError(String errorMessage) {
+        return new EasefileSearchResponse(errorMessage);
+    }
+}
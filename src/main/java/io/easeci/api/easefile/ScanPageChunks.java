@@ -0,0 +1,107 @@
+package io.easeci.api.easefile;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.easeci.core.workspace.easefiles.filetree.FileTreeEntry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Writes one page of file tree as JSON, chunk by chunk.
+ * Each call of next() pulls at most ENTRIES_PER_CHUNK entries from scanning iterator
+ * and returns only bytes written for them, so page is never held in memory as a whole.
+ * Not thread safe, chunks are requested one by one by response stream.
+ * */
+class ScanPageChunks {
+    private final static int ENTRIES_PER_CHUNK = 64;
+
+    private final JsonFactory jsonFactory;
+    private final ByteBufAllocator allocator;
+    private final Iterator<FileTreeEntry> entries;
+    private final Path entryPoint;
+    private final int depth;
+    private final int limit;
+    private final ChunkOutputStream output = new ChunkOutputStream();
+    private JsonGenerator generator;
+    private FileTreeEntry last;
+    private int written;
+    private boolean finished;
+
+    ScanPageChunks(JsonFactory jsonFactory, ByteBufAllocator allocator, Iterator<FileTreeEntry> entries,
+                   Path entryPoint, int depth, int limit) {
+        this.jsonFactory = jsonFactory;
+        this.allocator = allocator;
+        this.entries = entries;
+        this.entryPoint = entryPoint;
+        this.depth = depth;
+        this.limit = limit;
+    }
+
+    /**
+     * @return next chunk of page or null when whole page was already written
+     * */
+    ByteBuf next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        ByteBuf chunk = allocator.buffer();
+        output.target = chunk;
+        try {
+            if (isNull(generator)) {
+                generator = jsonFactory.createGenerator(output);
+                generator.writeStartObject();
+                generator.writeStringField("entryPoint", entryPoint.toString());
+                generator.writeNumberField("depth", depth);
+                generator.writeArrayFieldStart("entries");
+            }
+            for (int i = 0; i < ENTRIES_PER_CHUNK && written < limit && entries.hasNext(); i++, written++) {
+                last = entries.next();
+                generator.writeStartObject();
+                generator.writeStringField("path", last.getPath().toString());
+                generator.writeStringField("nodeType", last.getNodeType());
+                generator.writeNumberField("depth", last.getDepth());
+                generator.writeBooleanField("hasNext", last.isHasNext());
+                generator.writeEndObject();
+            }
+            if (written < limit && entries.hasNext()) {
+                generator.flush();
+                return chunk;
+            }
+            generator.writeEndArray();
+            if (nonNull(last) && entries.hasNext()) {
+                generator.writeStringField("nextCursor", last.getPath().toString());
+            } else {
+                generator.writeNullField("nextCursor");
+            }
+            generator.writeEndObject();
+            generator.close();
+            finished = true;
+            return chunk;
+        } catch (IOException | RuntimeException exception) {
+            chunk.release();
+            throw exception;
+        }
+    }
+
+    private static class ChunkOutputStream extends OutputStream {
+        private ByteBuf target;
+
+        @Override
+        public void write(int b) {
+            target.writeByte(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            target.writeBytes(bytes, offset, length);
+        }
+    }
+}
@@ -4,24 +4,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.easeci.core.extension.DirectivesCollector;
 import io.easeci.core.extension.ExtensionControllable;
 import io.easeci.core.extension.ExtensionSystem;
+import io.easeci.core.extension.PluginContainerSnapshot;
 import io.easeci.core.extension.PluginSystemCriticalException;
+import io.easeci.core.extension.PluginThreadPool;
 import io.easeci.core.registry.PluginDetails;
 import io.easeci.core.registry.PluginUpdate;
 import io.easeci.core.registry.RegistryProxy;
 import io.easeci.server.EndpointDeclaration;
 import io.easeci.server.InternalHandlers;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import ratpack.exec.Promise;
 import ratpack.path.PathTokens;
 
+import java.util.Arrays;
 import java.util.List;
 
+import static java.util.Objects.isNull;
 import static ratpack.http.HttpMethod.*;
 import static ratpack.http.MediaType.APPLICATION_JSON;
 
 public class ExtensionHandlers implements InternalHandlers {
     private final static String MAPPING = "plugin/";
+    private final static int NOT_MODIFIED = 304;
     private ExtensionControllable controllable;
     private DirectivesCollector directivesCollector;
+    private PluginThreadPool pluginThreadPool;
     private PluginUpdate pluginUpdate;
     private PluginDetails pluginDetails;
     private ObjectMapper objectMapper;
@@ -30,6 +37,7 @@ public class ExtensionHandlers implements InternalHandlers {
         ExtensionSystem extensionSystem = ExtensionSystem.getInstance();
         this.controllable = extensionSystem;
         this.directivesCollector = extensionSystem;
+        this.pluginThreadPool = extensionSystem.getPluginThreadPool();
         final RegistryProxy registryProxy = new RegistryProxy();
         this.pluginUpdate = registryProxy;
         this.pluginDetails = registryProxy;
@@ -40,10 +48,12 @@ public class ExtensionHandlers implements InternalHandlers {
     public List<EndpointDeclaration> endpoints() {
         return List.of(
                 getState(),
+                getStandaloneStats(),
                 shutdownExtension(),
                 enableExtension(),
                 restartExtension(),
                 checkForUpdate(),
+                checkForUpdates(),
                 fetchDetails(),
                 fetchAllAvailableDirectives()
         );
@@ -53,9 +63,33 @@ public class ExtensionHandlers implements InternalHandlers {
         return EndpointDeclaration.builder()
                 .httpMethod(GET)
                 .endpointUri(MAPPING + "state")
-                .handler(ctx -> ctx.getRequest().getBody()
-                        .map(typedData -> this.controllable.state())
-                        .map(pluginContainerState -> objectMapper.writeValueAsBytes(pluginContainerState))
+                .handler(ctx -> {
+                    PluginContainerSnapshot snapshot = this.controllable.stateSnapshot();
+                    ctx.getResponse().getHeaders().set(HttpHeaderNames.ETAG, snapshot.getEntityTag());
+                    if (isNotModified(ctx.getRequest().getHeaders().get(HttpHeaderNames.IF_NONE_MATCH), snapshot.getEntityTag())) {
+                        ctx.getResponse().status(NOT_MODIFIED).send();
+                        return;
+                    }
+                    ctx.getResponse().contentType(APPLICATION_JSON).send(snapshot.getJson());
+                })
+                .build();
+    }
+
+    private static boolean isNotModified(String ifNoneMatch, String entityTag) {
+        if (isNull(ifNoneMatch)) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(entityTag) || tag.equals("W/" + entityTag));
+    }
+
+    private EndpointDeclaration getStandaloneStats() {
+        return EndpointDeclaration.builder()
+                .httpMethod(GET)
+                .endpointUri(MAPPING + "standalone/stats")
+                .handler(ctx -> Promise.value(this.pluginThreadPool.stats())
+                        .map(stats -> objectMapper.writeValueAsBytes(stats))
                         .then(bytes -> ctx.getResponse().contentType(APPLICATION_JSON).send(bytes)))
                 .build();
     }
@@ -112,6 +146,16 @@ public class ExtensionHandlers implements InternalHandlers {
                 }).build();
     }
 
+    private EndpointDeclaration checkForUpdates() {
+        return EndpointDeclaration.builder()
+                .httpMethod(GET)
+                .endpointUri(MAPPING + "update/check")
+                .handler(ctx -> this.pluginUpdate.checkForUpdates()
+                        .map(pluginUpdateCheckResponses -> this.objectMapper.writeValueAsBytes(pluginUpdateCheckResponses))
+                        .then(bytes -> ctx.getResponse().contentType(APPLICATION_JSON).send(bytes)))
+                .build();
+    }
+
     private EndpointDeclaration fetchDetails() {
         final String PLUGIN_NAME = "pluginName",
                   PLUGIN_VERSION = "pluginVersion";
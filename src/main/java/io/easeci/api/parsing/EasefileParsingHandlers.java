@@ -3,6 +3,7 @@ package io.easeci.api.parsing;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.easeci.core.engine.easefile.loader.EasefileContentMalformed;
 import io.easeci.core.engine.easefile.loader.EasefileLoaderFactory;
+import io.easeci.core.engine.easefile.loader.LiveLoader;
 import io.easeci.core.engine.easefile.parser.EasefileParser;
 import io.easeci.server.EndpointDeclaration;
 import io.easeci.server.InternalHandlers;
@@ -16,11 +17,15 @@ import static ratpack.http.MediaType.APPLICATION_JSON;
 
 public class EasefileParsingHandlers implements InternalHandlers {
     private final static String MAPPING = "parse";
+    private final static long REQUEST_OVERHEAD_BYTES = 64 * 1024;
     private ObjectMapper objectMapper;
     private EasefileParser easefileParser;
+    private final long maxRequestSize;
 
-    public EasefileParsingHandlers() {
+    public EasefileParsingHandlers(EasefileParser easefileParser) {
         this.objectMapper = new ObjectMapper();
+        this.easefileParser = easefileParser;
+        this.maxRequestSize = maxRequestSize();
     }
 
     @Override
@@ -33,9 +38,9 @@ public class EasefileParsingHandlers implements InternalHandlers {
         return EndpointDeclaration.builder()
                 .httpMethod(HttpMethod.POST)
                 .endpointUri(MAPPING)
-                .handler(ctx -> ctx.getRequest().getBody()
+                .handler(ctx -> ctx.getRequest().getBody(this.maxRequestSize)
                         .map(typedData -> {
-                            RunParseProcess runParseProcess = objectMapper.readValue(typedData.getBytes(), RunParseProcess.class);
+                            RunParseProcess runParseProcess = objectMapper.readValue(typedData.getInputStream(), RunParseProcess.class);
                             String easefilePlainContent = EasefileLoaderFactory.factorize(runParseProcess).provide();
                             return easefileParser.parse(easefilePlainContent);
                         }).map(ParseProcessResponse::of)
@@ -45,6 +50,11 @@ public class EasefileParsingHandlers implements InternalHandlers {
                 .build();
     }
 
+    // Base64 makes encoded Easefile 4/3 times bigger than decoded one
+    private static long maxRequestSize() {
+        return LiveLoader.maxEasefileSize() * 4 / 3 + REQUEST_OVERHEAD_BYTES;
+    }
+
     private ParseProcessResponse errorMapping(Throwable throwable) {
         if (throwable instanceof IOException) {
             return ParseProcessResponse.withError("Cannot load Easefile from defined source");
@@ -18,13 +18,15 @@ import io.easeci.core.node.NodeUtils;
  *                P - parsing
  *                A - adding
  *                D - deleting
+ *                G - generating
  *  - position 4: is delimiter '_'
  *  - position 5-8: code ordinal number
  * @author Karol Meksuła
  * 2020-11-23
  * */
 public enum EngineStatus {
-    F_PP_0001("Pipeline was created but something went wrong while adding PipelinePointer to projects-structure.json file");
+    F_PP_0001("Pipeline was created but something went wrong while adding PipelinePointer to projects-structure.json file"),
+    F_PG_0001("Executive script of Pipeline could not be generated by Directive plugins");
 
     public String className;           // <- indicates class where error could be occurred
     public long codeLine;              // <- indicates line of code where error could be occurred
@@ -1,23 +1,45 @@
 package io.easeci.core.engine.easefile.loader;
 
 import io.easeci.core.workspace.LocationUtils;
-import io.easeci.core.workspace.cache.CacheGarbageCollector;
 import io.easeci.core.workspace.cache.CacheManager;
+import io.easeci.core.workspace.cache.EasefileBlobStore;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.jgit.treewalk.TreeWalk;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.EASEFILE_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.isNull;
 
+/**
+ * Loads Easefile from remote git repository.
+ * Every remote has its own bare mirror placed in .cache/git-mirrors directory.
+ * Mirror fetches only tip of remote's default branch (HEAD) without tags,
+ * and next loads from the same remote fetch incrementally only new objects.
+ * Easefile is read directly from git objects database, so no working tree is checked out.
+ * Mirror is locked in CacheManager while it is used, so it is not evicted from cache in the meantime.
+ * */
 public class GitLoader implements EasefileLoader {
+    final static String MIRRORS_DIRECTORY = "git-mirrors",
+                        MIRROR_HEAD_REF = "refs/remotes/origin/HEAD";
+    private final static String SOURCE_PREFIX = "git:",
+                                EASEFILE_NAME_PATTERN = "[Ee]asefile[./\\s^]*?";
     private String gitRepositoryUrl;
 
     public static EasefileLoader of(String gitRepositoryUrl) {
@@ -28,55 +50,84 @@ public class GitLoader implements EasefileLoader {
 
     @Override
     public String provide() throws GitAPIException, IOException {
-        final File repositoryDestination = repositoryFilesDestination();
-
-        if (Files.exists(repositoryDestination.toPath())) {
-            final Path easefile = findEasefile(repositoryDestination.toPath());
-            logit(EASEFILE_EVENT, "Loading content to parsing Easefile from git repository from remote: "
-                    + gitRepositoryUrl + ". That just exists in local workspace", THREE);
-            return readFile(easefile.toFile());
+        final File mirrorDestination = mirrorDestination();
+        final CacheManager cacheManager = CacheManager.getInstance();
+        final Lock mirrorLock = cacheManager.entryLock(mirrorDestination.toPath());
+        mirrorLock.lock();
+        try {
+            cacheManager.touch(mirrorDestination.toPath());
+            final boolean isMirrorExisting = Files.exists(mirrorDestination.toPath());
+            try (Git git = isMirrorExisting
+                    ? Git.open(mirrorDestination)
+                    : Git.init().setBare(true).setDirectory(mirrorDestination).call()) {
+                fetchHead(git, mirrorDestination, isMirrorExisting);
+                cacheManager.touch(mirrorDestination.toPath());
+                final String easefileContent = readEasefile(git.getRepository());
+                logit(EASEFILE_EVENT, "Loading content to parsing Easefile from git repository from remote: " + gitRepositoryUrl
+                        + (isMirrorExisting ? ". Mirror just exists in local workspace and was updated" : ""), THREE);
+                return easefileContent;
+            }
+        } finally {
+            mirrorLock.unlock();
         }
+    }
 
-        Git.cloneRepository()
-                .setURI(gitRepositoryUrl)
-                .setDirectory(repositoryDestination)
-                .call();
-
-        final Path easefile = findEasefile(repositoryDestination.toPath());
-        final String easefileContent = readFile(easefile.toFile());
-
-        CacheGarbageCollector cacheGarbageCollector = CacheManager.getInstance();
-        cacheGarbageCollector.cleanup(repositoryDestination.toPath());
-        logit(EASEFILE_EVENT, "Loading content to parsing Easefile from git repository from remote: " + gitRepositoryUrl, THREE);
-        return easefileContent;
+    private void fetchHead(Git git, File mirrorDestination, boolean isMirrorExisting) throws GitAPIException {
+        try {
+            git.fetch()
+                    .setRemote(gitRepositoryUrl)
+                    .setRefSpecs(new RefSpec("+HEAD:" + MIRROR_HEAD_REF))
+                    .setTagOpt(TagOpt.NO_TAGS)
+                    .call();
+        } catch (GitAPIException exception) {
+            if (!isMirrorExisting) {
+                git.close();
+                FileUtils.deleteQuietly(mirrorDestination);
+            }
+            throw exception;
+        }
     }
 
-    private String readFile(File easefile) throws IOException {
-        return FileUtils.readFileToString(easefile, "UTF-8");
+    private String readEasefile(Repository repository) throws IOException {
+        final ObjectId head = repository.resolve(MIRROR_HEAD_REF);
+        if (isNull(head)) {
+            throw new IllegalStateException("Easefile not exists in repository");
+        }
+        try (RevWalk revWalk = new RevWalk(repository);
+             TreeWalk treeWalk = new TreeWalk(repository)) {
+            RevCommit commit = revWalk.parseCommit(head);
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setRecursive(false);
+            while (treeWalk.next()) {
+                if (!treeWalk.isSubtree() && treeWalk.getNameString().matches(EASEFILE_NAME_PATTERN)) {
+                    byte[] content = repository.open(treeWalk.getObjectId(0)).getBytes();
+                    EasefileBlobStore.getInstance().put(SOURCE_PREFIX + gitRepositoryUrl.trim(), content);
+                    return new String(content, StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new IllegalStateException("Easefile not exists in repository");
     }
 
-    private File repositoryFilesDestination() {
+    File mirrorDestination() {
         return Paths.get(LocationUtils.getCacheDirectoryLocation().toString()
                 .concat("/")
-                .concat(repositoryName()))
+                .concat(MIRRORS_DIRECTORY)
+                .concat("/")
+                .concat(mirrorName()))
                 .toFile();
     }
 
-    private String repositoryName() {
-        String[] parts = gitRepositoryUrl.split("/");
-        return parts[parts.length - 1].trim();
+    private String mirrorName() {
+        return repositoryName()
+                .concat("-")
+                .concat(UUID.nameUUIDFromBytes(gitRepositoryUrl.trim().getBytes(StandardCharsets.UTF_8)).toString())
+                .concat(".git");
     }
 
-    private Path findEasefile(Path repositoryLocalPath) throws IOException {
-        final String EASEFILE_NAME_PATTERN = ".+/[Ee]asefile[./\\s^]*?";
-        return Files.list(repositoryLocalPath)
-                .filter(path -> Files.isRegularFile(path))
-                .filter(path -> path.toString().matches(EASEFILE_NAME_PATTERN))
-                .findFirst()
-                .orElseThrow(() -> {
-                    CacheGarbageCollector cacheGarbageCollector = CacheManager.getInstance();
-                    cacheGarbageCollector.cleanup(repositoryLocalPath);
-                    throw new IllegalStateException("Easefile not exists in repository");
-                });
+    private String repositoryName() {
+        String[] parts = gitRepositoryUrl.split("/");
+        String name = parts[parts.length - 1].trim();
+        return name.endsWith(".git") ? name.substring(0, name.length() - 4) : name;
     }
 }
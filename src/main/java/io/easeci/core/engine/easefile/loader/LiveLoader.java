@@ -1,79 +1,152 @@
 package io.easeci.core.engine.easefile.loader;
 
-import io.easeci.commons.DirUtils;
+import io.easeci.core.workspace.cache.EasefileBlobStore;
+import org.apache.commons.io.input.CharSequenceInputStream;
+import org.apache.commons.io.input.TeeInputStream;
 
-import java.io.IOException;
-import java.io.Serializable;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Base64;
-import java.util.Date;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.EASEFILE_EVENT;
-import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
-import static io.easeci.core.workspace.LocationUtils.getCacheDirectoryLocation;
-import static io.easeci.core.workspace.LocationUtils.getWorkspaceLocation;
-import static io.easeci.core.workspace.cache.CacheManager.CACHE_DIRECTORY;
+import static io.easeci.core.workspace.LocationUtils.retrieveFromGeneralInt;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
+/**
+ * Loads Easefile's content sent in request encoded in Base64.
+ * Content is decoded as a stream and in one pass it is saved in EasefileBlobStore
+ * and collected for parser, so there is no intermediate decoded copies in memory.
+ * Decoded content cannot be greater than value of 'engine.easefile.max-size' in general.yml.
+ * */
 public class LiveLoader implements EasefileLoader, Serializable {
-    private static final String LIVE_CACHED_FILES = "/easefiles-live/";
+    private final static int DEFAULT_MAX_SIZE = 1024 * 1024;
+    private final static String MALFORMED_MESSAGE = "Content of Easefile to parse is malformed. Maybe not Base64 encoded?";
     private Path localStoragePath;
     private String encodedEasefileContent;
+    private long maxEasefileSize;
 
     public static LiveLoader of(String localStoragePath, String encodedEasefileContent) {
+        return of(localStoragePath, encodedEasefileContent, maxEasefileSize());
+    }
+
+    public static LiveLoader of(String encodedEasefileContent) {
+        return of(null, encodedEasefileContent, maxEasefileSize());
+    }
+
+    static LiveLoader of(String localStoragePath, String encodedEasefileContent, long maxEasefileSize) {
         LiveLoader liveLoader = new LiveLoader();
         if (nonNull(localStoragePath)) {
             liveLoader.localStoragePath = Path.of(localStoragePath);
         }
         liveLoader.encodedEasefileContent = encodedEasefileContent;
-        initializeDirectory();
+        liveLoader.maxEasefileSize = maxEasefileSize;
         return liveLoader;
     }
 
-    public static LiveLoader of(String encodedEasefileContent) {
-        LiveLoader liveLoader = new LiveLoader();
-        liveLoader.encodedEasefileContent = encodedEasefileContent;
-        initializeDirectory();
-        return liveLoader;
+    /**
+     * @return max size in bytes of decoded Easefile accepted from request,
+     *         read from general.yml once, when it is required first time
+     * */
+    public static long maxEasefileSize() {
+        return Settings.MAX_EASEFILE_SIZE;
     }
 
-    private static Path initializeDirectory() {
-        final String workspaceLocation = getWorkspaceLocation();
-        final String cacheDirLiveFilesLocation = workspaceLocation.concat(CACHE_DIRECTORY + LIVE_CACHED_FILES);
-        if (!DirUtils.isDirectoryExists(cacheDirLiveFilesLocation)) {
-            Path path = DirUtils.directoryCreate(cacheDirLiveFilesLocation);
-            logit(WORKSPACE_EVENT, "Directory for caching easefiles from live analyse just created at here: " + path, THREE);
-            return path;
-        }
-        return Path.of(cacheDirLiveFilesLocation);
+    private static class Settings {
+        private final static long MAX_EASEFILE_SIZE = retrieveFromGeneralInt("engine.easefile.max-size", DEFAULT_MAX_SIZE);
     }
 
     @Override
     public String provide() throws IOException, EasefileContentMalformed {
-        final String tmpEasefileName = getCacheDirectoryLocation()
-                                            .toString()
-                                            .concat(LIVE_CACHED_FILES).concat("Easefile")
-                                            .concat(String.valueOf(new Date().hashCode()));
-        try {
-            byte[] decode = Base64.getDecoder().decode(encodedEasefileContent);
-            String decodedContent = new String(decode, StandardCharsets.UTF_8);
-            Path createdFile = Files.createFile(Paths.get(tmpEasefileName));
-            Files.writeString(createdFile, decodedContent);
+        if (isNull(encodedEasefileContent)) {
+            logit(EASEFILE_EVENT, MALFORMED_MESSAGE, THREE);
+            throw new EasefileContentMalformed(MALFORMED_MESSAGE);
+        }
+        final long expectedSize = encodedEasefileContent.length() / 4 * 3;
+        if (expectedSize > maxEasefileSize + 2) {
+            throw tooLarge();
+        }
+        ByteArrayOutputStream parserBuffer = new ByteArrayOutputStream((int) Math.min(expectedSize, maxEasefileSize));
+        InputStream encoded = new CharSequenceInputStream(encodedEasefileContent, StandardCharsets.US_ASCII);
+        try (InputStream decoded = new TeeInputStream(new GuardedInputStream(Base64.getDecoder().wrap(encoded), maxEasefileSize), parserBuffer)) {
+            String hash = EasefileBlobStore.getInstance().put(nonNull(this.localStoragePath)
+                    ? WorkspaceLoader.sourceKey(this.localStoragePath)
+                    : null, decoded);
             if (nonNull(this.localStoragePath)) {
-                Files.writeString(this.localStoragePath, decodedContent);
+                Path blob = EasefileBlobStore.getInstance().locate(hash).orElseThrow();
+                Files.copy(blob, this.localStoragePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (ContentViolation violation) {
+            logit(EASEFILE_EVENT, violation.getMessage(), THREE);
+            throw new EasefileContentMalformed(violation.getMessage());
+        }
+        logit(EASEFILE_EVENT, "Loading content to parsing Easefile live from request", THREE);
+        return parserBuffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private EasefileContentMalformed tooLarge() {
+        final String errorMessage = "Content of Easefile to parse is too large. Max size is " + maxEasefileSize + " bytes";
+        logit(EASEFILE_EVENT, errorMessage, THREE);
+        return new EasefileContentMalformed(errorMessage);
+    }
+
+    private static class ContentViolation extends IOException {
+
+        ContentViolation(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Counts decoded bytes and distinguishes decoding errors from errors of disk.
+     * */
+    private static class GuardedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long count;
+
+        GuardedInputStream(InputStream decoded, long maxSize) {
+            super(decoded);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value;
+            try {
+                value = super.read();
+            } catch (IOException exception) {
+                throw new ContentViolation(MALFORMED_MESSAGE);
+            }
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read;
+            try {
+                read = super.read(buffer, offset, length);
+            } catch (IOException exception) {
+                throw new ContentViolation(MALFORMED_MESSAGE);
+            }
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) throws ContentViolation {
+            count += read;
+            if (count > maxSize) {
+                throw new ContentViolation("Content of Easefile to parse is too large. Max size is " + maxSize + " bytes");
             }
-            logit(EASEFILE_EVENT, "Loading content to parsing Easefile live from request", THREE);
-            return decodedContent;
-        } catch (IllegalArgumentException exception) {
-            exception.printStackTrace();
-            final String errorMessage = "Content of Easefile to parse is malformed. Maybe not Base64 encoded?";
-            logit(EASEFILE_EVENT, errorMessage, THREE);
-            throw new EasefileContentMalformed(errorMessage);
         }
     }
 }
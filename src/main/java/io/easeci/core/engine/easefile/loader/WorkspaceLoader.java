@@ -1,9 +1,12 @@
 package io.easeci.core.engine.easefile.loader;
 
+import io.easeci.core.workspace.cache.EasefileBlobStore;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -11,8 +14,10 @@ import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.EASEFILE
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 import static io.easeci.core.workspace.easefiles.EasefileManager.hasAccessRight;
+import static io.easeci.core.workspace.easefiles.EasefileManager.normalized;
 
 public class WorkspaceLoader implements EasefileLoader {
+    private static final String SOURCE_PREFIX = "workspace:";
     private String localStoragePath;
 
     public static EasefileLoader of(String localStoragePath) {
@@ -23,15 +28,20 @@ public class WorkspaceLoader implements EasefileLoader {
 
     @Override
     public String provide() throws IOException, IllegalAccessException {
-        Path path = Paths.get(this.localStoragePath);
+        Path path = normalized(Paths.get(this.localStoragePath));
         if (hasAccessRight(path)) {
-            File file = path.toFile();
-            return FileUtils.readFileToString(file, "UTF-8");
+            byte[] content = Files.readAllBytes(path);
+            EasefileBlobStore.getInstance().put(sourceKey(path), content);
+            return new String(content, StandardCharsets.UTF_8);
         }
         logit(EASEFILE_EVENT, "Loading content to parsing Easefile from workspace from path: " + path, THREE);
         throw new IllegalAccessException("Cannot load file out of workspace. Access denied");
     }
 
+    static String sourceKey(Path localStoragePath) {
+        return SOURCE_PREFIX + localStoragePath.toAbsolutePath().normalize();
+    }
+
     // for test purpose only. No access rights checking
     protected String testProvide() throws IOException {
         Path path = Paths.get(this.localStoragePath);
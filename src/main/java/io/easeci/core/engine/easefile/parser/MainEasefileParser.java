@@ -2,14 +2,29 @@ package io.easeci.core.engine.easefile.parser;
 
 import io.easeci.core.engine.EngineStatus;
 import io.easeci.core.engine.easefile.parser.analyse.StaticAnalyseException;
+import io.easeci.core.engine.pipeline.Pipeline;
+import io.easeci.core.engine.script.DirectiveStep;
+import io.easeci.core.engine.script.ScriptGenerationException;
+import io.easeci.core.engine.script.ScriptGenerator;
 import io.easeci.core.workspace.projects.PipelinePointerIO;
 import io.easeci.core.workspace.projects.ProjectManager;
+import io.easeci.extension.command.Command;
+import io.vavr.Tuple2;
+
+import java.util.Collections;
+import java.util.List;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.EASEFILE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 
 public class MainEasefileParser implements EasefileParser {
     private PipelinePointerIO pipelinePointerIO;
+    private ScriptGenerator scriptGenerator;
 
-    public MainEasefileParser() {
+    public MainEasefileParser(ScriptGenerator scriptGenerator) {
         this.pipelinePointerIO = ProjectManager.getInstance();
+        this.scriptGenerator = scriptGenerator;
     }
 
     @Override
@@ -21,7 +36,21 @@ public class MainEasefileParser implements EasefileParser {
 
         EasefileParseResult easefileParseResult = new EasefileParseResult();
 
-        boolean isPointerCreated = pipelinePointerIO.createNewPipelinePointer(easefileParseResult.getPipeline().getMetadata());
+        // directive's name and command pairs in order declared in Easefile, filled by parsing above
+        List<Tuple2<String, Command>> parsedCommands = Collections.emptyList();
+        Pipeline.Metadata pipelineMetadata = easefileParseResult.getPipeline().getMetadata();
+        try {
+            scriptGenerator.generate(DirectiveStep.group(parsedCommands), pipelineMetadata.getPipelineFilePath());
+        } catch (ScriptGenerationException exception) {
+            logit(EASEFILE_EVENT, "Cannot generate executive script of pipeline: " + exception.getMessage(), THREE);
+            EngineStatus ePg0001 = EngineStatus.F_PG_0001;
+            ePg0001.className = this.getClass().getName();
+            ePg0001.codeLine = Thread.currentThread().getStackTrace()[0].getLineNumber();
+            easefileParseResult.putError(ePg0001);
+            return easefileParseResult;
+        }
+
+        boolean isPointerCreated = pipelinePointerIO.createNewPipelinePointer(pipelineMetadata);
 
         if (!isPointerCreated) {
             EngineStatus ePp0001 = EngineStatus.F_PP_0001;
@@ -0,0 +1,127 @@
+package io.easeci.core.engine.script;
+
+import io.easeci.core.extension.PluginLifecycleListener;
+import io.easeci.extension.command.Command;
+import io.easeci.extension.command.CommandParameter;
+import io.easeci.extension.directive.CodeChunk;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.FOUR;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.isNull;
+
+/**
+ * Memoizes chunks of code generated by Directive plugins.
+ * Generated code depends only on plugin (name and version) and commands passed to it,
+ * so chunk is stored under key of plugin's name, plugin's version and SHA-256 of
+ * canonical form of command list.
+ * Entries of plugin are dropped when plugin is restarted or upgraded.
+ * Every invalidation bumps generation, so chunk generated before invalidation
+ * is never stored - caller takes generation() before generating and passes it to put().
+ * */
+public class CodeChunkCache implements PluginLifecycleListener {
+    private final Map<Key, CodeChunk> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public Optional<CodeChunk> get(Key key) {
+        return Optional.ofNullable(cache.get(key));
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Key key, CodeChunk codeChunk) {
+        put(key, codeChunk, generation());
+    }
+
+    /**
+     * @param generation value of generation() taken before codeChunk was generated.
+     *                   When any invalidation happened since then, codeChunk is not stored.
+     * */
+    public void put(Key key, CodeChunk codeChunk, long generation) {
+        if (isNull(codeChunk)) {
+            return;
+        }
+        cache.compute(key, (k, current) -> this.generation.get() == generation ? codeChunk : current);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void onLifecycleChange(String pluginName, String pluginVersion) {
+        generation.incrementAndGet();
+        boolean isRemoved = cache.keySet().removeIf(key -> key.pluginName.equals(pluginName));
+        if (isRemoved) {
+            logit(PLUGIN_EVENT, "Cached code chunks of plugin '" + pluginName + "' invalidated", FOUR);
+        }
+    }
+
+    public static Key key(String pluginName, String pluginVersion, List<Command> commands) {
+        return Key.of(pluginName, pluginVersion, canonicalHash(commands));
+    }
+
+    /**
+     * Every value is prefixed with its length, so different
+     * command lists cannot produce the same canonical form.
+     * */
+    static String canonicalHash(List<Command> commands) {
+        StringBuilder canonical = new StringBuilder();
+        for (Command command : commands) {
+            append(canonical, command.getCommandName());
+            List<CommandParameter> parameters = command.getCommandParameterList();
+            canonical.append(isNull(parameters) ? -1 : parameters.size()).append(';');
+            if (isNull(parameters)) {
+                continue;
+            }
+            for (CommandParameter parameter : parameters) {
+                append(canonical, parameter.getParameterName());
+                append(canonical, parameter.getParameterValue());
+                append(canonical, isNull(parameter.getParameterType()) ? null : parameter.getParameterType().name());
+            }
+        }
+        return sha256(canonical.toString());
+    }
+
+    private static void append(StringBuilder canonical, String value) {
+        if (isNull(value)) {
+            canonical.append("-1;");
+            return;
+        }
+        canonical.append(value.length()).append(':').append(value).append(';');
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 algorithm is not available in this JVM", exception);
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor(staticName = "of")
+    public static class Key {
+        private final String pluginName;
+        private final String pluginVersion;
+        private final String commandsHash;
+    }
+}
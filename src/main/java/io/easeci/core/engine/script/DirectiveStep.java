@@ -0,0 +1,44 @@
+package io.easeci.core.engine.script;
+
+import io.easeci.extension.command.Command;
+import io.vavr.Tuple2;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One step of final executive script. Holds commands parsed from Easefile
+ * that belongs to one directive and are placed one after another.
+ * Each step is processed by exactly one invocation of Directive's provideCode().
+ * */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "of")
+public class DirectiveStep {
+    private String directiveName;
+    private List<Command> commands;
+
+    /**
+     * Groups parsed commands by directive, preserving declared order.
+     * Consecutive commands of the same directive are merged to one step,
+     * so for input: $git, $git, $maven, $git
+     * there will be three steps: [$git, $git], [$maven], [$git]
+     * @param parsedCommands is list of directive's name and command pairs in order declared in Easefile
+     * @return list of steps ready to code generation
+     * */
+    public static List<DirectiveStep> group(List<Tuple2<String, Command>> parsedCommands) {
+        List<DirectiveStep> steps = new ArrayList<>();
+        DirectiveStep current = null;
+        for (Tuple2<String, Command> parsed : parsedCommands) {
+            if (current == null || !current.directiveName.equals(parsed._1)) {
+                current = DirectiveStep.of(parsed._1, new ArrayList<>());
+                steps.add(current);
+            }
+            current.commands.add(parsed._2);
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,180 @@
+package io.easeci.core.engine.script;
+
+import io.easeci.core.extension.DirectivesCollector;
+import io.easeci.core.extension.ExtensionSystem;
+import io.easeci.extension.command.Directive;
+import io.easeci.extension.directive.CodeChunk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.EASEFILE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static io.easeci.core.workspace.LocationUtils.retrieveFromGeneralInt;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * ScriptGenerator that invokes provideCode() of all Directive plugins concurrently.
+ * Each invocation has its own timeout, counted from the moment when plugin starts providing code,
+ * so waiting in the queue of busy pool is not counted. Plugin that not provided code in time,
+ * or whose step was cancelled, is interrupted and releases its thread.
+ * Chunks are written to script file one by one in declared order as soon as
+ * they are ready, so the whole script is never held in memory.
+ * Chunks provided by plugins are memoized in CodeChunkCache, so the same
+ * commands passed to the same plugin's version are not generated twice.
+ * */
+public class ParallelScriptGenerator implements ScriptGenerator {
+    private final static String SHEBANG = "#!/bin/bash",
+                      DIRECTIVE_PREFIX = "$";
+    private final static int DEFAULT_MAX_SIZE = 10,
+                             DEFAULT_TIMEOUT = 5000;
+    private final DirectivesCollector directivesCollector;
+    private final ExecutorService executorService;
+    private final long timeoutMilliseconds;
+    private final CodeChunkCache codeChunkCache;
+
+    /**
+     * Generator with thread pool and timeout configured in general.yml.
+     * Cache of code chunks is dropped for each plugin whose lifecycle changes in extensionSystem.
+     * Create it once and share it, each instance has its own thread pool and cache.
+     * */
+    public ParallelScriptGenerator(ExtensionSystem extensionSystem) {
+        this(extensionSystem,
+             newDaemonThreadPool(retrieveFromGeneralInt("engine.script.threadpool.max-size", DEFAULT_MAX_SIZE)),
+             retrieveFromGeneralInt("engine.script.timeout", DEFAULT_TIMEOUT),
+             new CodeChunkCache());
+        extensionSystem.addLifecycleListener(codeChunkCache);
+    }
+
+    ParallelScriptGenerator(DirectivesCollector directivesCollector, ExecutorService executorService, long timeoutMilliseconds) {
+        this(directivesCollector, executorService, timeoutMilliseconds, new CodeChunkCache());
+    }
+
+    ParallelScriptGenerator(DirectivesCollector directivesCollector, ExecutorService executorService,
+                            long timeoutMilliseconds, CodeChunkCache codeChunkCache) {
+        if (isNull(directivesCollector)) {
+            throw new IllegalArgumentException("Cannot construct ScriptGenerator without DirectivesCollector");
+        }
+        this.directivesCollector = directivesCollector;
+        this.executorService = executorService;
+        this.timeoutMilliseconds = timeoutMilliseconds;
+        this.codeChunkCache = codeChunkCache;
+    }
+
+    static ExecutorService newDaemonThreadPool(int threadPoolMaxSize) {
+        final AtomicInteger threadCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadPoolMaxSize, runnable -> {
+            Thread thread = new Thread(runnable, "script-generator-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Path generate(List<DirectiveStep> steps, Path scriptPath) throws ScriptGenerationException {
+        Map<String, Directive> directives = directivesCollector.collectAll()
+                .stream()
+                .collect(Collectors.toMap(directive -> normalize(directive.getDirectiveName()),
+                                          Function.identity(),
+                                          (first, second) -> first));
+        for (DirectiveStep step : steps) {
+            if (!directives.containsKey(normalize(step.getDirectiveName()))) {
+                throw new ScriptGenerationException("Directive '" + step.getDirectiveName() + "' is not installed in EaseCI system");
+            }
+        }
+
+        List<CompletableFuture<CodeChunk>> chunks = steps.stream()
+                .map(step -> provideCodeAsync(directives.get(normalize(step.getDirectiveName())), step))
+                .collect(Collectors.toList());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(scriptPath, StandardCharsets.UTF_8)) {
+            writer.write(SHEBANG);
+            writer.newLine();
+            for (int i = 0; i < steps.size(); i++) {
+                CodeChunk codeChunk = await(steps.get(i), chunks.get(i));
+                writer.write(codeChunk.getCode());
+                writer.newLine();
+            }
+        } catch (IOException exception) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            deleteQuietly(scriptPath);
+            throw new ScriptGenerationException("Could not write script file: " + scriptPath, exception);
+        } catch (ScriptGenerationException exception) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            deleteQuietly(scriptPath);
+            throw exception;
+        }
+        logit(EASEFILE_EVENT, "Script with " + steps.size() + " directive steps generated here: " + scriptPath, THREE);
+        return scriptPath;
+    }
+
+    private CompletableFuture<CodeChunk> provideCodeAsync(Directive directive, DirectiveStep step) {
+        Optional<CodeChunkCache.Key> key = directivesCollector.pluginOf(directive)
+                .map(plugin -> CodeChunkCache.key(plugin.getName(), plugin.getVersion(), step.getCommands()));
+        Optional<CodeChunk> cached = key.flatMap(codeChunkCache::get);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        final long generation = codeChunkCache.generation();
+        CompletableFuture<CodeChunk> chunk = new CompletableFuture<>();
+        Future<?> task = executorService.submit(() -> {
+            if (chunk.isDone()) {
+                return;
+            }
+            chunk.orTimeout(timeoutMilliseconds, TimeUnit.MILLISECONDS);
+            try {
+                CodeChunk codeChunk = directive.provideCode(step.getCommands());
+                key.ifPresent(k -> codeChunkCache.put(k, codeChunk, generation));
+                chunk.complete(codeChunk);
+            } catch (Throwable throwable) {
+                chunk.completeExceptionally(throwable);
+            }
+        });
+        chunk.whenComplete((codeChunk, throwable) -> {
+            if (nonNull(throwable)) {
+                task.cancel(true);
+            }
+        });
+        return chunk;
+    }
+
+    private CodeChunk await(DirectiveStep step, CompletableFuture<CodeChunk> chunk) throws ScriptGenerationException {
+        try {
+            CodeChunk codeChunk = chunk.join();
+            if (isNull(codeChunk) || isNull(codeChunk.getCode())) {
+                throw new ScriptGenerationException("Directive '" + step.getDirectiveName() + "' provided no code");
+            }
+            return codeChunk;
+        } catch (CompletionException | CancellationException exception) {
+            if (exception.getCause() instanceof TimeoutException) {
+                throw new ScriptGenerationException("Directive '" + step.getDirectiveName()
+                        + "' did not provide code in " + timeoutMilliseconds + " ms", exception.getCause());
+            }
+            throw new ScriptGenerationException("Directive '" + step.getDirectiveName() + "' failed while providing code", exception);
+        }
+    }
+
+    private static String normalize(String directiveName) {
+        return directiveName.startsWith(DIRECTIVE_PREFIX) ? directiveName.substring(1) : directiveName;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.easeci.core.engine.script;
+
+public class ScriptGenerationException extends Exception {
+
+    public ScriptGenerationException(String message) {
+        super(message);
+    }
+
+    public ScriptGenerationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
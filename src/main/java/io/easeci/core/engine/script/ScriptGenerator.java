@@ -0,0 +1,24 @@
+package io.easeci.core.engine.script;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Code generation stage of pipeline creation.
+ * Takes steps parsed from Easefile, asks Directive plugins
+ * for chunks of code and joins them to one executable script file.
+ * */
+public interface ScriptGenerator {
+
+    /**
+     * Generates final executive script file.
+     * @param steps are directive steps in order declared in Easefile.
+     *              Code chunks will be placed in script in the same order.
+     * @param scriptPath is a path where script file should be written.
+     * @return path to just generated script file
+     * @throws ScriptGenerationException when some directive is not installed,
+     *              when plugin failed or not provided code in expected time
+     *              or when script file could not be written.
+     * */
+    Path generate(List<DirectiveStep> steps, Path scriptPath) throws ScriptGenerationException;
+}
@@ -25,6 +25,9 @@ class DefaultPluginConfig implements PluginConfig, PluginStrategy {
     private final static ObjectMapper JSON_MAPPER = new ObjectMapper();
     private final Path pluginConfigYmlPath;
     private PluginsConfigFile pluginsConfigFile;
+    private volatile Map<UUID, ConfigDescription> byUuid = Collections.emptyMap();
+    private volatile Map<String, ConfigDescription> byNameVersion = Collections.emptyMap();
+    private volatile Map<String, Map<String, ConfigDescription>> byInterfaceNameVersion = Collections.emptyMap();
 
     DefaultPluginConfig(Path pluginConfigYmlPath) throws PluginSystemCriticalException {
         this.pluginConfigYmlPath = pluginConfigYmlPath;
@@ -35,16 +38,50 @@ class DefaultPluginConfig implements PluginConfig, PluginStrategy {
     }
 
     @Override
-    public PluginsConfigFile load() throws PluginSystemCriticalException {
+    public synchronized PluginsConfigFile load() throws PluginSystemCriticalException {
         try {
             this.pluginsConfigFile = JSON_MAPPER.readValue(this.pluginConfigYmlPath.toFile(), PluginsConfigFile.class);
-            return uniquePluginConfigCheck(this.pluginsConfigFile);
+            uniquePluginConfigCheck(this.pluginsConfigFile);
+            reindex();
+            return this.pluginsConfigFile;
         } catch (IOException exception) {
             exception.printStackTrace();
         }
         return null;
     }
 
+    /**
+     * Indexes are rebuilt from scratch and published at once,
+     * so concurrent readers see either previous or current state of config.
+     * When descriptions repeat the same UUID or name and version, enabled one wins.
+     * The same name and version could be described for many interfaces,
+     * so lookups for given interface use index built separately for each interface.
+     * */
+    private void reindex() {
+        Map<UUID, ConfigDescription> uuids = new HashMap<>();
+        Map<String, ConfigDescription> namesVersions = new HashMap<>();
+        Map<String, Map<String, ConfigDescription>> interfacesNamesVersions = new HashMap<>();
+        this.pluginsConfigFile.getConfigDescriptions()
+                .forEach((interfaceName, configDescriptions) -> configDescriptions.forEach(configDescription -> {
+                    final String key = key(configDescription.getName(), configDescription.getVersion());
+                    uuids.merge(configDescription.getUuid(), configDescription, DefaultPluginConfig::preferEnabled);
+                    namesVersions.merge(key, configDescription, DefaultPluginConfig::preferEnabled);
+                    interfacesNamesVersions.computeIfAbsent(interfaceName, name -> new HashMap<>())
+                            .merge(key, configDescription, DefaultPluginConfig::preferEnabled);
+                }));
+        this.byUuid = uuids;
+        this.byNameVersion = namesVersions;
+        this.byInterfaceNameVersion = interfacesNamesVersions;
+    }
+
+    private static ConfigDescription preferEnabled(ConfigDescription current, ConfigDescription next) {
+        return current.getEnabled() ? current : next;
+    }
+
+    private static String key(String pluginName, String pluginVersion) {
+        return pluginName + '@' + pluginVersion;
+    }
+
     /**
      * Throws exception if there is repetition of UUID in PluginsConfigFile
      * */
@@ -79,67 +116,60 @@ class DefaultPluginConfig implements PluginConfig, PluginStrategy {
             e.printStackTrace();
             return this.pluginsConfigFile;
         }
-        return load();
+        // file has just been written from this object, so there is no need to parse it again
+        uniquePluginConfigCheck(this.pluginsConfigFile);
+        reindex();
+        return this.pluginsConfigFile;
     }
 
     @Override
-    public boolean add(String interfaceName, ConfigDescription configDescription) {
-        return this.pluginsConfigFile.put(interfaceName, configDescription);
+    public synchronized boolean add(String interfaceName, ConfigDescription configDescription) {
+        boolean isAdded = this.pluginsConfigFile.put(interfaceName, configDescription);
+        if (isAdded) {
+            reindex();
+        }
+        return isAdded;
     }
 
     @Override
     public boolean enable(UUID pluginUuid) {
-        return this.pluginsConfigFile.getConfigDescriptions()
-                .values()
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(configDescription -> configDescription.getUuid().equals(pluginUuid))
-                .map(configDescription -> {
-                    configDescription.setEnabled(true);
-                    try {
-                        this.save();
-                        logit(PLUGIN_EVENT, "Plugin " + configDescription.toString() + " just enabled in EaseCI system.", THREE);
-                    } catch (PluginSystemCriticalException e) {
-                        e.printStackTrace();
-                        return false;
-                    }
-                    return true;
-                })
-                .findAny()
-                .orElse(false);
+        ConfigDescription configDescription = this.byUuid.get(pluginUuid);
+        if (isNull(configDescription)) {
+            return false;
+        }
+        configDescription.setEnabled(true);
+        try {
+            this.save();
+            logit(PLUGIN_EVENT, "Plugin " + configDescription.toString() + " just enabled in EaseCI system.", THREE);
+        } catch (PluginSystemCriticalException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return true;
     }
 
     @Override
     public boolean disable(UUID pluginUuid) {
-        return this.disable(configDescription ->
-                configDescription.getUuid().equals(pluginUuid));
+        return this.disable(this.byUuid.get(pluginUuid));
     }
 
     @Override
     public boolean disable(String pluginName, String pluginVersion) {
-        return this.disable(configDescription ->
-                configDescription.getName().equals(pluginName) &&
-                configDescription.getVersion().equals(pluginVersion));
+        return this.disable(this.byNameVersion.get(key(pluginName, pluginVersion)));
     }
 
-    private boolean disable(Predicate<ConfigDescription> configDescriptionPredicate) {
-        return this.pluginsConfigFile.getConfigDescriptions()
-                .values()
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(configDescriptionPredicate)
-                .filter(configDescription -> isPluginEnabled().test(configDescription))
-                .findAny()
-                .map(configDescription -> {
-                    logit(PLUGIN_EVENT, "Found plugin to disable: {}" + configDescription.toString(), FIVE);
-                    configDescription.setEnabled(false);
-                    try {
-                        this.save();
-                    } catch (PluginSystemCriticalException e) {
-                        e.printStackTrace();
-                    }
-                    return true;
-                }).orElse(false);
+    private boolean disable(ConfigDescription configDescription) {
+        if (isNull(configDescription) || !isPluginEnabled().test(configDescription)) {
+            return false;
+        }
+        logit(PLUGIN_EVENT, "Found plugin to disable: {}" + configDescription.toString(), FIVE);
+        configDescription.setEnabled(false);
+        try {
+            this.save();
+        } catch (PluginSystemCriticalException e) {
+            e.printStackTrace();
+        }
+        return true;
     }
 
     private Predicate<ConfigDescription> isPluginEnabled() {
@@ -180,32 +210,29 @@ class DefaultPluginConfig implements PluginConfig, PluginStrategy {
 
     @Override
     public ConfigDescription find(ExtensionType extensionType, String pluginName, String pluginVersion) throws PluginSystemIntegrityViolated {
-        return this.pluginsConfigFile.getConfigDescriptions().get(ExtensionType.toInterface(extensionType))
-                .stream()
-                .filter(configDescription -> configDescription.getName().equals(pluginName) && configDescription.getVersion().equals(pluginVersion))
-                .findAny()
+        return Optional.ofNullable(this.byInterfaceNameVersion.get(ExtensionType.toInterface(extensionType)))
+                .map(namesVersions -> namesVersions.get(key(pluginName, pluginVersion)))
                 .orElseThrow(PluginSystemIntegrityViolated::new);
     }
 
     @Override
     public ConfigDescription find(ExtensionType extensionType, UUID uuid) throws PluginSystemIntegrityViolated {
-        return this.pluginsConfigFile.getConfigDescriptions().get(ExtensionType.toInterface(extensionType))
-                .stream()
-                .filter(configDescription -> configDescription.getUuid().equals(uuid))
-                .findAny()
-                .orElseThrow(PluginSystemIntegrityViolated::new);
+        return ofInterface(extensionType, this.byUuid.get(uuid));
     }
 
     @Override
     public ConfigDescription find(String pluginName, String pluginVersion) throws PluginSystemIntegrityViolated {
-        return this.pluginsConfigFile.getConfigDescriptions()
-                .values()
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(configDescription -> configDescription.getName().equals(pluginName) && configDescription.getVersion().equals(pluginVersion))
-                .findAny()
+        return Optional.ofNullable(this.byNameVersion.get(key(pluginName, pluginVersion)))
                 .orElseThrow(PluginSystemIntegrityViolated::new);
     }
+
+    private ConfigDescription ofInterface(ExtensionType extensionType, ConfigDescription configDescription) throws PluginSystemIntegrityViolated {
+        Set<ConfigDescription> configDescriptions = this.pluginsConfigFile.getConfigDescriptions().get(ExtensionType.toInterface(extensionType));
+        if (isNull(configDescription) || isNull(configDescriptions) || !configDescriptions.contains(configDescription)) {
+            throw new PluginSystemIntegrityViolated();
+        }
+        return configDescription;
+    }
 }
 
 @Getter
@@ -1,20 +1,31 @@
 package io.easeci.core.extension;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
 import io.easeci.extension.ExtensionType;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
 class DefaultPluginContainer implements PluginContainer {
+    private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private Map<String, List<Instance>> container;
+    private final Map<Integer, Instance> byIdentityHashCode = new ConcurrentHashMap<>();
+    private final Map<String, Instance> byNameVersion = new ConcurrentHashMap<>();
     private PluginStrategy pluginStrategy;
+    private final AtomicLong stateVersion = new AtomicLong();
+    private volatile PluginContainerSnapshot snapshot;
 
     DefaultPluginContainer(PluginStrategy pluginStrategy) {
         this.container = new ConcurrentHashMap<>();
@@ -22,18 +33,19 @@ class DefaultPluginContainer implements PluginContainer {
     }
 
     @Override
-    public void add(Instance instance) {
+    public synchronized void add(Instance instance) {
         final String interfaceName = instance.getPlugin().getJarArchive().getExtensionManifest().getImplementsProperty();
-        List<Instance> objectList = this.container.get(interfaceName);
-        if (isNull(objectList)) {
-            this.container.put(interfaceName, new ArrayList<>(Collections.singletonList(instance)));
-        } else {
-            if (objectList.contains(instance)) {
-                logit(PLUGIN_EVENT, "Cannot add two the same plugin implementations for this one: " + instance.getPlugin().toString(), THREE);
-                return;
-            }
-            objectList.add(instance);
+        List<Instance> objectList = this.container.computeIfAbsent(interfaceName, key -> new CopyOnWriteArrayList<>());
+        if (objectList.contains(instance)) {
+            logit(PLUGIN_EVENT, "Cannot add two the same plugin implementations for this one: " + instance.getPlugin().toString(), THREE);
+            return;
+        }
+        objectList.add(instance);
+        this.byNameVersion.put(key(instance.getPlugin().getName(), instance.getPlugin().getVersion()), instance);
+        if (instance.getIdentityHashCode() != 0) {
+            this.byIdentityHashCode.put(instance.getIdentityHashCode(), instance);
         }
+        invalidateState();
     }
 
     @Override
@@ -45,22 +57,15 @@ class DefaultPluginContainer implements PluginContainer {
     @Override
     public Optional<Instance> findByUuid(ExtensionType extensionType, UUID pluginUuid) {
         ConfigDescription configDescription = this.pluginStrategy.find(extensionType, pluginUuid);
-
-        return this.container.values()
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(instance -> instance.getPlugin().getName().equals(configDescription.getName()) &&
-                                    instance.getPlugin().getVersion().equals(configDescription.getVersion()))
-                .findAny();
+        if (isNull(configDescription)) {
+            return Optional.empty();
+        }
+        return ofNullable(this.byNameVersion.get(key(configDescription.getName(), configDescription.getVersion())));
     }
 
     @Override
     public Optional<Instance> findByIdentityHashCode(int identityHashCode) {
-        return this.container.values()
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(instance -> instance.getIdentityHashCode() == identityHashCode)
-                .findAny();
+        return ofNullable(this.byIdentityHashCode.get(identityHashCode));
     }
 
     @Override
@@ -95,13 +100,43 @@ class DefaultPluginContainer implements PluginContainer {
     }
 
     @Override
-    public boolean remove(String pluginName, String pluginVersion) {
-        return this.container.values().stream()
-                .anyMatch(instances ->
-                        instances.removeIf(instance ->
-                                                    !instance.isRunning()
-                                                    && instance.getPlugin().getName().equals(pluginName)
-                                                    && instance.getPlugin().getVersion().equals(pluginVersion)));
+    public synchronized boolean remove(String pluginName, String pluginVersion) {
+        final String key = key(pluginName, pluginVersion);
+        Instance instance = this.byNameVersion.get(key);
+        if (isNull(instance) || instance.isRunning()) {
+            return false;
+        }
+        final String interfaceName = instance.getPlugin().getJarArchive().getExtensionManifest().getImplementsProperty();
+        List<Instance> instances = this.container.get(interfaceName);
+        if (isNull(instances) || !instances.remove(instance)) {
+            return false;
+        }
+        this.byNameVersion.remove(key, instance);
+        this.byIdentityHashCode.remove(instance.getIdentityHashCode(), instance);
+        invalidateState();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean replace(Instance previous, Instance next) {
+        final String interfaceName = previous.getPlugin().getJarArchive().getExtensionManifest().getImplementsProperty();
+        List<Instance> instances = this.container.get(interfaceName);
+        int index = isNull(instances) ? -1 : instances.indexOf(previous);
+        if (index < 0) {
+            return false;
+        }
+        instances.set(index, next);
+        this.byNameVersion.put(key(next.getPlugin().getName(), next.getPlugin().getVersion()), next);
+        this.byIdentityHashCode.remove(previous.getIdentityHashCode(), previous);
+        if (next.getIdentityHashCode() != 0) {
+            this.byIdentityHashCode.put(next.getIdentityHashCode(), next);
+        }
+        invalidateState();
+        return true;
+    }
+
+    private static String key(String pluginName, String pluginVersion) {
+        return pluginName + '@' + pluginVersion;
     }
 
     @Override
@@ -109,6 +144,50 @@ class DefaultPluginContainer implements PluginContainer {
         return new PluginContainerState(mapContainer());
     }
 
+    @Override
+    public List<Plugin> installed() {
+        return this.byNameVersion.values()
+                .stream()
+                .map(Instance::getPlugin)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public PluginContainerSnapshot snapshot() {
+        final long version = this.stateVersion.get();
+        PluginContainerSnapshot current = this.snapshot;
+        if (nonNull(current) && current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this.stateVersion) {
+            current = this.snapshot;
+            if (nonNull(current) && current.getVersion() == version) {
+                return current;
+            }
+            try {
+                byte[] json = OBJECT_MAPPER.writeValueAsBytes(state());
+                String entityTag = '"' + Hashing.murmur3_128().hashBytes(json).toString() + '"';
+                current = new PluginContainerSnapshot(version, entityTag, json);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize state of plugin container", e);
+            }
+            this.snapshot = current;
+            return current;
+        }
+    }
+
+    @Override
+    public void invalidateState() {
+        this.stateVersion.incrementAndGet();
+    }
+
+    @Override
+    public Optional<PluginState> state(String pluginName, String pluginVersion) {
+        return ofNullable(this.byNameVersion.get(key(pluginName, pluginVersion)))
+                .map(instance -> PluginStateProxy.of(instance.getPlugin().getJarArchive().getExtensionManifest().getImplementsProperty(), instance))
+                .map(pluginStateProxy -> pluginStateProxy.toPluginState(pluginStrategy));
+    }
+
     private List<PluginState> mapContainer() {
         return container.entrySet()
                 .stream()
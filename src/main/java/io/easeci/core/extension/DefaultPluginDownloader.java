@@ -1,50 +1,76 @@
 package io.easeci.core.extension;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import org.asynchttpclient.*;
-import org.asynchttpclient.netty.request.NettyRequest;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.net.InetSocketAddress;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
-import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
+import static io.easeci.core.extension.Utils.completePluginDetailsUrl;
 import static io.easeci.core.extension.Utils.completePluginDownloadUrl;
 import static io.easeci.core.extension.Utils.pluginFileName;
-import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.FOUR;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.nio.file.StandardOpenOption.*;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
+/**
+ * Downloads plugin's jar files from registry, at most maxParallelDownloads at the same time.
+ * Bytes are written to '.part' file next to target jar file, so interrupted download is resumed
+ * with HTTP Range request instead of starting from scratch. SHA-256 of file is computed while
+ * bytes are received and compared with checksum sent by registry in {@value CHECKSUM_HEADER} header,
+ * or when header is missing, with checksum of plugin's version in registry's plugin details.
+ * Only complete and verified file is atomically moved to plugin directory, file that cannot be verified is removed.
+ * Concurrent downloads of the same plugin share one transfer, so they never write the same '.part' file.
+ * */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 class DefaultPluginDownloader extends PluginDownloader {
+    final static String PART_EXTENSION = ".part";
+    final static String CHECKSUM_HEADER = "X-Checksum-Sha256";
+    final static int DEFAULT_MAX_PARALLEL_DOWNLOADS = 4;
+    private final static int MAX_ATTEMPTS = 3;
+    private final static long RETRY_BACKOFF_MILLIS = 200;
+    private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private URL registryUrl;
     private Path targetPath;
     private int timeoutMilliseconds;
     private AsyncHttpClient asyncHttpClient;
-    private AsyncHandler<File> asyncFileHandler;
+    private ExecutorService downloadExecutor;
+    private final Map<String, CompletableFuture<Plugin>> inFlight = new ConcurrentHashMap<>();
 
     @Builder
     DefaultPluginDownloader(URL registryUrl, Path targetPath, int timeoutMilliseconds,
-                            AsyncHttpClient asyncHttpClient, AsyncHandler<File> asyncFileHandler) {
+                            AsyncHttpClient asyncHttpClient, int maxParallelDownloads) {
         if (isNull(registryUrl)) throw new IllegalArgumentException("'registryUrl' of DefaultPluginDownloader cannot be null");
         if (isNull(targetPath)) throw new IllegalArgumentException("'targetPath' of DefaultPluginDownloader cannot be null!");
         this.registryUrl = registryUrl;
         this.targetPath = targetPath;
         this.timeoutMilliseconds = timeoutMilliseconds;
         this.asyncHttpClient = ofNullable(asyncHttpClient).orElseGet(this::buildDefaultHttpClient);
-        this.asyncFileHandler = asyncFileHandler;
+        this.downloadExecutor = Executors.newFixedThreadPool(maxParallelDownloads > 0 ? maxParallelDownloads : DEFAULT_MAX_PARALLEL_DOWNLOADS,
+                                                             downloaderThreadFactory());
     }
 
     @Override
@@ -55,75 +81,281 @@ class DefaultPluginDownloader extends PluginDownloader {
 
     @Override
     CompletableFuture<Plugin> download(Plugin plugin) {
-        return asyncHttpClient.prepareGet(completePluginDownloadUrl(registryUrl, plugin.getName(), plugin.getVersion()))
-                .execute(ofNullable(this.asyncFileHandler).orElseGet(() -> this.defaultCompletionHandler(plugin)))
-                .toCompletableFuture()
-                .thenApply(file -> plugin);
+        final String key = plugin.getName() + '@' + plugin.getVersion();
+        final CompletableFuture<Plugin> transfer = inFlight.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> transfer(plugin), downloadExecutor));
+        transfer.whenComplete((downloaded, throwable) -> inFlight.remove(key, transfer));
+        return transfer.copy();
     }
 
-    private AsyncCompletionHandler<File> defaultCompletionHandler(Plugin plugin) {
-        try {
-            return new AsyncCompletionHandler<>() {
-                final File futureFile = createEmptyFile(plugin).toFile();
-                final FileOutputStream fileOutputStream = new FileOutputStream(futureFile);
-
-                @Override
-                public void onRequestSend(NettyRequest request) {
-                    logit(PLUGIN_EVENT, "Request to registry: " + registryUrl.toString(), THREE);
+    private Plugin transfer(Plugin plugin) {
+        final Path jarPath = targetPath.resolve(pluginFileName(plugin.getName(), plugin.getVersion()));
+        final Path partPath = targetPath.resolve(jarPath.getFileName() + PART_EXTENSION);
+        if (Files.exists(jarPath)) {
+            logit(PLUGIN_EVENT, "Plugin " + plugin.toShortString() + " is already stored here: " + jarPath, THREE);
+            return plugin;
+        }
+        IOException lastFailure = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long start = System.currentTimeMillis();
+            try {
+                long size = fetch(plugin, partPath);
+                Files.move(partPath, jarPath, StandardCopyOption.ATOMIC_MOVE);
+                logit(PLUGIN_EVENT, plugin.toShortString() + " plugin downloading is complete, " + size + " bytes in "
+                        + (System.currentTimeMillis() - start) + " ms", THREE);
+                return plugin;
+            } catch (RegistryResponseException e) {
+                lastFailure = e;
+                if (!e.isRetryable()) {
+                    break;
                 }
-
-                @Override
-                public State onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception {
-                    fileOutputStream.getChannel().write(bodyPart.getBodyByteBuffer());
-                    return State.CONTINUE;
+            } catch (VerificationException e) {
+                lastFailure = e;
+                deletePartFile(partPath);
+                if (!e.isRetryable()) {
+                    break;
                 }
+            } catch (IOException e) {
+                lastFailure = e;
+            } catch (ExecutionException e) {
+                lastFailure = new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            logit(PLUGIN_EVENT, "Attempt " + attempt + " of downloading " + plugin.toShortString()
+                    + " failed: " + lastFailure.getMessage(), THREE);
+            if (attempt < MAX_ATTEMPTS) {
+                backoff(attempt);
+            }
+        }
+        throw new CompletionException("Cannot download plugin " + plugin.toShortString(), lastFailure);
+    }
 
-                @Override
-                public File onCompleted(Response response) throws Exception {
-                    logit(PLUGIN_EVENT, plugin.toShortString() + " plugin downloading is complete", THREE);
-                    return futureFile;
-                }
+    /**
+     * Download missing bytes of plugin to '.part' file and verify content of whole file.
+     * @return size of complete file
+     * */
+    private long fetch(Plugin plugin, Path partPath) throws IOException, ExecutionException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(partPath, CREATE, READ, WRITE)) {
+            final long offset = channel.size();
+            final MessageDigest digest = sha256();
+            digestExisting(channel, digest, offset);
 
-                @Override
-                public void onThrowable(Throwable t) {
-                    super.onThrowable(t);
-                    try {
-                        Files.deleteIfExists(futureFile.toPath());
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
+            BoundRequestBuilder request = asyncHttpClient.prepareGet(completePluginDownloadUrl(registryUrl, plugin.getName(), plugin.getVersion()));
+            if (offset > 0) {
+                request.setHeader(HttpHeaderNames.RANGE, "bytes=" + offset + "-");
+                logit(PLUGIN_EVENT, "Resuming download of " + plugin.toShortString() + " from byte: " + offset, THREE);
+            }
+            PartFileHandler handler = new PartFileHandler(channel, digest, offset);
+            request.execute(handler).get();
 
-                @Override
-                public void onTcpConnectFailure(InetSocketAddress remoteAddress, Throwable cause) {
-                    logit(PLUGIN_EVENT, "Cannot connect registry! URL: " + remoteAddress.toString(), THREE);
-                }
+            if (handler.statusCode == 416) {
+                channel.truncate(0);
+                throw new RegistryResponseException("Registry cannot resume download from byte " + offset + ", starting again", true);
+            }
+            if (handler.statusCode != 200 && handler.statusCode != 206) {
+                throw new RegistryResponseException("Registry responded with status " + handler.statusCode, handler.statusCode >= 500);
+            }
+            final long size = channel.size();
+            if (handler.expectedSize >= 0 && size != handler.expectedSize) {
+                throw new IOException("Downloaded " + size + " bytes but registry declared " + handler.expectedSize + " bytes");
+            }
+            final String checksum = toHex(digest.digest());
+            final String expectedChecksum = nonNull(handler.expectedChecksum) ? handler.expectedChecksum : registryChecksum(plugin);
+            if (isNull(expectedChecksum)) {
+                throw new VerificationException("Registry provided no checksum of " + plugin.toShortString()
+                        + ", downloaded file cannot be verified", false);
+            }
+            if (!expectedChecksum.equalsIgnoreCase(checksum)) {
+                throw new VerificationException("Checksum of " + plugin.toShortString() + " not match, expected: "
+                        + expectedChecksum + " but was: " + checksum, true);
+            }
+            return size;
+        }
+    }
 
-                @Override
-                public void onHostnameResolutionFailure(String name, Throwable cause) {
-                    logit(PLUGIN_EVENT, "Error occurred while hostname resolving of name: " + name, THREE);
-                }
-            };
+    /**
+     * Read SHA-256 of plugin's version from plugin details published by registry.
+     * @return checksum or null when registry has not published it
+     * */
+    private String registryChecksum(Plugin plugin) throws IOException, ExecutionException, InterruptedException {
+        Response response = asyncHttpClient.prepareGet(completePluginDetailsUrl(registryUrl, plugin.getName(), plugin.getVersion()))
+                .execute()
+                .get();
+        if (response.getStatusCode() != 200) {
+            logit(PLUGIN_EVENT, "Registry responded with status " + response.getStatusCode() + " for details of " + plugin.toShortString(), THREE);
+            return null;
+        }
+        JsonNode details = OBJECT_MAPPER.readTree(response.getResponseBodyAsStream());
+        for (JsonNode version : details.path("performerVersions")) {
+            if (plugin.getVersion().equals(version.path("performerVersion").asText())) {
+                String checksum = version.path("checksumSha256").asText(null);
+                return isNull(checksum) || checksum.isBlank() ? null : checksum;
+            }
+        }
+        return null;
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private static void deletePartFile(Path partPath) {
+        try {
+            Files.deleteIfExists(partPath);
         } catch (IOException e) {
-            e.printStackTrace();
-            return new AsyncCompletionHandler<>() {
-                @Override
-                public File onCompleted(Response response) throws Exception {
-                    throw new IllegalStateException("Method not implemented!");
-                }
-            };
+            logit(PLUGIN_EVENT, "Cannot remove file of not verified download: " + partPath, THREE);
+        }
+    }
+
+    private static void digestExisting(FileChannel channel, MessageDigest digest, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long position = 0;
+        while (position < length) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    private Path createEmptyFile(Plugin plugin) throws IOException {
-        String jarFileName = pluginFileName(plugin.getName(), plugin.getVersion());
-        Path fullFilePath = Paths.get(targetPath.toString().concat("/").concat(jarFileName));
-        logit(PLUGIN_EVENT, "New plugin file created here: " + fullFilePath, FOUR);
-        return Files.createFile(fullFilePath);
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+                   .append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
     }
 
     private AsyncHttpClient buildDefaultHttpClient() {
         DefaultAsyncHttpClientConfig.Builder clientBuilder = Dsl.config().setConnectTimeout(timeoutMilliseconds);
         return Dsl.asyncHttpClient(clientBuilder);
     }
+
+    private static ThreadFactory downloaderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "plugin-downloader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Streams body of response to '.part' file and to digest at once.
+     * Full response (200) starts file from beginning, partial one (206) is appended to bytes already stored.
+     * */
+    private class PartFileHandler implements AsyncHandler<Integer> {
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private final long offset;
+        private volatile int statusCode;
+        private volatile long expectedSize = -1;
+        private volatile String expectedChecksum;
+
+        PartFileHandler(FileChannel channel, MessageDigest digest, long offset) {
+            this.channel = channel;
+            this.digest = digest;
+            this.offset = offset;
+        }
+
+        @Override
+        public State onStatusReceived(HttpResponseStatus responseStatus) throws Exception {
+            this.statusCode = responseStatus.getStatusCode();
+            if (statusCode == 200) {
+                channel.truncate(0);
+                channel.position(0);
+                digest.reset();
+                return State.CONTINUE;
+            }
+            if (statusCode == 206) {
+                channel.position(offset);
+                return State.CONTINUE;
+            }
+            return State.ABORT;
+        }
+
+        @Override
+        public State onHeadersReceived(HttpHeaders headers) {
+            this.expectedChecksum = headers.get(CHECKSUM_HEADER);
+            if (statusCode == 206) {
+                String contentRange = headers.get(HttpHeaderNames.CONTENT_RANGE);
+                if (isNull(contentRange) || !contentRange.startsWith("bytes " + offset + "-")) {
+                    logit(PLUGIN_EVENT, "Registry responded with unexpected range: " + contentRange, THREE);
+                    this.statusCode = 416;
+                    return State.ABORT;
+                }
+                String total = contentRange.substring(contentRange.indexOf('/') + 1);
+                this.expectedSize = "*".equals(total) ? -1 : Long.parseLong(total);
+            } else {
+                String contentLength = headers.get(HttpHeaderNames.CONTENT_LENGTH);
+                this.expectedSize = nonNull(contentLength) ? Long.parseLong(contentLength) : -1;
+            }
+            return State.CONTINUE;
+        }
+
+        @Override
+        public State onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception {
+            ByteBuffer buffer = bodyPart.getBodyByteBuffer();
+            digest.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return State.CONTINUE;
+        }
+
+        @Override
+        public void onThrowable(Throwable t) {
+            logit(PLUGIN_EVENT, "Error occurred while downloading from registry: " + registryUrl + ", " + t.getMessage(), THREE);
+        }
+
+        @Override
+        public Integer onCompleted() {
+            return statusCode;
+        }
+    }
+
+    private static class VerificationException extends IOException {
+        private final boolean retryable;
+
+        VerificationException(String message, boolean retryable) {
+            super(message);
+            this.retryable = retryable;
+        }
+
+        boolean isRetryable() {
+            return retryable;
+        }
+    }
+
+    private static class RegistryResponseException extends IOException {
+        private final boolean retryable;
+
+        RegistryResponseException(String message, boolean retryable) {
+            super(message);
+            this.retryable = retryable;
+        }
+
+        boolean isRetryable() {
+            return retryable;
+        }
+    }
 }
@@ -6,33 +6,98 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 class DefaultPluginLoader implements PluginLoader {
+    private final static long DRAIN_SECONDS = 30;
     private PluginContainer pluginContainer;
     private JarJoiner jarJoiner;
+    private long drainSeconds;
 
     DefaultPluginLoader(PluginContainer pluginContainer, JarJoiner jarJoiner) {
+        this(pluginContainer, jarJoiner, DRAIN_SECONDS);
+    }
+
+    /**
+     * @param drainSeconds is a time after which previous instance of reloaded plugin is dropped and its ClassLoader is closed
+     * */
+    DefaultPluginLoader(PluginContainer pluginContainer, JarJoiner jarJoiner, long drainSeconds) {
         if (isNull(pluginContainer)) {
             throw new IllegalStateException("Cannot construct PluginLoader implementation with not initialized PluginContainer!");
         }
         this.pluginContainer = pluginContainer;
         this.jarJoiner = jarJoiner;
+        this.drainSeconds = drainSeconds;
     }
 
+    /**
+     * Plugins are independent of each other, so each one is joined, checked and instantiated
+     * in its own task. Threads are created lazily by caller's thread, so they inherit its context classloader.
+     * */
     @Override
     public Set<Plugin> loadPlugins(Set<Plugin> pluginSetInput, PluginStrategy pluginStrategy) {
-        Set<Plugin> pluginSetOutput = pluginSetInput.stream()
+        final long startTime = System.nanoTime();
+        List<Plugin> loadable = pluginSetInput.stream()
                 .filter(Plugin::isLoadable)
-                .map(jarJoiner::addToClasspath)
-                .peek(plugin -> instantiatePlugin(plugin, pluginStrategy))
-                .collect(Collectors.toSet());
-        return new HashSet<>(Sets.difference(pluginSetInput, pluginSetOutput));
+                .collect(Collectors.toList());
+        if (loadable.isEmpty()) {
+            return new HashSet<>(pluginSetInput);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(loadable.size(), Runtime.getRuntime().availableProcessors()), loaderThreadFactory());
+        try {
+            List<CompletableFuture<Plugin>> futures = loadable.stream()
+                    .map(plugin -> CompletableFuture.supplyAsync(() -> load(plugin, pluginStrategy), executor))
+                    .collect(Collectors.toList());
+            Set<Plugin> pluginSetOutput = futures.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            logit(PLUGIN_EVENT, pluginSetOutput.size() + " of " + pluginSetInput.size() + " plugins loaded in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms", THREE);
+            return new HashSet<>(Sets.difference(pluginSetInput, pluginSetOutput));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Plugin load(Plugin plugin, PluginStrategy pluginStrategy) {
+        final long startTime = System.nanoTime();
+        try {
+            Plugin joined = jarJoiner.addToClasspath(plugin);
+            instantiatePlugin(joined, pluginStrategy);
+            logit(PLUGIN_EVENT, "Plugin " + joined.toShortString() + " loaded in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms", THREE);
+            return joined;
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+            logit(PLUGIN_EVENT, "Plugin " + plugin.toShortString() + " was not loaded: " + exception.getMessage(), THREE);
+            return null;
+        }
+    }
+
+    private static ThreadFactory loaderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "plugin-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     @Override
@@ -44,6 +109,49 @@ class DefaultPluginLoader implements PluginLoader {
         return pluginContainer.findByIdentityHashCode(System.identityHashCode(inst)).orElseThrow();
     }
 
+    @Override
+    public Instance reloadPlugin(Instance instance, PluginStrategy pluginStrategy) {
+        final Plugin plugin = jarJoiner.addToClasspath(instance.getPlugin());
+        final PluginClassLoader classLoader = jarJoiner.newClassLoader(plugin);
+        final Instance reloaded;
+        try {
+            reloaded = build(plugin, instantiate(plugin, classLoader));
+        } catch (RuntimeException exception) {
+            jarJoiner.close(classLoader, plugin);
+            throw exception;
+        }
+        if (!pluginContainer.replace(instance, reloaded)) {
+            jarJoiner.close(classLoader, plugin);
+            throw new PluginSystemRuntimeException("Cannot replace instance of plugin " + plugin.toShortString() + " because it is not in container");
+        }
+        jarJoiner.swap(plugin, classLoader, drainSeconds, () -> drain(instance));
+        logit(PLUGIN_EVENT, "Plugin " + plugin.toShortString() + " reloaded, previous instance will be stopped and dropped with its ClassLoader in "
+                + drainSeconds + " seconds", THREE);
+        return reloaded;
+    }
+
+    private void drain(Instance instance) {
+        try {
+            if (instance.isStandalone()) {
+                instance.toStandalone().stop();
+            }
+        } catch (RuntimeException exception) {
+            logit(PLUGIN_EVENT, "Previous instance of plugin " + instance.getPlugin().toShortString()
+                    + " failed while stopping: " + exception.getMessage(), THREE);
+        } finally {
+            instance.clear();
+        }
+    }
+
+    @Override
+    public boolean unloadPlugin(Instance instance) {
+        boolean instanceCleared = instance.clear();
+        if (jarJoiner.release(instance.getPlugin())) {
+            logit(PLUGIN_EVENT, "ClassLoader of plugin " + instance.getPlugin().toShortString() + " is closed", THREE);
+        }
+        return instanceCleared;
+    }
+
     /**
      * Checks by PluginStrategy if plugin is correctly defined in plugins-config.json file.
      * If configuration is correct then create object and insert to container.
@@ -59,19 +167,26 @@ class DefaultPluginLoader implements PluginLoader {
     }
 
     Object instantiate(Plugin plugin) {
+        return instantiate(plugin, jarJoiner.classLoaderOf(plugin));
+    }
+
+    private Object instantiate(Plugin plugin, ClassLoader classLoader) {
         return new ReflectiveFactory.ReflectiveFactoryBuilder<>()
                 .classReference(plugin.getJarArchive().getExtensionManifest().getEntryClassProperty())
                 .build()
-                .instantiate(plugin.getJarArchive());
+                .instantiate(plugin.getJarArchive(), classLoader);
     }
 
     void insert(Plugin plugin, Object object) {
-        Instance instance = Instance.builder()
+        this.pluginContainer.add(build(plugin, object));
+    }
+
+    private static Instance build(Plugin plugin, Object object) {
+        return Instance.builder()
                 .plugin(plugin)
                 .instance(object)
                 .identityHashCode(nonNull(object) ? System.identityHashCode(object) : 0)
                 .instantiateDateTime(LocalDateTime.now())
                 .build();
-        this.pluginContainer.add(instance);
     }
 }
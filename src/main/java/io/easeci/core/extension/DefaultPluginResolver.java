@@ -39,7 +39,7 @@ class DefaultPluginResolver implements PluginResolver {
             return Collections.emptySet();
         }
         return PluginsFile.create(pluginYml).getPluginsList()
-                .stream()
+                .parallelStream()
                 .flatMap(nestedMap -> nestedMap.values().stream())
                 .filter(pluginAsMap -> nonNull(pluginAsMap.get(NAME)) && nonNull(pluginAsMap.get(VERSION)))
                 .map(pluginAsMap -> Plugin.of(pluginAsMap.get(NAME), pluginAsMap.get(VERSION)))
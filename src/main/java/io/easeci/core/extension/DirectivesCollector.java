@@ -3,8 +3,19 @@ package io.easeci.core.extension;
 import io.easeci.extension.command.Directive;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DirectivesCollector {
 
     List<Directive> collectAll();
+
+    /**
+     * Find plugin that provides given directive's object.
+     * @param directive is an object returned before by collectAll() method
+     * @return optional of plugin or empty optional when directive
+     *         is not provided by any plugin loaded in container
+     * */
+    default Optional<Plugin> pluginOf(Directive directive) {
+        return Optional.empty();
+    }
 }
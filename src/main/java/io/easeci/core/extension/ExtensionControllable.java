@@ -3,6 +3,9 @@ package io.easeci.core.extension;
 import io.easeci.api.extension.ActionRequest;
 import io.easeci.api.extension.ActionResponse;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Central point of plugins workflow.
  * Thanks to this object you can make common operation in plugins.
@@ -21,6 +24,27 @@ public interface ExtensionControllable {
      * */
     PluginContainerState state();
 
+    /**
+     * Check state of one plugin, without collecting state of whole PluginContainer.
+     * @param pluginName is a name of plugin
+     * @param pluginVersion is a version of plugin
+     * @return PluginState of plugin or empty if plugin is not loaded
+     * */
+    Optional<PluginState> state(String pluginName, String pluginVersion);
+
+    /**
+     * Check which plugins are placed in PluginContainer, without collecting their state.
+     * @return plugins in PluginContainer, each version of plugin once
+     * */
+    List<Plugin> installed();
+
+    /**
+     * Check state of PluginContainer like state() does, but receive it already serialized
+     * and built once per change of plugins, not once per call.
+     * @return PluginContainerSnapshot with JSON of PluginContainerState and its entity tag
+     * */
+    PluginContainerSnapshot stateSnapshot();
+
     /**
      * Use this method to shutdown some plugin. Notice that this plugin
      * will be not removed from workspace but only disabled.
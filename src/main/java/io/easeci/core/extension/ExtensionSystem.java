@@ -8,6 +8,8 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,7 +30,8 @@ public class ExtensionSystem implements ExtensionControllable, DirectivesCollect
     private static ExtensionSystem extensionSystem;
     private ExtensionsManager extensionsManager;
     @Getter private PluginThreadPool pluginThreadPool;
-    @Getter private boolean started = false;
+    @Getter private volatile boolean started = false;
+    private volatile Map<String, Resolved<?>> snapshot = Collections.emptyMap();
 
     public static ExtensionSystem getInstance() throws PluginSystemCriticalException {
         if (isNull(extensionSystem)) {
@@ -36,6 +39,7 @@ public class ExtensionSystem implements ExtensionControllable, DirectivesCollect
             extensionSystem.extensionsManager = ExtensionsManager.getInstance(getPluginsYmlLocation(), getPluginConfigYmlLocation());
             if (nonNull(extensionSystem.extensionsManager)) {
                 extensionSystem.pluginThreadPool = PluginThreadPool.createInstance(extensionSystem.extensionsManager.getPluginContainer());
+                extensionSystem.extensionsManager.addLifecycleListener((pluginName, pluginVersion) -> extensionSystem.invalidateSnapshot());
             } else {
                 throw new PluginSystemCriticalException("Cannot create ExtensionSystem correctly, because it is no instantiated to PluginContainer object");
             }
@@ -48,23 +52,54 @@ public class ExtensionSystem implements ExtensionControllable, DirectivesCollect
             logit(PLUGIN_EVENT, "Extension system is just started correctly", THREE);
             return;
         }
-        this.started = true;
         this.extensionsManager.enableExtensions();
+        invalidateSnapshot();
+        this.started = true;
+    }
+
+    /**
+     * Lookup is served from immutable snapshot of chosen instances, so it takes no lock
+     * and does not run PluginStrategy on each call. Snapshot is dropped on each plugin's lifecycle change.
+     * */
+    public <T> Optional<T> get(String interfaceName, Class<T> type) {
+        return resolved(interfaceName, type).chosen();
+    }
+
+    public <T> List<T> getAll(String interfaceName, Class<T> type) {
+        return resolved(interfaceName, type).all();
     }
 
-    public synchronized <T> Optional<T> get(String interfaceName, Class<T> type) {
+    @SuppressWarnings("unchecked")
+    private <T> Resolved<T> resolved(String interfaceName, Class<T> type) {
         if (!started) {
             throw new RuntimeException("==> Cannot get some reference from container because ExtensionSystem is not started yet");
         }
-        T specific = extensionsManager.getPluginContainer().getSpecific(interfaceName, type);
-        return Optional.ofNullable(specific);
+        Resolved<?> resolved = snapshot.get(interfaceName);
+        if (nonNull(resolved) && resolved.type == type) {
+            return (Resolved<T>) resolved;
+        }
+        return resolve(interfaceName, type);
     }
 
-    public synchronized <T> List<T> getAll(String interfaceName, Class<T> type) {
-        if (!started) {
-            throw new RuntimeException("==> Cannot get some reference from container because ExtensionSystem is not started yet");
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Resolved<T> resolve(String interfaceName, Class<T> type) {
+        final Map<String, Resolved<?>> current = snapshot;
+        Resolved<?> resolved = current.get(interfaceName);
+        if (nonNull(resolved) && resolved.type == type) {
+            return (Resolved<T>) resolved;
         }
-        return extensionsManager.getPluginContainer().getGathered(interfaceName, type);
+        PluginContainer pluginContainer = extensionsManager.getPluginContainer();
+        Resolved<T> created = new Resolved<>(type,
+                Optional.ofNullable(pluginContainer.getSpecific(interfaceName, type)),
+                Collections.unmodifiableList(pluginContainer.getGathered(interfaceName, type)));
+        Map<String, Resolved<?>> next = new HashMap<>(current);
+        next.put(interfaceName, created);
+        this.snapshot = Collections.unmodifiableMap(next);
+        return created;
+    }
+
+    private synchronized void invalidateSnapshot() {
+        this.snapshot = Collections.emptyMap();
     }
 
     /**
@@ -84,6 +119,21 @@ public class ExtensionSystem implements ExtensionControllable, DirectivesCollect
         return ((ExtensionControllable) this.extensionsManager).state();
     }
 
+    @Override
+    public Optional<PluginState> state(String pluginName, String pluginVersion) {
+        return ((ExtensionControllable) this.extensionsManager).state(pluginName, pluginVersion);
+    }
+
+    @Override
+    public List<Plugin> installed() {
+        return ((ExtensionControllable) this.extensionsManager).installed();
+    }
+
+    @Override
+    public PluginContainerSnapshot stateSnapshot() {
+        return ((ExtensionControllable) this.extensionsManager).stateSnapshot();
+    }
+
     @Override
     public ActionResponse shutdownExtension(ActionRequest actionRequest) {
         return ((ExtensionControllable) this.extensionsManager).shutdownExtension(actionRequest);
@@ -103,4 +153,40 @@ public class ExtensionSystem implements ExtensionControllable, DirectivesCollect
     public List<Directive> collectAll() {
         return getAll("io.easeci.extension.command.Directive", Directive.class);
     }
+
+    @Override
+    public Optional<Plugin> pluginOf(Directive directive) {
+        return extensionsManager.getPluginContainer()
+                .findByIdentityHashCode(System.identityHashCode(directive))
+                .map(Instance::getPlugin);
+    }
+
+    /**
+     * Register listener notified each time when some plugin
+     * was stopped, started, restarted or installed on fly.
+     * @param listener is an object to notify
+     * */
+    public void addLifecycleListener(PluginLifecycleListener listener) {
+        extensionsManager.addLifecycleListener(listener);
+    }
+
+    private static class Resolved<T> {
+        private final Class<T> type;
+        private final Optional<T> chosen;
+        private final List<T> all;
+
+        private Resolved(Class<T> type, Optional<T> chosen, List<T> all) {
+            this.type = type;
+            this.chosen = chosen;
+            this.all = all;
+        }
+
+        private Optional<T> chosen() {
+            return chosen;
+        }
+
+        private List<T> all() {
+            return all;
+        }
+    }
 }
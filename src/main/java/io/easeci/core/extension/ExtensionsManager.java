@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -20,6 +21,7 @@ import java.util.stream.Stream;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.*;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static io.easeci.core.workspace.LocationUtils.getCacheDirectoryLocation;
 import static io.easeci.core.workspace.LocationUtils.getPluginsYmlLocation;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
@@ -37,6 +39,8 @@ class ExtensionsManager implements ExtensionControllable {
     private PluginConfig pluginConfig;
 
     private PluginDownloader pluginDownloader;
+    private PluginMetadataCache pluginMetadataCache;
+    private final List<PluginLifecycleListener> lifecycleListeners = new CopyOnWriteArrayList<>();
 
     private ExtensionsManager(Path pluginYml, Path pluginConfigYml) throws PluginSystemCriticalException {
         logit(PLUGIN_EVENT, "ExtensionManager instance creation process invoked", TWO);
@@ -45,7 +49,8 @@ class ExtensionsManager implements ExtensionControllable {
         this.pluginConfig = new DefaultPluginConfig(pluginConfigYml);
         this.pluginContainer = new DefaultPluginContainer((PluginStrategy) pluginConfig);
         this.pluginResolver = new DefaultPluginResolver();
-        this.pluginLoader = new DefaultPluginLoader(this.pluginContainer, new JarJoiner());
+        this.pluginMetadataCache = PluginMetadataCache.load(getCacheDirectoryLocation().resolve(PluginMetadataCache.CACHE_FILE));
+        this.pluginLoader = new DefaultPluginLoader(this.pluginContainer, new JarJoiner(this.pluginMetadataCache));
         this.pluginDownloader = this.instantiatePluginDownloader();
     }
 
@@ -66,12 +71,14 @@ class ExtensionsManager implements ExtensionControllable {
 
         Integer timeoutMilliseconds = (Integer) YamlUtils.ymlGet(yamlValues, "plugins.registry.timeout").getValue();
         URL registryUrl = new URL((String) YamlUtils.ymlGet(yamlValues, "plugins.registry.url").getValue());
+        Integer maxParallelDownloads = (Integer) YamlUtils.ymlGet(yamlValues, "plugins.registry.max-parallel-downloads").getValue();
         Path pluginDestination = this.infrastructureInit.getPluginDirectories().stream().findFirst().orElseThrow();
 
         return DefaultPluginDownloader.builder()
                 .registryUrl(registryUrl)
                 .targetPath(pluginDestination)
                 .timeoutMilliseconds(timeoutMilliseconds)
+                .maxParallelDownloads(nonNull(maxParallelDownloads) ? maxParallelDownloads : DefaultPluginDownloader.DEFAULT_MAX_PARALLEL_DOWNLOADS)
                 .build();
     }
 
@@ -86,6 +93,7 @@ class ExtensionsManager implements ExtensionControllable {
         logit(PLUGIN_EVENT, "Declared plugins enabling started", TWO);
         Set<Plugin> resolvedPlugins = pluginResolver.resolve(pluginYml, infrastructureInit);
         Set<Plugin> pluginsNotResolved = pluginLoader.loadPlugins(resolvedPlugins, (PluginStrategy) pluginConfig);
+        pluginMetadataCache.persist();
         if (!pluginsNotResolved.isEmpty() && isDownloadProcessEnabled()) {
             downloadInFly(pluginsNotResolved);
         } else if (pluginsNotResolved.isEmpty()) {
@@ -98,15 +106,33 @@ class ExtensionsManager implements ExtensionControllable {
         return this.pluginContainer.state();
     }
 
+    @Override
+    public Optional<PluginState> state(String pluginName, String pluginVersion) {
+        return this.pluginContainer.state(pluginName, pluginVersion);
+    }
+
+    @Override
+    public List<Plugin> installed() {
+        return this.pluginContainer.installed();
+    }
+
+    @Override
+    public PluginContainerSnapshot stateSnapshot() {
+        return this.pluginContainer.snapshot();
+    }
+
     @Override
     public ActionResponse shutdownExtension(ActionRequest actionRequest) {
         logit(PLUGIN_EVENT, "Trying to finish plugin identified by UUID: " + actionRequest.getPluginUuid(), THREE);
         return pluginContainer.findByUuid(actionRequest.getExtensionType(), actionRequest.getPluginUuid())
-                .map(instance -> zip(
-                        Stream.of((instance.isStandalone() ? interruptStandalonePlugin() : interruptNotStandalonePlugin()), modifyConfigFile())
-                                .map(func -> func.apply(instance))
-                                .collect(Collectors.toList()))
-                ).orElseGet(() -> ActionResponse.builder()
+                .map(instance -> {
+                    ActionResponse actionResponse = zip(
+                            Stream.of((instance.isStandalone() ? interruptStandalonePlugin() : interruptNotStandalonePlugin()), modifyConfigFile())
+                                    .map(func -> func.apply(instance))
+                                    .collect(Collectors.toList()));
+                    notifyLifecycleChange(instance.getPlugin());
+                    return actionResponse;
+                }).orElseGet(() -> ActionResponse.builder()
                         .isSuccessfullyDone(false)
                         .message("Cannot find plugin to shutdown: ".concat(actionRequest.toString()))
                         .build());
@@ -116,7 +142,7 @@ class ExtensionsManager implements ExtensionControllable {
         return instance -> {
             logit(PLUGIN_EVENT, "Stopping standalone plugin work " + instance.getPlugin().toShortString(), THREE);
             instance.toStandalone().stop();
-            boolean instanceCleared = instance.clear();
+            boolean instanceCleared = pluginLoader.unloadPlugin(instance);
             if (instanceCleared) {
                 return ActionResponse.of(true,
                         List.of("Plugin " + instance.getPlugin().toShortString() + " is stopped by stop() method"));
@@ -129,7 +155,7 @@ class ExtensionsManager implements ExtensionControllable {
     private Function<Instance, ActionResponse> interruptNotStandalonePlugin() {
         return instance -> {
             logit(PLUGIN_EVENT, "Stopping other than standalone plugin work " + instance.getPlugin().toShortString(), THREE);
-            boolean instanceCleared = instance.clear();
+            boolean instanceCleared = pluginLoader.unloadPlugin(instance);
             if (instanceCleared) {
                 return ActionResponse.of(true,
                         List.of("Plugin " + instance.getPlugin().toShortString() + " should be removed from memory of JVM by GC"));
@@ -211,6 +237,7 @@ class ExtensionsManager implements ExtensionControllable {
                                 + identityHashCode + "}], plugin: {" + instanceReloaded.getPlugin().toShortString() + "}", THREE);
                     }
                     pluginConfig.enable(actionRequest.getPluginUuid());
+                    notifyLifecycleChange(instanceReloaded.getPlugin());
                 });
 
         return ActionResponse.builder()
@@ -219,15 +246,67 @@ class ExtensionsManager implements ExtensionControllable {
                 .build();
     }
 
+    /**
+     * Running plugin is restarted in blue/green way: new instance is created in its own ClassLoader
+     * and swapped in container in one step. Previous instance is stopped only after drain time,
+     * so calls still running on it can finish. So lookups of this plugin never return nothing, and plugins-config.json is written
+     * at most once, only when plugin was not enabled before.
+     * Plugin that is not running is just started.
+     * */
     @Override
     public ActionResponse restart(ActionRequest actionRequest) {
         logit(PLUGIN_EVENT, "[Extension plugin] Restarting of plugin: " + actionRequest.toString(), THREE);
-        this.shutdownExtension(actionRequest);
-        ActionResponse actionResponse = this.startupExtension(actionRequest);
-        if (actionResponse.getIsSuccessfullyDone()) {
-            actionResponse.setMessage("Plugin with UUID=[" + actionRequest.getPluginUuid() + "] is correctly restarted");
+        Optional<Instance> instanceOptional = this.pluginContainer.findByUuid(actionRequest.getExtensionType(), actionRequest.getPluginUuid());
+        if (instanceOptional.isEmpty() || !instanceOptional.get().isRunning()) {
+            ActionResponse actionResponse = this.startupExtension(actionRequest);
+            if (actionResponse.getIsSuccessfullyDone()) {
+                actionResponse.setMessage("Plugin with UUID=[" + actionRequest.getPluginUuid() + "] is correctly restarted");
+            }
+            return actionResponse;
+        }
+        final Instance reloaded;
+        try {
+            reloaded = pluginLoader.reloadPlugin(instanceOptional.get(), (PluginStrategy) pluginConfig);
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+            return ActionResponse.builder()
+                    .isSuccessfullyDone(false)
+                    .message("Plugin with UUID=[" + actionRequest.getPluginUuid() + "] was not restarted, previous instance is still working: " + exception.getMessage())
+                    .build();
+        }
+        if (reloaded.isStandalone()) {
+            try {
+                PluginThreadPool.getInstance().run(Collections.singletonList(reloaded.toStandalone()));
+            } catch (PluginSystemCriticalException e) {
+                e.printStackTrace();
+            }
+        }
+        ConfigDescription configDescription = ((PluginStrategy) pluginConfig).find(actionRequest.getExtensionType(), actionRequest.getPluginUuid());
+        if (!configDescription.getEnabled()) {
+            pluginConfig.enable(actionRequest.getPluginUuid());
+        }
+        notifyLifecycleChange(reloaded.getPlugin());
+        return ActionResponse.builder()
+                .isSuccessfullyDone(true)
+                .message("Plugin with UUID=[" + actionRequest.getPluginUuid() + "] is correctly restarted")
+                .build();
+    }
+
+    void addLifecycleListener(PluginLifecycleListener listener) {
+        if (nonNull(listener)) {
+            this.lifecycleListeners.add(listener);
+        }
+    }
+
+    private void notifyLifecycleChange(Plugin plugin) {
+        this.pluginContainer.invalidateState();
+        for (PluginLifecycleListener listener : lifecycleListeners) {
+            try {
+                listener.onLifecycleChange(plugin.getName(), plugin.getVersion());
+            } catch (Exception exception) {
+                logit(PLUGIN_EVENT, "Lifecycle listener failed for plugin " + plugin.toShortString() + ": " + exception.getMessage(), THREE);
+            }
         }
-        return actionResponse;
     }
 
     private String getReport(Set<Plugin> resolve) {
@@ -285,7 +364,12 @@ class ExtensionsManager implements ExtensionControllable {
     }
 
     private void loadOnFly(Wrapper wrapper, Throwable throwable) {
+        if (nonNull(throwable)) {
+            logit(PLUGIN_EVENT, "Plugin not installed, download failed: " + throwable.getMessage(), THREE);
+            return;
+        }
         Set<Plugin> pluginsNotLoaded = pluginLoader.loadPlugins(Set.of(wrapper.plugin), (PluginStrategy) pluginConfig);
+        pluginMetadataCache.persist();
         if (!pluginsNotLoaded.isEmpty())
             logit(PLUGIN_EVENT, "Downloaded but not loaded: " + pluginsNotLoaded, THREE);
 
@@ -293,9 +377,6 @@ class ExtensionsManager implements ExtensionControllable {
 
         if (actionResponse.getIsSuccessfullyDone())
             logit(PLUGIN_EVENT, "Plugin " + wrapper.plugin.toShortString() + " correctly installed in EaseCI system", THREE);
-
-        if (nonNull(throwable))
-            throwable.printStackTrace();
     }
 
     @AllArgsConstructor(staticName = "of")
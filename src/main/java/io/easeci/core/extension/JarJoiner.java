@@ -1,51 +1,138 @@
 package io.easeci.core.extension;
 
-import io.easeci.core.log.ApplicationLevelLogFacade;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
- * Joins external .jar files and connect it with current application process
+ * Joins external .jar files and connect it with current application process.
+ * Each version of plugin has its own PluginClassLoader, created when plugin is instantiated
+ * and closed when plugin is released, so stopped plugins do not hold jar files and classes in memory.
  */
 @Slf4j
 class JarJoiner {
+    private final PluginMetadataCache metadataCache;
+    private final Map<String, PluginClassLoader> classLoaders = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService drainExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "plugin-classloader-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    JarJoiner() {
+        this(null);
+    }
+
+    JarJoiner(PluginMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
 
     Plugin addToClasspath(Plugin plugin) {
         if (!plugin.isLoadable()) {
             logit(PLUGIN_EVENT, "Plugin " + plugin.getName() + ", v" + plugin.getVersion() + " is missing on local storage", THREE);
             return plugin;
         }
+        ExtensionManifest extensionManifest = read(plugin);
+        plugin.getJarArchive().setExtensionManifest(extensionManifest);
+        return plugin;
+    }
+
+    /**
+     * @param plugin is a plugin with jar file stored locally
+     * @return ClassLoader of this version of plugin. The same one is returned until plugin is released
+     * */
+    ClassLoader classLoaderOf(Plugin plugin) {
+        return classLoaders.computeIfAbsent(key(plugin), key -> new PluginClassLoader(plugin.getJarArchive().getJarUrl(), parentClassLoader()));
+    }
+
+    /**
+     * @param plugin is a plugin with jar file stored locally
+     * @return new ClassLoader of plugin, not used by current instance of plugin yet
+     * */
+    PluginClassLoader newClassLoader(Plugin plugin) {
+        return new PluginClassLoader(plugin.getJarArchive().getJarUrl(), parentClassLoader());
+    }
+
+    /**
+     * Make ClassLoader current one for plugin. Previous ClassLoader is closed after drain time,
+     * so calls of previous instance that are still in progress can load classes they need.
+     * @param plugin is a plugin which ClassLoader is replaced
+     * @param classLoader is a ClassLoader created by newClassLoader()
+     * @param drainSeconds is a time after which previous ClassLoader is closed
+     * @param drained is run after drain time, just before previous ClassLoader is closed
+     * */
+    void swap(Plugin plugin, PluginClassLoader classLoader, long drainSeconds, Runnable drained) {
+        PluginClassLoader previous = classLoaders.put(key(plugin), classLoader);
+        drainExecutor.schedule(() -> {
+            drained.run();
+            if (nonNull(previous)) {
+                close(previous, plugin);
+            }
+        }, drainSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Close ClassLoader of plugin. Next call of classLoaderOf() creates new one.
+     * @param plugin is a plugin to release
+     * @return true if ClassLoader was closed, false if plugin had no ClassLoader
+     * */
+    boolean release(Plugin plugin) {
+        PluginClassLoader classLoader = classLoaders.remove(key(plugin));
+        if (isNull(classLoader)) {
+            return false;
+        }
+        close(classLoader, plugin);
+        return true;
+    }
+
+    void close(PluginClassLoader classLoader, Plugin plugin) {
         try {
-            URLClassLoader urlClassLoader = new URLClassLoader(new URL[0]);
-            Method addUrlMethod = URLClassLoader.class.getDeclaredMethod("addURL", URL.class);
-            addUrlMethod.setAccessible(true);
-            addUrlMethod.invoke(urlClassLoader, plugin.getJarArchive().getJarUrl());
-            ExtensionManifest extensionManifest = read(plugin);
-            plugin.getJarArchive().setExtensionManifest(extensionManifest);
-            return plugin;
-        } catch (NoSuchMethodException e) {
-            log.error("NoSuchMethodException occurred: {}", e.getMessage());
-        } catch (IllegalAccessException e) {
-            log.error("IllegalAccessException occurred: {}", e.getMessage());
-        } catch (InvocationTargetException e) {
-            log.error("InvocationTargetException occurred: {}", e.getMessage());
+            classLoader.close();
+        } catch (IOException e) {
+            log.error("IOException occurred while closing ClassLoader of plugin: {}", plugin.toShortString());
         }
-        return plugin;
+    }
+
+    int classLoadersSize() {
+        return classLoaders.size();
+    }
+
+    private static String key(Plugin plugin) {
+        return plugin.getName() + '@' + plugin.getVersion();
+    }
+
+    private static ClassLoader parentClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return nonNull(contextClassLoader) ? contextClassLoader : JarJoiner.class.getClassLoader();
     }
 
     ExtensionManifest read(Plugin plugin) {
+        final Path jarPath = plugin.getJarArchive().getJarPath();
+        if (nonNull(metadataCache)) {
+            Optional<ExtensionManifest> cached = metadataCache.manifest(jarPath);
+            if (cached.isPresent() && cached.get().isComplete()) {
+                return cached.get();
+            }
+        }
         try {
-            ExtensionManifest extensionManifest = Utils.extractManifest(plugin.getJarArchive().getJarPath());
+            ExtensionManifest extensionManifest = Utils.extractManifest(jarPath);
             if (extensionManifest.isComplete()) {
+                if (nonNull(metadataCache)) {
+                    metadataCache.put(jarPath, extensionManifest);
+                }
                 return extensionManifest;
             }
         } catch (IOException e) {
@@ -0,0 +1,65 @@
+package io.easeci.core.extension;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * ClassLoader of one version of plugin.
+ * Classes of plugin are looked up in its jar file first (child-first), so plugin can bring
+ * its own versions of libraries used by EaseCI too. Only JDK classes and API of extensions
+ * are always taken from parent, because instances of plugin must be castable to interfaces known to EaseCI.
+ * When plugin is stopped, loader is closed, so its jar file is released and its classes
+ * could be unloaded by GC together with last instance of plugin.
+ * */
+class PluginClassLoader extends URLClassLoader {
+    private final static String[] PARENT_FIRST_PACKAGES = {
+            "java.", "javax.", "jdk.", "sun.", "com.sun.", "org.slf4j.", "io.easeci.extension."
+    };
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    PluginClassLoader(URL jarUrl, ClassLoader parent) {
+        super(new URL[]{jarUrl}, parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isParentFirst(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
+            if (isNull(loadedClass)) {
+                try {
+                    loadedClass = findClass(name);
+                } catch (ClassNotFoundException exception) {
+                    return super.loadClass(name, resolve);
+                }
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL resource = findResource(name);
+        return nonNull(resource) ? resource : super.getResource(name);
+    }
+
+    private static boolean isParentFirst(String className) {
+        for (String packagePrefix : PARENT_FIRST_PACKAGES) {
+            if (className.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
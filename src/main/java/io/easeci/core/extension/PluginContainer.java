@@ -77,12 +77,49 @@ interface PluginContainer {
      * */
     boolean remove(String pluginName, String pluginVersion);
 
+    /**
+     * Replaces instance of plugin with new one in one step,
+     * so there is no moment when container has no instance of this plugin.
+     * @param previous is instance currently stored in container
+     * @param next is instance of the same plugin that takes its place
+     * @return boolean value, if true - instance was replaced
+     *                        if false - previous instance was not found in container
+     * */
+    boolean replace(Instance previous, Instance next);
+
     /**
      * Get information of current state of container
      * @return POJO representation of container's information.
      * */
     PluginContainerState state();
 
+    /**
+     * Get information of current state of one plugin in container
+     * @param pluginName is a name of plugin
+     * @param pluginVersion is a version of plugin
+     * @return POJO representation of plugin's information or empty if plugin is not in container.
+     * */
+    Optional<PluginState> state(String pluginName, String pluginVersion);
+
+    /**
+     * Get plugins placed in container, read from its index without collecting their state.
+     * @return plugins in container, each version of plugin once
+     * */
+    List<Plugin> installed();
+
+    /**
+     * Get state of container already serialized to JSON.
+     * Snapshot is rebuilt only when state was invalidated since last call.
+     * @return snapshot of container's information
+     * */
+    PluginContainerSnapshot snapshot();
+
+    /**
+     * Mark current snapshot of container's state as outdated.
+     * Call it when plugin changes its lifecycle state.
+     * */
+    void invalidateState();
+
     /**
      * @return size of current container's key set
      * */
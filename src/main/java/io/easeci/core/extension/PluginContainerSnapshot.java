@@ -0,0 +1,19 @@
+package io.easeci.core.extension;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PluginContainerState already serialized to JSON, taken at some version of PluginContainer.
+ * Version grows on every lifecycle event of plugins, so snapshot is built once per change
+ * and not on each request. Entity tag is derived from content, so clients can ask
+ * for state conditionally and receive nothing when it was not changed.
+ * */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class PluginContainerSnapshot {
+    private final long version;
+    private final String entityTag;
+    private final byte[] json;
+}
@@ -0,0 +1,16 @@
+package io.easeci.core.extension;
+
+/**
+ * Listener notified by ExtensionSystem when some plugin changes its lifecycle state,
+ * for instance when it was stopped, started again, restarted or just installed in a new version.
+ * Use it when you hold any state derived from plugin's instance and this state must be dropped
+ * after plugin's instance was replaced.
+ * */
+public interface PluginLifecycleListener {
+
+    /**
+     * @param pluginName is a name of plugin that changed its state
+     * @param pluginVersion is a version of plugin that changed its state
+     * */
+    void onLifecycleChange(String pluginName, String pluginVersion);
+}
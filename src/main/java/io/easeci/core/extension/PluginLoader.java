@@ -39,4 +39,26 @@ interface PluginLoader {
      *                       that is persisted in plugins-config.json file.
      * */
     Instance reinstantiatePlugin(Instance instance, PluginStrategy pluginStrategy);
+
+    /**
+     * Use this method in order to replace running plugin with its new instance without any gap.
+     * New instance is created in new ClassLoader and swapped in container in one step.
+     * Previous instance is drained: it keeps working for drain time, so callers that found it
+     * just before the swap can still use it and load classes it needs. Only then it is stopped,
+     * its entry object is dropped and its ClassLoader is closed.
+     * @param instance is a object obtained from PluginContainer, currently running.
+     * @param pluginStrategy is object required for checking if plugin is enabled or not.
+     * @return new instance of plugin, just placed in container
+     * @throws RuntimeException when new instance could not be created. Previous instance is still working then
+     * */
+    Instance reloadPlugin(Instance instance, PluginStrategy pluginStrategy);
+
+    /**
+     * Use this method when plugin is stopped. Reference to plugin's entry object is dropped
+     * and ClassLoader of plugin is closed, so its classes could be unloaded by GC
+     * when there is no other reference to objects created by plugin.
+     * @param instance is a object obtained from PluginContainer.
+     * @return true if reference to plugin's entry object was dropped
+     * */
+    boolean unloadPlugin(Instance instance);
 }
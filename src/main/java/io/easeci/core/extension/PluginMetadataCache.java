@@ -0,0 +1,146 @@
+package io.easeci.core.extension;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import io.easeci.commons.FileUtils;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.isNull;
+
+/**
+ * Cache of metadata read from plugin's jar files, persisted in .cache directory.
+ * Entry is valid as long as jar file has the same size and last modified time as when it was cached,
+ * so on warm restart manifest is taken from cache and jar file is not opened at all.
+ * When only last modified time changed, for instance jar file was copied or touched,
+ * content hash of jar file is compared with cached one and entry is reused if content is the same.
+ * */
+class PluginMetadataCache {
+    final static String CACHE_FILE = "plugins-metadata.json";
+    private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path cacheFile;
+    private final Map<String, Metadata> entries;
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+
+    private PluginMetadataCache(Path cacheFile, Map<String, Metadata> entries) {
+        this.cacheFile = cacheFile;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * @param cacheFile is a file where cache is persisted
+     * @return cache with entries read from file, or empty one when file not exists or is not readable
+     * */
+    static PluginMetadataCache load(Path cacheFile) {
+        if (!Files.exists(cacheFile)) {
+            return new PluginMetadataCache(cacheFile, Map.of());
+        }
+        try {
+            Map<String, Metadata> entries = OBJECT_MAPPER.readValue(cacheFile.toFile(), new TypeReference<Map<String, Metadata>>() {});
+            return new PluginMetadataCache(cacheFile, entries);
+        } catch (IOException e) {
+            logit(PLUGIN_EVENT, "Cannot read cache of plugins metadata, all jar files will be scanned: " + e.getMessage(), THREE);
+            return new PluginMetadataCache(cacheFile, Map.of());
+        }
+    }
+
+    /**
+     * @param jarPath is a path of plugin's jar file
+     * @return manifest of jar file if it was cached and jar file was not changed since then
+     * */
+    Optional<ExtensionManifest> manifest(Path jarPath) {
+        Metadata metadata = entries.get(jarPath.toString());
+        if (isNull(metadata)) {
+            return Optional.empty();
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(jarPath, BasicFileAttributes.class);
+            if (attributes.size() != metadata.getSize()) {
+                return Optional.empty();
+            }
+            if (attributes.lastModifiedTime().toMillis() != metadata.getModified()) {
+                if (!hash(jarPath).equals(metadata.getHash())) {
+                    return Optional.empty();
+                }
+                entries.put(jarPath.toString(), new Metadata(metadata.getSize(), attributes.lastModifiedTime().toMillis(), metadata.getHash(),
+                        metadata.getImplementsProperty(), metadata.getEntryClassProperty()));
+                changed.set(true);
+            }
+            return Optional.of(ExtensionManifest.of(metadata.getImplementsProperty(), metadata.getEntryClassProperty()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store manifest just read from jar file.
+     * @param jarPath is a path of plugin's jar file
+     * @param manifest is a manifest read from this jar file
+     * */
+    void put(Path jarPath, ExtensionManifest manifest) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(jarPath, BasicFileAttributes.class);
+            entries.put(jarPath.toString(), new Metadata(attributes.size(), attributes.lastModifiedTime().toMillis(), hash(jarPath),
+                    manifest.getImplementsProperty(), manifest.getEntryClassProperty()));
+            changed.set(true);
+        } catch (IOException e) {
+            logit(PLUGIN_EVENT, "Cannot cache metadata of plugin's jar file: " + jarPath, THREE);
+        }
+    }
+
+    /**
+     * Write cache to file if it was changed since it was loaded.
+     * Entries of jar files that not exist anymore are dropped.
+     * */
+    synchronized void persist() {
+        if (entries.keySet().removeIf(jarPath -> !Files.exists(Paths.get(jarPath)))) {
+            changed.set(true);
+        }
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            FileUtils.fileWriteAtomically(cacheFile, OBJECT_MAPPER.writeValueAsBytes(entries), true);
+        } catch (IOException e) {
+            changed.set(true);
+            e.printStackTrace();
+            logit(PLUGIN_EVENT, "Cannot persist cache of plugins metadata here: " + cacheFile, THREE);
+        }
+    }
+
+    private static String hash(Path jarPath) throws IOException {
+        return com.google.common.io.Files.asByteSource(jarPath.toFile()).hash(Hashing.sha256()).toString();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Metadata {
+        private long size;
+        private long modified;
+        private String hash;
+        private String implementsProperty;
+        private String entryClassProperty;
+    }
+}
@@ -4,9 +4,11 @@ import io.easeci.commons.YamlUtils;
 import io.easeci.extension.Standalone;
 import lombok.Getter;
 
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
@@ -15,12 +17,41 @@ import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 import static io.easeci.core.workspace.LocationUtils.getPluginsYmlLocation;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
+/**
+ * Runs and supervises standalone plugins.
+ * Each plugin runs in shared pool (sized by plugins.local.threadpool.max-size) or in its own dedicated thread,
+ * chosen per plugin in plugins.yml. Future of each run is tracked, and when start() of plugin
+ * finishes while plugin is still started in container, plugin is restarted according to its RestartPolicy,
+ * with exponential backoff. Thread, CPU time and uptime of each plugin are available by stats().
+ * */
 public class PluginThreadPool {
+    private final static String THREADPOOL_REFS = "plugins.local.threadpool";
+    private final static long INITIAL_BACKOFF_MILLIS = 1000,
+                              DEFAULT_MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(60);
     private static PluginThreadPool instance;
     @Getter private Integer threadPoolMaxSize;
     private ThreadPoolExecutor threadPoolExecutor;
+    private ScheduledExecutorService restartScheduler;
     private PluginContainer pluginContainer;
+    private RestartPolicy defaultRestartPolicy;
+    private long initialBackoffMillis;
+    private long maxBackoffMillis;
+    private Map<String, Map<String, String>> pluginsSettings = Collections.emptyMap();
+    private final Map<Integer, Supervised> supervised = new ConcurrentHashMap<>();
+    private final AtomicInteger pooledSlots = new AtomicInteger();
+
+    PluginThreadPool(PluginContainer pluginContainer, int threadPoolMaxSize, RestartPolicy defaultRestartPolicy,
+                     long initialBackoffMillis, long maxBackoffMillis) {
+        this.threadPoolMaxSize = threadPoolMaxSize;
+        this.threadPoolExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(threadPoolMaxSize, threadFactory("standalone-plugin-pool-"));
+        this.restartScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("standalone-plugin-supervisor-"));
+        this.pluginContainer = pluginContainer;
+        this.defaultRestartPolicy = defaultRestartPolicy;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
 
     public static PluginThreadPool getInstance() throws PluginSystemCriticalException {
         if (isNull(PluginThreadPool.instance)) {
@@ -32,38 +63,262 @@ public class PluginThreadPool {
 
     public static PluginThreadPool createInstance(PluginContainer pluginContainer) {
         if (isNull(PluginThreadPool.instance)) {
-            PluginThreadPool.instance = new PluginThreadPool();
-            instance.threadPoolMaxSize = (Integer) YamlUtils.ymlGet(getPluginsYmlLocation(), "plugins.local.threadpool.max-size").getValue();
-            instance.threadPoolExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(instance.threadPoolMaxSize);
-            instance.pluginContainer = pluginContainer;
+            Integer threadPoolMaxSize = (Integer) YamlUtils.ymlGet(getPluginsYmlLocation(), THREADPOOL_REFS + ".max-size").getValue();
+            PluginThreadPool.instance = new PluginThreadPool(pluginContainer, threadPoolMaxSize, RestartPolicy.ON_FAILURE,
+                                                             INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+            instance.loadSettings();
         }
         return instance;
     }
 
+    @SuppressWarnings("unchecked")
+    private void loadSettings() {
+        Map<?, ?> threadpool = (Map<?, ?>) YamlUtils.ymlGet(YamlUtils.ymlLoad(getPluginsYmlLocation()), THREADPOOL_REFS).getValue();
+        Object restartPolicy = threadpool.get("restart-policy");
+        if (nonNull(restartPolicy)) {
+            this.defaultRestartPolicy = RestartPolicy.of(restartPolicy.toString());
+        }
+        Object maxBackoffSeconds = threadpool.get("restart-max-backoff-seconds");
+        if (maxBackoffSeconds instanceof Integer) {
+            this.maxBackoffMillis = TimeUnit.SECONDS.toMillis((Integer) maxBackoffSeconds);
+        }
+        Object plugins = threadpool.get("plugins");
+        if (plugins instanceof Map) {
+            this.pluginsSettings = (Map<String, Map<String, String>>) plugins;
+        }
+    }
+
     public List<Standalone> run(List<Standalone> standaloneList) {
         return standaloneList.stream()
                 .peek(standalone -> {
-                    int activeCount = instance.threadPoolExecutor.getActiveCount();
-                    if (activeCount > instance.threadPoolMaxSize) {
+                    int identityHashCode = System.identityHashCode(standalone);
+                    Optional<Instance> instanceOptional = pluginContainer.findByIdentityHashCode(identityHashCode);
+                    if (instanceOptional.isEmpty()) {
+                        logit(PLUGIN_EVENT, "Cannot find Instance by hashCode[" + identityHashCode + "] of plugin object", THREE);
+                        return;
+                    }
+                    Instance instance = instanceOptional.get();
+                    if (!instance.isStandalone()) {
+                        logit(PLUGIN_EVENT, "[Extension plugin] Correctly found Instance by hashCode[" + identityHashCode + "], plugin: " + instance.getPlugin().toShortString(), THREE);
+                        return;
+                    }
+                    Supervised supervisedPlugin = new Supervised(standalone, instance.getPlugin(),
+                            restartPolicyOf(instance.getPlugin()), isDedicated(instance.getPlugin()));
+                    if (!supervisedPlugin.dedicated && !reserveSlot()) {
                         logit(PLUGIN_EVENT, "Cannot assign new thread for new task. The thread pool is full.", ONE);
                         return;
                     }
-                    Thread thread = new Thread(standalone::start);
-                    thread.setDaemon(true);
-//                    Here it will be good to handle Future<?> as a result of submit task TODO
-                    instance.threadPoolExecutor.submit(thread);
-                    int identityHashCode = System.identityHashCode(standalone);
-                    pluginContainer.findByIdentityHashCode(identityHashCode)
-                            .ifPresentOrElse(instance -> {
-                                if (instance.isStandalone()) {
-                                    instance.setStarted(true);
-                                    instance.assignThread(thread);
-                                    logit(PLUGIN_EVENT, "[Standalone plugin] Correctly found Instance by hashCode["
-                                            + identityHashCode + "], plugin: " + instance.getPlugin().toShortString()
-                                            + " assigned to running in Thread: " + instance.getThread().toString(), THREE);
-                                } else
-                                    logit(PLUGIN_EVENT, "[Extension plugin] Correctly found Instance by hashCode[" + identityHashCode + "], plugin: " + instance.getPlugin().toShortString(), THREE);
-                            }, () -> logit(PLUGIN_EVENT,"Cannot find Instance by hashCode[" + identityHashCode + "] of plugin object", THREE));
+                    if (nonNull(supervised.putIfAbsent(identityHashCode, supervisedPlugin))) {
+                        releaseSlot(supervisedPlugin);
+                        logit(PLUGIN_EVENT, "[Standalone plugin] Plugin " + instance.getPlugin().toShortString() + " is just running", THREE);
+                        return;
+                    }
+                    instance.setStarted(true);
+                    pluginContainer.invalidateState();
+                    try {
+                        launch(supervisedPlugin);
+                    } catch (RuntimeException exception) {
+                        unsupervise(supervisedPlugin);
+                        instance.setStarted(false);
+                        pluginContainer.invalidateState();
+                        logit(PLUGIN_EVENT, "[Standalone plugin] Plugin " + instance.getPlugin().toShortString() + " could not be run: " + exception, THREE);
+                        return;
+                    }
+                    logit(PLUGIN_EVENT, "[Standalone plugin] Correctly found Instance by hashCode["
+                            + identityHashCode + "], plugin: " + instance.getPlugin().toShortString()
+                            + " is running in " + (supervisedPlugin.dedicated ? "dedicated thread" : "thread pool")
+                            + " with restart policy " + supervisedPlugin.restartPolicy, THREE);
                 }).collect(Collectors.toList());
     }
+
+    /**
+     * @return statistics of all standalone plugins run and supervised now
+     * */
+    public List<StandaloneStats> stats() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return supervised.values()
+                .stream()
+                .map(supervisedPlugin -> supervisedPlugin.stats(threadMXBean))
+                .collect(Collectors.toList());
+    }
+
+    private void launch(Supervised supervisedPlugin) {
+        Runnable task = () -> {
+            supervisedPlugin.started(Thread.currentThread());
+            pluginContainer.findByIdentityHashCode(System.identityHashCode(supervisedPlugin.standalone))
+                    .filter(instance -> isNull(instance.getThread()))
+                    .ifPresent(instance -> instance.assignThread(Thread.currentThread()));
+            Throwable failure = null;
+            try {
+                supervisedPlugin.standalone.start();
+            } catch (Throwable throwable) {
+                failure = throwable;
+                logit(PLUGIN_EVENT, "[Standalone plugin] Plugin " + supervisedPlugin.plugin.toShortString() + " crashed: " + throwable, THREE);
+            } finally {
+                supervisedPlugin.finished();
+            }
+            onExit(supervisedPlugin, failure);
+        };
+        if (supervisedPlugin.dedicated) {
+            FutureTask<Void> futureTask = new FutureTask<>(task, null);
+            Thread thread = new Thread(futureTask, "standalone-plugin-" + supervisedPlugin.plugin.getName());
+            thread.setDaemon(true);
+            supervisedPlugin.future = futureTask;
+            thread.start();
+        } else {
+            supervisedPlugin.future = threadPoolExecutor.submit(task);
+        }
+    }
+
+    /**
+     * Slot of pool is taken by pooled plugin for whole time it is supervised, also between restarts,
+     * so plugins never wait in queue of pool. Checked and taken in one atomic step,
+     * so plugins run at the same time cannot exceed size of pool.
+     * */
+    private boolean reserveSlot() {
+        int taken;
+        do {
+            taken = pooledSlots.get();
+            if (taken >= threadPoolMaxSize) {
+                return false;
+            }
+        } while (!pooledSlots.compareAndSet(taken, taken + 1));
+        return true;
+    }
+
+    private void releaseSlot(Supervised supervisedPlugin) {
+        if (!supervisedPlugin.dedicated) {
+            pooledSlots.decrementAndGet();
+        }
+    }
+
+    private void unsupervise(Supervised supervisedPlugin) {
+        releaseSlot(supervisedPlugin);
+        supervised.remove(System.identityHashCode(supervisedPlugin.standalone), supervisedPlugin);
+    }
+
+    private void onExit(Supervised supervisedPlugin, Throwable failure) {
+        if (!isStillStarted(supervisedPlugin.standalone) || !supervisedPlugin.restartPolicy.shouldRestart(failure)) {
+            unsupervise(supervisedPlugin);
+            logit(PLUGIN_EVENT, "[Standalone plugin] Plugin " + supervisedPlugin.plugin.toShortString() + " finished its work", THREE);
+            return;
+        }
+        long backoffMillis = supervisedPlugin.nextBackoff(initialBackoffMillis, maxBackoffMillis);
+        logit(PLUGIN_EVENT, "[Standalone plugin] Plugin " + supervisedPlugin.plugin.toShortString() + " is restarted in "
+                + backoffMillis + " ms, restart no. " + supervisedPlugin.restarts, THREE);
+        restartScheduler.schedule(() -> {
+            if (!isStillStarted(supervisedPlugin.standalone)) {
+                unsupervise(supervisedPlugin);
+                return;
+            }
+            try {
+                launch(supervisedPlugin);
+            } catch (RuntimeException exception) {
+                unsupervise(supervisedPlugin);
+                logit(PLUGIN_EVENT, "[Standalone plugin] Plugin " + supervisedPlugin.plugin.toShortString() + " could not be restarted: " + exception, THREE);
+            }
+        }, backoffMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isStillStarted(Standalone standalone) {
+        return pluginContainer.findByIdentityHashCode(System.identityHashCode(standalone))
+                .filter(instance -> instance.getInstance() == standalone)
+                .map(Instance::isStarted)
+                .orElse(false);
+    }
+
+    private RestartPolicy restartPolicyOf(Plugin plugin) {
+        String restartPolicy = settingOf(plugin, "restart-policy");
+        return isNull(restartPolicy) ? defaultRestartPolicy : RestartPolicy.of(restartPolicy);
+    }
+
+    private boolean isDedicated(Plugin plugin) {
+        return "dedicated".equals(settingOf(plugin, "threads"));
+    }
+
+    private String settingOf(Plugin plugin, String key) {
+        Map<String, String> settings = pluginsSettings.get(plugin.getName());
+        return isNull(settings) || isNull(settings.get(key)) ? null : String.valueOf(settings.get(key));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    enum RestartPolicy {
+        NEVER, ON_FAILURE, ALWAYS;
+
+        static RestartPolicy of(String value) {
+            return RestartPolicy.valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+
+        boolean shouldRestart(Throwable failure) {
+            return ALWAYS.equals(this) || (ON_FAILURE.equals(this) && nonNull(failure));
+        }
+    }
+
+    static class Supervised {
+        private final Standalone standalone;
+        private final Plugin plugin;
+        private final RestartPolicy restartPolicy;
+        private final boolean dedicated;
+        private volatile Future<?> future;
+        private volatile Thread thread;
+        private volatile long startedAt;
+        private volatile long startedCpuTimeNanos;
+        private volatile int restarts;
+
+        Supervised(Standalone standalone, Plugin plugin, RestartPolicy restartPolicy, boolean dedicated) {
+            this.standalone = standalone;
+            this.plugin = plugin;
+            this.restartPolicy = restartPolicy;
+            this.dedicated = dedicated;
+        }
+
+        /**
+         * Called by thread that just starts running plugin. CPU time that this thread used before,
+         * for instance running other tasks of pool, is not counted in statistics of plugin.
+         * */
+        void started(Thread thread) {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            this.thread = thread;
+            this.startedAt = System.currentTimeMillis();
+            this.startedCpuTimeNanos = threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0;
+        }
+
+        private void finished() {
+            this.thread = null;
+        }
+
+        /**
+         * Backoff grows twice with each restart up to max, and is reset
+         * when plugin was working longer than max backoff before it finished.
+         * */
+        long nextBackoff(long initialMillis, long maxMillis) {
+            if (System.currentTimeMillis() - startedAt > maxMillis) {
+                restarts = 0;
+            }
+            long backoff = Math.min(maxMillis, initialMillis << Math.min(restarts, 20));
+            restarts++;
+            return backoff;
+        }
+
+        private StandaloneStats stats(ThreadMXBean threadMXBean) {
+            final Thread current = this.thread;
+            boolean running = nonNull(current) && nonNull(future) && !future.isDone();
+            long cpuTimeMillis = running && threadMXBean.isThreadCpuTimeSupported()
+                    ? TimeUnit.NANOSECONDS.toMillis(Math.max(0, threadMXBean.getThreadCpuTime(current.getId()) - startedCpuTimeNanos))
+                    : 0;
+            return new StandaloneStats(plugin.getName(), plugin.getVersion(),
+                    running ? current.getName() : null,
+                    dedicated, running,
+                    running ? TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startedAt) : 0,
+                    cpuTimeMillis, restarts, restartPolicy.name());
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package io.easeci.core.extension;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Statistics of standalone plugin supervised by PluginThreadPool.
+ * */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StandaloneStats {
+    private String pluginName;
+    private String pluginVersion;
+    private String threadName;
+    private boolean dedicatedThread;
+    private boolean running;
+    private long uptimeSeconds;
+    private long cpuTimeMillis;
+    private int restarts;
+    private String restartPolicy;
+}
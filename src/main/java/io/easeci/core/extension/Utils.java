@@ -14,6 +14,8 @@ import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 import java.util.stream.Collectors;
 
+import static java.util.Objects.isNull;
+
 /**
  * Utils space for io.easeci.core.extension package.
  * */
@@ -66,15 +68,37 @@ class Utils {
                 .concat(pluginVersion);
     }
 
+    /**
+     * Prepare full URL for fetching details of plugin's version from EaseCI registry server, without documentation.
+     * @param registryUrl is address of registry server: http://localhost:8080 or https://easeci-registry.io
+     * @param pluginName is name of plugin
+     * @param pluginVersion is version of plugin
+     * @return complete GET URL, example:
+     *      http://localhost:8080/api/v1/details/time-printer/0.0.1?documentation=false
+     * */
+    static String completePluginDetailsUrl(URL registryUrl, String pluginName, String pluginVersion) {
+        final String REST_API_ENDPOINT = "/api/v1/details/";
+        return registryUrl.toString()
+                .concat(REST_API_ENDPOINT)
+                .concat(pluginName)
+                .concat(SLASH)
+                .concat(pluginVersion)
+                .concat("?documentation=false");
+    }
+
     /**
      * Extracting MANIFEST.MF file as a internal POJO representation.
      * @param jarPath is a path to jar file on your local storage
      * @return ExtensionManifest is a representation of required information
      * */
     static ExtensionManifest extractManifest(Path jarPath) throws IOException {
-        JarFile jarFile = new JarFile(jarPath.toFile());
-        Manifest manifest = jarFile.getManifest();
-        Attributes mainAttributes = manifest.getMainAttributes();
-        return ExtensionManifest.of(mainAttributes);
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            Manifest manifest = jarFile.getManifest();
+            if (isNull(manifest)) {
+                throw new IOException("There is no MANIFEST.MF file in jar: " + jarPath);
+            }
+            Attributes mainAttributes = manifest.getMainAttributes();
+            return ExtensionManifest.of(mainAttributes);
+        }
     }
 }
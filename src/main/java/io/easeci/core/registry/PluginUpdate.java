@@ -3,7 +3,16 @@ package io.easeci.core.registry;
 import io.easeci.core.registry.dto.PluginUpdateCheckResponse;
 import ratpack.exec.Promise;
 
+import java.util.Map;
+
 public interface PluginUpdate {
 
     Promise<PluginUpdateCheckResponse> checkForUpdate(String pluginName, String pluginVersion);
+
+    /**
+     * Check all plugins installed in EaseCI for updates at once.
+     * @return responses of registry keyed by 'name@version' of installed plugin,
+     *         plugins that registry cannot check are skipped
+     * */
+    Promise<Map<String, PluginUpdateCheckResponse>> checkForUpdates();
 }
@@ -0,0 +1,119 @@
+package io.easeci.core.registry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Cache of responses received from registry.
+ * Response is fresh for ttl time and is served from cache without asking registry.
+ * After that, for staleWhileRevalidate time, stale response is still served but one
+ * background request refreshes it. Older responses are fetched again before they are served.
+ * Concurrent calls for the same key, while response is not received yet, share one request.
+ * Failed requests are not cached, so next call asks registry again.
+ * */
+class RegistryCache<V> {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long staleWhileRevalidateMillis;
+    private final LongSupplier clock;
+
+    RegistryCache(long ttlMillis, long staleWhileRevalidateMillis) {
+        this(ttlMillis, staleWhileRevalidateMillis, System::currentTimeMillis);
+    }
+
+    RegistryCache(long ttlMillis, long staleWhileRevalidateMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key identifies response, for instance plugin's name and version
+     * @param loader sends request to registry when response for key is missing or expired
+     * @return future of response, cached or just requested
+     * */
+    CompletableFuture<V> get(String key, Function<String, CompletableFuture<V>> loader) {
+        final long now = clock.getAsLong();
+        while (true) {
+            Entry current = entries.get(key);
+            if (isNull(current) || current.isExpired(now)) {
+                Entry created = new Entry();
+                boolean owner = isNull(current) ? isNull(entries.putIfAbsent(key, created)) : entries.replace(key, current, created);
+                if (owner) {
+                    load(key, created, loader);
+                    return created.future.copy();
+                }
+                continue;
+            }
+            if (current.isStale(now) && current.refreshing.compareAndSet(false, true)) {
+                refresh(key, current, loader);
+            }
+            return current.future.copy();
+        }
+    }
+
+    void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void load(String key, Entry entry, Function<String, CompletableFuture<V>> loader) {
+        request(key, loader).whenComplete((value, throwable) -> {
+            if (isNull(throwable)) {
+                entry.loadedAt = clock.getAsLong();
+                entry.future.complete(value);
+            } else {
+                entries.remove(key, entry);
+                entry.future.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private void refresh(String key, Entry stale, Function<String, CompletableFuture<V>> loader) {
+        request(key, loader).whenComplete((value, throwable) -> {
+            if (isNull(throwable)) {
+                Entry fresh = new Entry();
+                fresh.loadedAt = clock.getAsLong();
+                fresh.future.complete(value);
+                entries.replace(key, stale, fresh);
+            } else {
+                stale.refreshing.set(false);
+            }
+        });
+    }
+
+    private CompletableFuture<V> request(String key, Function<String, CompletableFuture<V>> loader) {
+        try {
+            return loader.apply(key);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private class Entry {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile long loadedAt = -1;
+
+        boolean isLoaded() {
+            return loadedAt >= 0;
+        }
+
+        boolean isStale(long now) {
+            return isLoaded() && now - loadedAt >= ttlMillis;
+        }
+
+        boolean isExpired(long now) {
+            return isLoaded() && now - loadedAt >= ttlMillis + staleWhileRevalidateMillis;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package io.easeci.core.registry;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import io.easeci.commons.YamlUtils;
 import io.easeci.core.extension.ExtensionSystem;
+import io.easeci.core.extension.Plugin;
 import io.easeci.core.extension.PluginSystemCriticalException;
 import io.easeci.core.registry.dto.PluginDetailsResponse;
 import io.easeci.core.registry.dto.PluginUpdateCheckResponse;
@@ -12,19 +14,29 @@ import org.asynchttpclient.*;
 import ratpack.exec.Promise;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.PLUGIN_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 import static io.easeci.core.workspace.LocationUtils.getPluginsYmlLocation;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @AllArgsConstructor
 public class RegistryProxy implements PluginUpdate, PluginDetails {
+    private final static long DEFAULT_CACHE_TTL_SECONDS = 60,
+                              DEFAULT_CACHE_STALE_SECONDS = 300;
+    private final static int UPDATE_CHECK_BATCH_SIZE = 8;
     private ExtensionSystem extensionSystem;
     private AsyncHttpClient asyncHttpClient;
     private ObjectMapper objectMapper;
     private String registryUrl;
     private Boolean fetchDocumentation;
+    private RegistryCache<PluginUpdateCheckResponse> updateCache;
+    private RegistryCache<PluginDetailsResponse> detailsCache;
 
     public RegistryProxy() {
         this.asyncHttpClient = this.buildDefaultHttpClient();
@@ -36,6 +48,13 @@ public class RegistryProxy implements PluginUpdate, PluginDetails {
         if (isNull(fetchDocumentation))
             this.fetchDocumentation = false;
 
+        Integer ttlSeconds = (Integer) YamlUtils.ymlGet(yamlValues, "plugins.registry.cache-ttl-seconds").getValue();
+        Integer staleSeconds = (Integer) YamlUtils.ymlGet(yamlValues, "plugins.registry.cache-stale-seconds").getValue();
+        final long ttlMillis = TimeUnit.SECONDS.toMillis(nonNull(ttlSeconds) ? ttlSeconds : DEFAULT_CACHE_TTL_SECONDS);
+        final long staleMillis = TimeUnit.SECONDS.toMillis(nonNull(staleSeconds) ? staleSeconds : DEFAULT_CACHE_STALE_SECONDS);
+        this.updateCache = new RegistryCache<>(ttlMillis, staleMillis);
+        this.detailsCache = new RegistryCache<>(ttlMillis, staleMillis);
+
         this.extensionSystem = getExtensionSystem();
     }
 
@@ -50,43 +69,79 @@ public class RegistryProxy implements PluginUpdate, PluginDetails {
 
     @Override
     public Promise<PluginUpdateCheckResponse> checkForUpdate(String pluginName, String pluginVersion) {
-        return Promise.toPromise(asyncHttpClient.executeRequest(
-                new RequestBuilder()
-                        .setMethod("GET")
-                        .setUrl(this.registryUrl + "/api/v1/update/" + pluginName + "/" + pluginVersion)
-                        .build())
-                .toCompletableFuture())
-                .map(Response::getResponseBodyAsBytes)
-                .map(bytes -> objectMapper.readValue(bytes, PluginUpdateCheckResponse.class));
+        return Promise.toPromise(cachedUpdate(pluginName, pluginVersion));
+    }
+
+    @Override
+    public Promise<Map<String, PluginUpdateCheckResponse>> checkForUpdates() {
+        CompletableFuture<Map<String, PluginUpdateCheckResponse>> responses = CompletableFuture.completedFuture(new LinkedHashMap<>());
+        for (List<Plugin> batch : Lists.partition(extensionSystem.installed(), UPDATE_CHECK_BATCH_SIZE)) {
+            responses = responses.thenCompose(collected -> checkBatch(batch, collected));
+        }
+        return Promise.toPromise(responses);
+    }
+
+    private CompletableFuture<Map<String, PluginUpdateCheckResponse>> checkBatch(List<Plugin> batch, Map<String, PluginUpdateCheckResponse> collected) {
+        Map<String, CompletableFuture<PluginUpdateCheckResponse>> futures = new LinkedHashMap<>();
+        batch.forEach(plugin -> futures.put(key(plugin.getName(), plugin.getVersion()),
+                cachedUpdate(plugin.getName(), plugin.getVersion())
+                        .exceptionally(throwable -> {
+                            logit(PLUGIN_EVENT, "Cannot check update of plugin " + plugin.getName()
+                                    + " ver. " + plugin.getVersion() + ": " + throwable.getMessage(), THREE);
+                            return null;
+                        })));
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenApply(nothing -> {
+                    futures.forEach((key, future) -> {
+                        PluginUpdateCheckResponse response = future.join();
+                        if (nonNull(response)) {
+                            collected.put(key, response);
+                        }
+                    });
+                    return collected;
+                });
+    }
+
+    private CompletableFuture<PluginUpdateCheckResponse> cachedUpdate(String pluginName, String pluginVersion) {
+        return updateCache.get(key(pluginName, pluginVersion), key -> request(this.registryUrl + "/api/v1/update/" + pluginName + "/" + pluginVersion)
+                .thenApply(bytes -> read(bytes, PluginUpdateCheckResponse.class)));
     }
 
     @Override
     public Promise<ZippedPluginDetailsResponse> fetchDetails(String pluginName, String pluginVersion) {
-        return Promise.toPromise(asyncHttpClient.executeRequest(
+        return Promise.toPromise(detailsCache.get(key(pluginName, pluginVersion), key -> request(this.registryUrl + "/api/v1/details/" + pluginName + "/" + pluginVersion + "?documentation=" + fetchDocumentation)
+                .thenApply(bytes -> read(bytes, PluginDetailsResponse.class)))
+                .thenApply(pluginDetailsResponse -> ZippedPluginDetailsResponse.of(pluginDetailsResponse,
+                        extensionSystem.state(pluginName, pluginVersion).orElse(null))));
+    }
+
+    private CompletableFuture<byte[]> request(String url) {
+        return asyncHttpClient.executeRequest(
                 new RequestBuilder()
                         .setMethod("GET")
-                        .setUrl(this.registryUrl + "/api/v1/details/" + pluginName + "/" + pluginVersion + "?documentation=" + fetchDocumentation)
+                        .setUrl(url)
                         .build())
                 .toCompletableFuture()
-                .thenApply(Response::getResponseBodyAsBytes)
-                .thenApply(this::read)
-                .thenCombine(CompletableFuture.supplyAsync(() -> extensionSystem)
-                        .thenApply(es -> es.state().getPluginStates()
-                                .stream()
-                                .filter(pluginState -> pluginState.getPluginName().equals(pluginName)
-                                        && pluginState.getPluginVersion().equals(pluginVersion))
-                                .findAny()
-                                .orElse(null)), ZippedPluginDetailsResponse::of));
+                .thenApply(response -> {
+                    if (response.getStatusCode() != 200) {
+                        throw new IllegalStateException("Registry responded with status " + response.getStatusCode() + " for request: " + url);
+                    }
+                    return response.getResponseBodyAsBytes();
+                });
     }
 
-    private PluginDetailsResponse read(byte[] bytes) {
+    private <T> T read(byte[] bytes, Class<T> type) {
         try {
-            return objectMapper.readValue(bytes, PluginDetailsResponse.class);
+            return objectMapper.readValue(bytes, type);
         } catch (IOException e) {
             throw new RuntimeException("Some error occurred while receiving bytes from registry's response body");
         }
     }
 
+    private static String key(String pluginName, String pluginVersion) {
+        return pluginName + '@' + pluginVersion;
+    }
+
     private AsyncHttpClient buildDefaultHttpClient() {
         DefaultAsyncHttpClientConfig.Builder clientBuilder = Dsl.config()
                 .setHandshakeTimeout(1000)
@@ -10,4 +10,5 @@ public class PluginVersionResponse {
     private Boolean validated;
     private String releaseDate;
     private String documentationUrl;
+    private String checksumSha256;
 }
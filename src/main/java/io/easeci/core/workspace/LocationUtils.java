@@ -48,6 +48,15 @@ public class LocationUtils {
         return result;
     }
 
+    public static String retrieveFromGeneral(String refs, String defaultValue) {
+        try {
+            String result = (String) ymlGet(getGeneralYmlLocation(), refs).getValue();
+            return result == null ? defaultValue : result;
+        } catch (RuntimeException e) {
+            return defaultValue;
+        }
+    }
+
     public static Integer retrieveFromGeneralInt(String refs) throws Throwable {
         Integer result = (Integer) ymlGet(getGeneralYmlLocation(), refs).getValue();
         if (result == null) {
@@ -56,6 +65,15 @@ public class LocationUtils {
         return result;
     }
 
+    public static Integer retrieveFromGeneralInt(String refs, Integer defaultValue) {
+        try {
+            Integer result = (Integer) ymlGet(getGeneralYmlLocation(), refs).getValue();
+            return result == null ? defaultValue : result;
+        } catch (RuntimeException e) {
+            return defaultValue;
+        }
+    }
+
     public static Path getPluginsYmlLocation() {
         return Paths.get(getWorkspaceLocation()
                 .concat("/plugins.yml"));
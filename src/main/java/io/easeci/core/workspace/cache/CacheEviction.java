@@ -0,0 +1,40 @@
+package io.easeci.core.workspace.cache;
+
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Interface that exposing methods for keeping
+ * size of .cache/ in workspace in configured budget.
+ * Cache entries are files and directories placed directly in cache areas,
+ * for instance one mirror of git repository in .cache/git-mirrors/
+ * or one Easefile in .cache/easefiles-blobs/.
+ * */
+public interface CacheEviction {
+
+    /**
+     * Mark cache entry as just used, so it is evicted as late as possible.
+     * @param entry is a path of cache entry
+     * */
+    void touch(Path entry);
+
+    /**
+     * Lock of cache entry. Entry is never evicted while its lock is held,
+     * so it should be held for whole time the entry is read or modified.
+     * @param entry is a path of cache entry
+     * @return lock, the same for every call with the same entry
+     * */
+    Lock entryLock(Path entry);
+
+    /**
+     * @return size in bytes of all files placed in .cache/ in workspace
+     * */
+    long size();
+
+    /**
+     * Removes least recently used cache entries until size of cache fits in budget.
+     * Locked entries and Easefiles still referenced by any source are skipped.
+     * @return long value that inform us about deleted resources size in bytes
+     * */
+    long evict();
+}
@@ -1,27 +1,70 @@
 package io.easeci.core.workspace.cache;
 
 import io.easeci.commons.DirUtils;
+import lombok.AllArgsConstructor;
 import org.apache.commons.io.FileUtils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Date;
-import java.util.Objects;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
 import static io.easeci.core.workspace.LocationUtils.*;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
-public class CacheManager implements CacheGarbageCollector, CacheTemp {
+/**
+ * Manages .cache/ directory in workspace.
+ * Size of cache is kept in budget configured in 'cache.max-size-mb' in general.yml.
+ * Entries of cache are evicted in background, least recently used first.
+ * Time of last access is tracked in memory, and for entries not used
+ * since application started it is taken from modification time of entry.
+ * Entries used recently or locked by its user are never evicted, so resources just in use are not removed.
+ * Easefiles are evicted only through EasefileBlobStore and only when no source references them.
+ * Temporary files are not evicted, but removed when released, at exit of application
+ * or, when left by application stopped abnormally, at next start.
+ * */
+public class CacheManager implements CacheGarbageCollector, CacheTemp, CacheEviction {
     public final static String CACHE_DIRECTORY = "/.cache/";
     public final static String CACHE_TMP_DIRECTORY = "/.cache/temp/";
+    private final static String TEMP_AREA = "temp";
+    private final static int DEFAULT_MAX_SIZE_MB = 1024,
+                             DEFAULT_EVICTION_INTERVAL_SECONDS = 60;
+    private final static String TEMP_FILE_PREFIX = "tmp-",
+                                TEMP_FILE_SUFFIX = ".tmp";
+    private final static long EVICTION_GRACE_MILLIS = 60_000,
+                              STALE_TEMP_FILE_MILLIS = 60 * 60 * 1000;
     private static CacheManager cacheManager;
 
+    private final Map<Path, Long> accessTimes = new ConcurrentHashMap<>();
+    private final Map<Path, Lock> entryLocks = new ConcurrentHashMap<>();
+    private final Set<Path> temporaryFiles = ConcurrentHashMap.newKeySet();
+    private final long maxSize;
+    private ScheduledExecutorService evictionExecutor;
+
     private CacheManager() {
         this.initializeDirectory();
+        this.maxSize = retrieveFromGeneralInt("cache.max-size-mb", DEFAULT_MAX_SIZE_MB) * 1024L * 1024L;
+        this.removeStaleTemporaryFiles();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::releaseAll, "workspace-temp-cleaner"));
     }
 
     public static CacheManager getInstance() {
@@ -44,6 +87,125 @@ public class CacheManager implements CacheGarbageCollector, CacheTemp {
         return Path.of(cacheDirLocation);
     }
 
+    /**
+     * Start evicting least recently used entries in background,
+     * every 'cache.eviction-interval-seconds' configured in general.yml.
+     * */
+    public synchronized void startEviction() {
+        if (nonNull(evictionExecutor)) {
+            return;
+        }
+        final int interval = retrieveFromGeneralInt("cache.eviction-interval-seconds", DEFAULT_EVICTION_INTERVAL_SECONDS);
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workspace-cache-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictionExecutor.scheduleWithFixedDelay(this::evict, interval, interval, TimeUnit.SECONDS);
+        logit(WORKSPACE_EVENT, "Cache eviction started, budget of cache is " + maxSize + " bytes", THREE);
+    }
+
+    @Override
+    public void touch(Path entry) {
+        accessTimes.put(entry.toAbsolutePath().normalize(), System.currentTimeMillis());
+    }
+
+    @Override
+    public Lock entryLock(Path entry) {
+        return entryLocks.computeIfAbsent(entry.toAbsolutePath().normalize(), key -> new ReentrantLock());
+    }
+
+    @Override
+    public long size() {
+        return byteSize(getCacheDirectoryLocation());
+    }
+
+    @Override
+    public long evict() {
+        return evict(maxSize, EVICTION_GRACE_MILLIS);
+    }
+
+    synchronized long evict(long budget, long graceMillis) {
+        long cacheSize = size();
+        if (cacheSize <= budget) {
+            return 0;
+        }
+        final long now = System.currentTimeMillis();
+        final EasefileBlobStore easefileBlobStore = EasefileBlobStore.getInstance();
+        List<CacheEntry> entries = entries(easefileBlobStore);
+        entries.sort(Comparator.comparingLong(entry -> entry.lastAccess));
+        long bytesFreed = 0;
+        int evicted = 0;
+        for (CacheEntry entry : entries) {
+            if (cacheSize - bytesFreed <= budget || now - entry.lastAccess < graceMillis) {
+                break;
+            }
+            long entryBytesFreed = entry.blob
+                    ? easefileBlobStore.evictUnreferenced(entry.path)
+                    : removeUnlocked(entry.path);
+            if (entryBytesFreed > 0) {
+                accessTimes.remove(entry.path);
+                bytesFreed += entryBytesFreed;
+                evicted++;
+            }
+        }
+        logit(WORKSPACE_EVENT, evicted + " least recently used cache entries evicted, " + bytesFreed + " bytes freed", THREE);
+        return bytesFreed;
+    }
+
+    private long removeUnlocked(Path resource) {
+        final Lock lock = entryLock(resource);
+        if (!lock.tryLock()) {
+            logit(WORKSPACE_EVENT, "Cache entry is just in use and cannot be evicted: " + resource, THREE);
+            return 0;
+        }
+        try {
+            return removeResource(resource);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<CacheEntry> entries(EasefileBlobStore easefileBlobStore) {
+        final Path blobsRoot = easefileBlobStore.root().toAbsolutePath().normalize();
+        final List<CacheEntry> entries = new ArrayList<>();
+        for (Path area : list(getCacheDirectoryLocation())) {
+            if (!Files.isDirectory(area) || area.getFileName().toString().equals(TEMP_AREA)) {
+                continue;
+            }
+            if (area.equals(blobsRoot)) {
+                list(area).stream()
+                        .filter(Files::isDirectory)
+                        .flatMap(shard -> list(shard).stream())
+                        .forEach(blob -> entries.add(entry(blob, true)));
+            } else {
+                list(area).forEach(resource -> entries.add(entry(resource, false)));
+            }
+        }
+        return entries;
+    }
+
+    private CacheEntry entry(Path path, boolean blob) {
+        Long lastAccess = accessTimes.get(path);
+        if (isNull(lastAccess)) {
+            try {
+                lastAccess = Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException e) {
+                lastAccess = 0L;
+            }
+        }
+        return new CacheEntry(path, lastAccess, blob);
+    }
+
+    private static List<Path> list(Path directory) {
+        try (Stream<Path> resources = Files.list(directory)) {
+            return resources.map(resource -> resource.toAbsolutePath().normalize()).collect(Collectors.toList());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public long cleanup(Path concretePath) {
         logit(WORKSPACE_EVENT, "Cleaning up Easeci cache in path: " + concretePath, THREE);
@@ -59,19 +221,25 @@ public class CacheManager implements CacheGarbageCollector, CacheTemp {
 
     @Override
     public Path save(byte[] value) {
-        final String fileName = "tmp-".concat(String.valueOf(Objects.hashCode(new Date())));
-        Path filePath = Path.of(fileName);
+        final Path temporaryDirectory = getCacheDirectoryLocation().resolve(TEMP_AREA);
+        Path filePath = null;
         try {
-            Files.createFile(filePath);
-            Files.write(filePath, value);
+            Files.createDirectories(temporaryDirectory);
+            filePath = Files.createTempFile(temporaryDirectory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+            temporaryFiles.add(filePath);
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(value);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
         } catch (IOException e) {
             e.printStackTrace();
-            if (Files.exists(filePath)) {
-                return filePath;
-            } else {
-                logit(WORKSPACE_EVENT, "Could not created file and save content to this: " + filePath, THREE);
-                throw new IllegalStateException("Could not created file and save content to this: " + filePath);
+            if (nonNull(filePath)) {
+                release(filePath);
             }
+            logit(WORKSPACE_EVENT, "Could not created file and save content to this: " + temporaryDirectory, THREE);
+            throw new IllegalStateException("Could not created file and save content to this: " + temporaryDirectory);
         }
         logit(WORKSPACE_EVENT, "Saved temporary file here: " + filePath, THREE);
         return filePath;
@@ -79,7 +247,44 @@ public class CacheManager implements CacheGarbageCollector, CacheTemp {
 
     @Override
     public Path save(String value) {
-        return save(value.getBytes());
+        return save(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public TemporaryFile saveTemporary(byte[] value) {
+        return new TemporaryFile(save(value), this);
+    }
+
+    @Override
+    public void release(Path temporaryFile) {
+        temporaryFiles.remove(temporaryFile);
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Could not remove temporary file: " + temporaryFile, THREE);
+        }
+    }
+
+    private void releaseAll() {
+        new ArrayList<>(temporaryFiles).forEach(this::release);
+    }
+
+    private void removeStaleTemporaryFiles() {
+        final Path temporaryDirectory = getCacheDirectoryLocation().resolve(TEMP_AREA);
+        if (!Files.isDirectory(temporaryDirectory)) {
+            return;
+        }
+        final long staleBefore = System.currentTimeMillis() - STALE_TEMP_FILE_MILLIS;
+        for (Path resource : list(temporaryDirectory)) {
+            try {
+                if (Files.getLastModifiedTime(resource).toMillis() < staleBefore) {
+                    removeResource(resource);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     private long clean(Path cacheDirectoryLocation) {
@@ -88,12 +293,19 @@ public class CacheManager implements CacheGarbageCollector, CacheTemp {
             return 0;
         }
         try {
-            long totalByteSize = Files.list(cacheDirectoryLocation)
-                    .map(this::removeResource)
-                    .reduce(Long::sum)
-                    .orElse(0L);
-            logit(WORKSPACE_EVENT, totalByteSize + " bytes of cache resource freed", THREE);
-            return totalByteSize;
+            final EasefileBlobStore easefileBlobStore = EasefileBlobStore.getInstance();
+            if (cacheDirectoryLocation.startsWith(easefileBlobStore.root())) {
+                return logFreed(easefileBlobStore.evictUnreferenced());
+            }
+            try (Stream<Path> resources = Files.list(cacheDirectoryLocation)) {
+                long totalByteSize = resources
+                        .map(resource -> resource.equals(easefileBlobStore.root())
+                                ? easefileBlobStore.evictUnreferenced()
+                                : removeResource(resource))
+                        .reduce(Long::sum)
+                        .orElse(0L);
+                return logFreed(totalByteSize);
+            }
         } catch (IOException e) {
             e.printStackTrace();
             logit(WORKSPACE_EVENT, 0 + " bytes of cache resource freed. Removing cache ends with exception", THREE);
@@ -101,7 +313,14 @@ public class CacheManager implements CacheGarbageCollector, CacheTemp {
         }
     }
 
+    private long logFreed(long totalByteSize) {
+        logit(WORKSPACE_EVENT, totalByteSize + " bytes of cache resource freed", THREE);
+        return totalByteSize;
+    }
+
     private long removeResource(Path resource) {
+        final Path removed = resource.toAbsolutePath().normalize();
+        accessTimes.keySet().removeIf(entry -> entry.startsWith(removed));
         long byteSize = byteSize(resource);
         if (Files.isDirectory(resource)) {
             try {
@@ -122,17 +341,38 @@ public class CacheManager implements CacheGarbageCollector, CacheTemp {
         }
     }
 
+    @AllArgsConstructor
+    private static class CacheEntry {
+        private final Path path;
+        private final long lastAccess;
+        private final boolean blob;
+    }
+
     private boolean hasAccessRight(Path path) {
         String cacheLocation = String.valueOf(getCacheDirectoryLocation());
         return path.toString().startsWith(cacheLocation) || path.toString().equals(cacheLocation);
     }
 
     private long byteSize(Path path) {
+        final long[] byteSize = {0};
         try {
-            return Files.size(path);
+            Files.walkFileTree(path, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        byteSize[0] += attrs.size();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         } catch (IOException e) {
             e.printStackTrace();
-            return 0;
         }
+        return byteSize[0];
     }
 }
@@ -3,8 +3,10 @@ package io.easeci.core.workspace.cache;
 import java.nio.file.Path;
 
 /**
- * Interface that exposing one method for save
- * temporary file in hard coded location
+ * Interface that exposing methods for save
+ * temporary file in .cache/temp/ in workspace.
+ * Each temporary file has unique name, and it is removed
+ * when released or at the latest when application stops.
  * @author Karol Meksuła
  * 2020-11-07
  * */
@@ -23,4 +25,17 @@ public interface CacheTemp {
      * @return path that points to temporary file where content is written
      * */
     Path save(String value);
+
+    /**
+     * Save content in temporary file removed when closed.
+     * @param value bytes value to save in file
+     * @return TemporaryFile to use in try-with-resources block
+     * */
+    TemporaryFile saveTemporary(byte[] value);
+
+    /**
+     * Remove temporary file that is not needed any more.
+     * @param temporaryFile is a path returned by save method
+     * */
+    void release(Path temporaryFile);
 }
@@ -0,0 +1,269 @@
+package io.easeci.core.workspace.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static io.easeci.core.workspace.LocationUtils.getCacheDirectoryLocation;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Content-addressed store of Easefiles placed in .cache/easefiles-blobs directory.
+ * Each Easefile is stored once in file named by SHA-256 of its content,
+ * in directory sharded by two first characters of this hash.
+ * Sources of Easefiles (workspace path, remote repository etc.) point to one blob
+ * and each such pointer is counted as a reference of blob.
+ * Blobs not referenced by any source could be safely evicted by CacheGarbageCollector,
+ * and least recently used of them are evicted by CacheEviction when cache exceeds its budget.
+ * Sources are saved in {@value SOURCES_INDEX} file in store's directory on each change,
+ * and references are counted again from this file when store is created,
+ * so blobs in use are not evicted after restart of application.
+ * */
+public class EasefileBlobStore {
+    public final static String BLOBS_DIRECTORY = "easefiles-blobs";
+    final static String SOURCES_INDEX = "sources-index.json";
+    private final static String TEMP_FILE_PREFIX = "tmp-";
+    private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static EasefileBlobStore easefileBlobStore;
+
+    private final Path root;
+    private final Path sourcesIndex;
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+    private final Map<String, Integer> references = new ConcurrentHashMap<>();
+
+    EasefileBlobStore(Path root) {
+        this.root = root;
+        this.sourcesIndex = root.resolve(SOURCES_INDEX);
+        loadSources();
+    }
+
+    public static synchronized EasefileBlobStore getInstance() {
+        if (isNull(easefileBlobStore)) {
+            easefileBlobStore = new EasefileBlobStore(getCacheDirectoryLocation().resolve(BLOBS_DIRECTORY));
+        }
+        return easefileBlobStore;
+    }
+
+    public String put(String sourceKey, byte[] content) throws IOException {
+        return put(sourceKey, new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Save content in store if there is not such content yet.
+     * @param sourceKey is an identifier of place where content comes from,
+     *                  for instance path in workspace or url of git repository.
+     *                  Source points always to last content saved for it.
+     *                  If null, content is stored but not referenced by anything.
+     * @param content is a stream of Easefile's content. Stream is not closed here
+     * @return SHA-256 hash of content that is an address of blob in store
+     * @throws IOException when content could not be saved in store
+     * */
+    public String put(String sourceKey, InputStream content) throws IOException {
+        Files.createDirectories(root);
+        final Path tempFile = root.resolve(TEMP_FILE_PREFIX + UUID.randomUUID());
+        final String hash;
+        try {
+            MessageDigest messageDigest = sha256();
+            Files.copy(new DigestInputStream(content, messageDigest), tempFile);
+            hash = toHex(messageDigest.digest());
+            synchronized (this) {
+                Path blob = blobPath(hash);
+                if (Files.exists(blob)) {
+                    Files.delete(tempFile);
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE);
+                    logit(WORKSPACE_EVENT, "Easefile stored in content-addressed store here: " + blob, THREE);
+                }
+                if (nonNull(sourceKey)) {
+                    point(sourceKey, hash);
+                }
+                CacheManager.getInstance().touch(blob);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return hash;
+    }
+
+    public Optional<Path> locate(String hash) {
+        Path blob = blobPath(hash);
+        if (!Files.exists(blob)) {
+            return Optional.empty();
+        }
+        CacheManager.getInstance().touch(blob);
+        return Optional.of(blob);
+    }
+
+    public Optional<String> read(String hash) throws IOException {
+        Optional<Path> blob = locate(hash);
+        if (blob.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.readString(blob.get(), StandardCharsets.UTF_8));
+    }
+
+    public Optional<String> hashOf(String sourceKey) {
+        return Optional.ofNullable(sources.get(sourceKey));
+    }
+
+    public int references(String hash) {
+        return references.getOrDefault(hash, 0);
+    }
+
+    /**
+     * Source stops pointing to its blob, so blob could be evicted
+     * when there is no other source pointing to it.
+     * @param sourceKey is an identifier of place where content comes from
+     * */
+    public synchronized void release(String sourceKey) {
+        String hash = sources.remove(sourceKey);
+        if (nonNull(hash)) {
+            references.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+            saveSources();
+        }
+    }
+
+    /**
+     * Removes all blobs that are not referenced by any source.
+     * @return long value that inform us about deleted resources size in bytes
+     * */
+    public synchronized long evictUnreferenced() {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        List<Path> blobs;
+        try (Stream<Path> shards = Files.list(root)) {
+            blobs = shards.filter(Files::isDirectory)
+                    .flatMap(EasefileBlobStore::listQuietly)
+                    .filter(blob -> references(blob.getFileName().toString()) == 0)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+        long bytesFreed = 0;
+        for (Path blob : blobs) {
+            bytesFreed += evictUnreferenced(blob);
+        }
+        logit(WORKSPACE_EVENT, blobs.size() + " unreferenced Easefiles evicted from content-addressed store", THREE);
+        return bytesFreed;
+    }
+
+    /**
+     * Removes one blob, but only when it is not referenced by any source.
+     * Blob is checked and removed while store is locked, so it cannot be pointed in the meantime.
+     * @param blob is a path of blob in store
+     * @return long value that inform us about deleted resource size in bytes
+     * */
+    synchronized long evictUnreferenced(Path blob) {
+        if (references(blob.getFileName().toString()) > 0) {
+            return 0;
+        }
+        try {
+            long size = Files.size(blob);
+            Files.delete(blob);
+            return size;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    Path root() {
+        return root;
+    }
+
+    private void point(String sourceKey, String hash) {
+        String previousHash = sources.put(sourceKey, hash);
+        if (hash.equals(previousHash)) {
+            return;
+        }
+        references.merge(hash, 1, Integer::sum);
+        if (nonNull(previousHash)) {
+            references.computeIfPresent(previousHash, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        saveSources();
+    }
+
+    private void loadSources() {
+        if (!Files.exists(sourcesIndex)) {
+            return;
+        }
+        try {
+            Map<String, String> saved = OBJECT_MAPPER.readValue(sourcesIndex.toFile(), new TypeReference<Map<String, String>>() {});
+            saved.forEach((sourceKey, hash) -> {
+                sources.put(sourceKey, hash);
+                references.merge(hash, 1, Integer::sum);
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Cannot read references of Easefiles in content-addressed store from: " + sourcesIndex, THREE);
+        }
+    }
+
+    /**
+     * Written to temporary file first and atomically moved, so index is never left half written.
+     * Called only while store is locked.
+     * */
+    private void saveSources() {
+        final Path tempFile = root.resolve(TEMP_FILE_PREFIX + UUID.randomUUID());
+        try {
+            Files.createDirectories(root);
+            OBJECT_MAPPER.writeValue(tempFile.toFile(), new HashMap<>(sources));
+            Files.move(tempFile, sourcesIndex, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Cannot save references of Easefiles in content-addressed store to: " + sourcesIndex, THREE);
+            FileUtils.deleteQuietly(tempFile.toFile());
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static Stream<Path> listQuietly(Path shard) {
+        try (Stream<Path> files = Files.list(shard)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList()).stream();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Stream.empty();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 algorithm is not available in this JVM", exception);
+        }
+    }
+
+    private static String toHex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package io.easeci.core.workspace.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Temporary file placed in .cache/temp/ in workspace.
+ * File is removed when closed, so use it in try-with-resources block.
+ * */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class TemporaryFile implements Closeable {
+    @Getter
+    private final Path path;
+    private final CacheTemp cacheTemp;
+
+    @Override
+    public void close() {
+        cacheTemp.release(path);
+    }
+}
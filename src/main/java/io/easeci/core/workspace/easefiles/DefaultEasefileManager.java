@@ -1,29 +1,101 @@
 package io.easeci.core.workspace.easefiles;
 
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Striped;
 import io.easeci.commons.FileUtils;
+import io.easeci.core.engine.easefile.loader.LiveLoader;
+import io.easeci.core.workspace.easefiles.archive.EasefileArchiver;
+import io.easeci.core.workspace.easefiles.filetree.DirectoryListingCache;
 import io.easeci.core.workspace.easefiles.filetree.FileTree;
+import io.easeci.core.workspace.easefiles.filetree.FileTreeEntry;
+import io.easeci.core.workspace.easefiles.filetree.FileTreeIterator;
 import io.easeci.core.workspace.easefiles.filetree.FileTreeWalker;
+import io.easeci.core.workspace.easefiles.filetree.ParallelFileTreeWalker;
+import io.easeci.core.workspace.easefiles.filetree.WorkspaceTreeIndex;
+import io.easeci.core.workspace.easefiles.search.EasefileSearchIndex;
+import io.easeci.core.workspace.projects.ProjectManager;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import io.vavr.Tuple3;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static io.easeci.core.workspace.LocationUtils.getCacheDirectoryLocation;
 import static io.easeci.core.workspace.LocationUtils.getEasefilesStorageLocation;
 import static io.easeci.core.workspace.LocationUtils.getEasefilesStorageLocationNoSlashAtEnd;
+import static io.easeci.core.workspace.LocationUtils.retrieveFromGeneral;
+import static io.easeci.core.workspace.LocationUtils.getProjectsStructureFileLocation;
+import static io.easeci.core.workspace.LocationUtils.retrieveFromGeneralInt;
 import static io.easeci.core.workspace.easefiles.EasefileStatus.*;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 public class DefaultEasefileManager extends EasefileManager {
+    private final static String SCAN_MODE_INDEX = "index",
+                                 SCAN_MODE_PARALLEL = "parallel",
+                                 SCAN_MODE_SEQUENTIAL = "sequential";
+    private final static int DEFAULT_PARALLELISM = 4,
+                             DEFAULT_MAX_DEPTH = 64,
+                             DEFAULT_LISTING_CACHE_SIZE = 1024,
+                             WRITE_LOCK_STRIPES = 64;
+    private final static String TEMP_DIRECTORY = "temp";
     private static DefaultEasefileManager easefileManager;
+    private WorkspaceTreeIndex workspaceTreeIndex;
+    private ForkJoinPool scanPool;
+    private int scanMaxDepth;
+    private final DirectoryListingCache directoryListingCache;
+    private EasefileSearchIndex searchIndex;
+    private final EasefileArchiver easefileArchiver;
+    private final Striped<Lock> writeLocks = Striped.lazyWeakLock(WRITE_LOCK_STRIPES);
 
-    private DefaultEasefileManager() {}
+    private DefaultEasefileManager() {
+        Path easefilesStorageLocation = Paths.get(getEasefilesStorageLocation());
+        this.easefileArchiver = new EasefileArchiver(easefilesStorageLocation, getProjectsStructureFileLocation(),
+                getCacheDirectoryLocation().resolve(TEMP_DIRECTORY), LiveLoader.maxEasefileSize());
+        this.directoryListingCache = new DirectoryListingCache(retrieveFromGeneralInt("workspace.scan.listing-cache-size", DEFAULT_LISTING_CACHE_SIZE));
+        try {
+            this.searchIndex = EasefileSearchIndex.build(easefilesStorageLocation, getCacheDirectoryLocation().resolve(EasefileSearchIndex.INDEX_FILE));
+            this.searchIndex.attachMetadata(() -> ProjectManager.getInstance().pipelinePointers(), getProjectsStructureFileLocation());
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Cannot build search index of Easefiles, searching is not available");
+        }
+        String scanMode = retrieveFromGeneral("workspace.scan.mode", SCAN_MODE_INDEX);
+        if (SCAN_MODE_PARALLEL.equals(scanMode)) {
+            this.scanPool = new ForkJoinPool(retrieveFromGeneralInt("workspace.scan.parallelism", DEFAULT_PARALLELISM));
+            this.scanMaxDepth = retrieveFromGeneralInt("workspace.scan.max-depth", DEFAULT_MAX_DEPTH);
+            return;
+        }
+        if (SCAN_MODE_SEQUENTIAL.equals(scanMode)) {
+            return;
+        }
+        if (!SCAN_MODE_INDEX.equals(scanMode)) {
+            logit(WORKSPACE_EVENT, "Unknown value of 'workspace.scan.mode' in general.yml: '" + scanMode
+                    + "', expected one of: " + SCAN_MODE_INDEX + ", " + SCAN_MODE_PARALLEL + ", " + SCAN_MODE_SEQUENTIAL
+                    + ". Scanning falls back to walking directory sequentially");
+            return;
+        }
+        try {
+            this.workspaceTreeIndex = WorkspaceTreeIndex.build(easefilesStorageLocation);
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Cannot build index of Easefiles workspace, scanning falls back to walking directory: " + easefilesStorageLocation);
+        }
+    }
 
     public static DefaultEasefileManager getInstance() {
         if (isNull(DefaultEasefileManager.easefileManager)) {
@@ -34,10 +106,15 @@ public class DefaultEasefileManager extends EasefileManager {
 
     @Override
     public FileTree scan() {
+        if (nonNull(workspaceTreeIndex)) {
+            return workspaceTreeIndex.dumpAll();
+        }
         Path easefilesStorageLocation = Paths.get(getEasefilesStorageLocation());
-        FileTreeWalker fileTreeWalker = new FileTreeWalker(easefilesStorageLocation);
         try {
-            return fileTreeWalker.dumpAll();
+            if (nonNull(scanPool)) {
+                return new ParallelFileTreeWalker(easefilesStorageLocation, scanPool, scanMaxDepth).dumpAll();
+            }
+            return new FileTreeWalker(easefilesStorageLocation).dumpAll();
         } catch (IOException e) {
             e.printStackTrace();
             logit(WORKSPACE_EVENT, "Exception occurred while trying to scan and walkthrough directory: " + easefilesStorageLocation.toString());
@@ -47,26 +124,80 @@ public class DefaultEasefileManager extends EasefileManager {
 
     @Override
     public FileTree scan(Path path) {
-        String easefilesStorageLocation = getEasefilesStorageLocationNoSlashAtEnd();
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             logit(WORKSPACE_EVENT, "Forbidden to scan file tree for path "
                                  + path.toString() + ". Enable scan paths starts with: "
-                                 + easefilesStorageLocation);
+                                 + getEasefilesStorageLocationNoSlashAtEnd());
             return FileTree.empty(path);
-        } else {
-            FileTreeWalker fileTreeWalker = new FileTreeWalker(Paths.get(easefilesStorageLocation));
-            try {
-                return fileTreeWalker.dumpOne();
-            } catch (IOException e) {
-                e.printStackTrace();
-                logit(WORKSPACE_EVENT, "Exception occurred while trying to scan and walkthrough directory: " + easefilesStorageLocation);
-                return FileTree.empty(path);
+        }
+        if (nonNull(workspaceTreeIndex)) {
+            Optional<FileTree> fileTree = workspaceTreeIndex.dumpOne(path);
+            if (fileTree.isPresent()) {
+                return fileTree.get();
             }
         }
+        try {
+            return directoryListingCache.dumpOne(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Exception occurred while trying to scan and walkthrough directory: " + path);
+            return FileTree.empty(path);
+        }
+    }
+
+    @Override
+    public Iterator<FileTreeEntry> scan(Path path, int depth, Path cursor) {
+        path = normalized(path);
+        if (!hasAccessRight(path)) {
+            logit(WORKSPACE_EVENT, "Forbidden to scan file tree for path "
+                                 + path.toString() + ". Enable scan paths starts with: "
+                                 + getEasefilesStorageLocationNoSlashAtEnd());
+            return Collections.emptyIterator();
+        }
+        if (nonNull(workspaceTreeIndex)) {
+            return FileTreeIterator.of(workspaceTreeIndex, path, depth, cursor);
+        }
+        return FileTreeIterator.ofFilesystem(path, depth, cursor);
+    }
+
+    @Override
+    public List<Path> search(String query, int limit) {
+        if (isNull(searchIndex)) {
+            logit(WORKSPACE_EVENT, "Search index of Easefiles is not available, nothing found for query: " + query);
+            return Collections.emptyList();
+        }
+        return searchIndex.search(query, limit);
+    }
+
+    @Override
+    public Path exportArchive(Path path, boolean withProjects) throws IOException {
+        path = normalized(path);
+        if (!hasAccessRight(path) || !Files.isDirectory(path)) {
+            throw new IllegalArgumentException("Directory not exist or you has no access rights: " + path);
+        }
+        return easefileArchiver.export(path, withProjects);
+    }
+
+    @Override
+    public List<Path> importArchive(InputStream archive, boolean withProjects) throws IOException {
+        List<Path> imported = easefileArchiver.importArchive(archive, withProjects);
+        for (Path path : imported) {
+            if (path.equals(getProjectsStructureFileLocation())) {
+                ProjectManager.getInstance().reload();
+                continue;
+            }
+            indexCreated(path);
+            if (Files.isRegularFile(path)) {
+                indexContent(path, Files.readString(path, StandardCharsets.UTF_8));
+            }
+        }
+        return imported;
     }
 
     @Override
     public EasefileOut load(Path path) {
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             return EasefileOut.of(EDIT_FAILED, null, "Access denied");
         }
@@ -78,11 +209,12 @@ public class DefaultEasefileManager extends EasefileManager {
         } else {
             errorMessage = "Cannot load file, content is empty";
         }
-        return EasefileOut.of(status, content, errorMessage);
+        return EasefileOut.of(status, content, errorMessage, path, etagOf(content.getBytes(StandardCharsets.UTF_8)));
     }
 
     @Override
     public EasefileOut save(Path path, String easefileAsString) {
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             return EasefileOut.of(EDIT_FAILED, null, "Access denied");
         }
@@ -91,43 +223,68 @@ public class DefaultEasefileManager extends EasefileManager {
         } else {
             try {
                 isExistCheck(path);
-                Path savedPath = FileUtils.fileSave(path.toString(), easefileAsString, false);
-                if (nonNull(savedPath)) {
-                    EasefileStatus status = Files.exists(savedPath) ? SAVED_CORRECTLY : SAVE_FAILED;
-                    return EasefileOut.of(status, null, null, savedPath);
-                } else {
-                    return EasefileOut.of(SAVE_FAILED, null, "File was not saved");
-                }
-            } catch (IllegalStateException e) {
+                byte[] content = easefileAsString.getBytes(StandardCharsets.UTF_8);
+                Path savedPath = FileUtils.fileWriteAtomically(path, content, false);
+                indexCreated(savedPath);
+                indexContent(savedPath, easefileAsString);
+                return EasefileOut.of(SAVED_CORRECTLY, null, null, savedPath, etagOf(content));
+            } catch (IllegalStateException | FileAlreadyExistsException e) {
                 return EasefileOut.of(EasefileStatus.JUST_EXISTS, null, "File just exists: " + path.toString());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return EasefileOut.of(SAVE_FAILED, null, "File was not saved");
             }
         }
     }
 
     @Override
     public EasefileOut update(Path path, String easefileNewContent) {
+        return update(path, easefileNewContent, null);
+    }
+
+    @Override
+    public EasefileOut update(Path path, String easefileNewContent, String expectedEtag) {
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             return EasefileOut.of(EDIT_FAILED, null, "Access denied");
         }
         if (!Files.exists(path)) {
             return EasefileOut.of(EDIT_FAILED, null, "Requested file path not exists, cannot edit");
-        } else {
-            Path editedPath = FileUtils.fileChange(path.toString(), easefileNewContent);
-            if (nonNull(editedPath) && editedPath.equals(path)) {
-                EasefileStatus status = Files.exists(editedPath) ? EDITED_CORRECTLY : EDIT_FAILED;
-                return EasefileOut.of(status, null, null, editedPath);
-            } else {
-                return EasefileOut.of(EDIT_FAILED, null, "File was not edited");
+        }
+        Lock writeLock = writeLocks.get(path);
+        writeLock.lock();
+        try {
+            if (nonNull(expectedEtag)) {
+                String currentEtag = etagOf(Files.readAllBytes(path));
+                if (!currentEtag.equals(expectedEtag)) {
+                    logit(WORKSPACE_EVENT, "Easefile was changed concurrently, update rejected for path: " + path);
+                    return EasefileOut.of(VERSION_CONFLICT, null, "Easefile was changed in the meantime. Load it again and repeat your changes", path, currentEtag);
+                }
             }
+            byte[] content = easefileNewContent.getBytes(StandardCharsets.UTF_8);
+            Path editedPath = FileUtils.fileWriteAtomically(path, content, true);
+            indexCreated(editedPath);
+            indexContent(editedPath, easefileNewContent);
+            return EasefileOut.of(EDITED_CORRECTLY, null, null, editedPath, etagOf(content));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return EasefileOut.of(EDIT_FAILED, null, "File was not edited");
+        } finally {
+            writeLock.unlock();
         }
     }
 
     @Override
     public boolean delete(Path path) {
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             return false;
         }
-        return FileUtils.fileDelete(path.toString());
+        boolean isDeleted = FileUtils.fileDelete(path.toString());
+        if (isDeleted) {
+            indexDeleted(path);
+        }
+        return isDeleted;
     }
 
     private void isExistCheck(Path path) {
@@ -140,6 +297,7 @@ public class DefaultEasefileManager extends EasefileManager {
 
     @Override
     public Tuple3<Path, Boolean, String> createDirectory(Path path) {
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             return Tuple.of(path, false, "Access denied");
         }
@@ -147,7 +305,9 @@ public class DefaultEasefileManager extends EasefileManager {
             Path pathBackward = pathBackward(path);
             if (Files.exists(pathBackward(path))) {
                 try {
-                    return Tuple.of(Files.createDirectory(path), true, null);
+                    Path createdPath = Files.createDirectory(path);
+                    indexCreated(createdPath);
+                    return Tuple.of(createdPath, true, null);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
@@ -159,6 +319,7 @@ public class DefaultEasefileManager extends EasefileManager {
 
     @Override
     public Tuple2<Boolean, String> deleteDirectory(Path path, boolean force) {
+        path = normalized(path);
         if (!hasAccessRight(path)) {
             return Tuple.of(false, "Access denied");
         }
@@ -166,6 +327,7 @@ public class DefaultEasefileManager extends EasefileManager {
             if (force) {
                 try {
                     org.apache.commons.io.FileUtils.deleteDirectory(path.toFile());
+                    indexDeleted(path);
                     return Tuple.of(true, null);
                 } catch (IOException e) {
                     e.printStackTrace();
@@ -175,7 +337,9 @@ public class DefaultEasefileManager extends EasefileManager {
                 try {
                     long contentAmounts = Files.list(path).count();
                     if (contentAmounts == 0) {
-                        return Tuple.of(Files.deleteIfExists(path), null);
+                        boolean isDeleted = Files.deleteIfExists(path);
+                        indexDeleted(path);
+                        return Tuple.of(isDeleted, null);
                     } else {
                         return Tuple.of(false, "Cannot remove directory that is not empty. You can use 'force' flag to remove directory with content");
                     }
@@ -187,4 +351,31 @@ public class DefaultEasefileManager extends EasefileManager {
         }
         return Tuple.of(false, "Directory not exist or you has no access rights: " + path.toString());
     }
+
+    private static String etagOf(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+
+    private void indexCreated(Path path) {
+        directoryListingCache.invalidate(path);
+        if (nonNull(workspaceTreeIndex)) {
+            workspaceTreeIndex.created(path);
+        }
+    }
+
+    private void indexContent(Path path, String content) {
+        if (nonNull(searchIndex)) {
+            searchIndex.index(path, content);
+        }
+    }
+
+    private void indexDeleted(Path path) {
+        directoryListingCache.invalidate(path);
+        if (nonNull(searchIndex)) {
+            searchIndex.remove(path);
+        }
+        if (nonNull(workspaceTreeIndex)) {
+            workspaceTreeIndex.deleted(path);
+        }
+    }
 }
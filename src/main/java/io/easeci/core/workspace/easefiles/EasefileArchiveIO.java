@@ -0,0 +1,31 @@
+package io.easeci.core.workspace.easefiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Interface to move many Easefiles at once in one archive,
+ * for instance to backup workspace or migrate it to another node.
+ * */
+public interface EasefileArchiveIO {
+
+    /**
+     * @param path is a directory in Easefiles workspace to archive with all nested directories
+     * @param withProjects specifies if file with projects structure is added to archive
+     * Use this method to write directory of Easefiles to zip archive.
+     * @return path of temporary zip archive. Caller is responsible for removing it
+     * @throws IOException when archive could not be written
+     * */
+    Path exportArchive(Path path, boolean withProjects) throws IOException;
+
+    /**
+     * @param archive is a stream of zip archive created by exportArchive
+     * @param withProjects specifies if file with projects structure from archive replaces current one
+     * Use this method to apply all Easefiles from archive to workspace. All files are applied or none of them.
+     * @return paths of files and directories applied to workspace
+     * @throws IOException when archive is not correct or could not be applied
+     * */
+    List<Path> importArchive(InputStream archive, boolean withProjects) throws IOException;
+}
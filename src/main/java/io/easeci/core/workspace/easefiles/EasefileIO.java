@@ -36,6 +36,17 @@ public interface EasefileIO {
      * */
     EasefileOut update(Path path, String easefileNewContent);
 
+    /**
+     * @param path is a path where Easefile is placed on storage.
+     * @param easefileNewContent is a string representation of content to replace with.
+     * @param expectedEtag is an etag of Easefile's content returned by load, save or update
+     *                     that client was working on. If null, content is replaced unconditionally.
+     * Use this method to update pipeline Easefile only if nobody has changed it
+     * since client has read it. Otherwise status VERSION_CONFLICT is returned.
+     * @return EasefileOut that has status, errorMessage and etag of new content
+     * */
+    EasefileOut update(Path path, String easefileNewContent, String expectedEtag);
+
     /**
      * @param path is a path where Easefile is placed on storage.
      * Use this method to remove pipeline Easefile from storage.
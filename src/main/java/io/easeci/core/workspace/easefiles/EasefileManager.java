@@ -19,7 +19,7 @@ import static io.easeci.core.workspace.LocationUtils.getWorkspaceLocation;
  * @author Karol Meksuła
  * 2020-10-06
  * */
-public abstract class EasefileManager implements FileScanner, EasefileIO, DirectoriesIO {
+public abstract class EasefileManager implements FileScanner, EasefileIO, DirectoriesIO, EasefileSearch, EasefileArchiveIO {
     public final static String EASEFILES_DIRECTORY = "/easefiles/",
                                 EASEFILE_SEPARATOR = "_",
                                    EASEFILE_PREFIX = "Easefile";
@@ -68,10 +68,18 @@ public abstract class EasefileManager implements FileScanner, EasefileIO, Direct
 
     /**
      * This function secures for operation on files out of workspace.
+     * Path is normalized before it is checked, so '..' cannot lead out of Easefiles storage.
      * If return 'false' operation must be forbidden.
      * */
     public static boolean hasAccessRight(Path requestedPath) {
-        String easefilesStorageLocation = getEasefilesStorageLocationNoSlashAtEnd();
-        return requestedPath.toString().startsWith(easefilesStorageLocation) || requestedPath.toString().equals(easefilesStorageLocation);
+        Path easefilesStorageLocation = Paths.get(getEasefilesStorageLocationNoSlashAtEnd()).toAbsolutePath().normalize();
+        return normalized(requestedPath).startsWith(easefilesStorageLocation);
+    }
+
+    /**
+     * @return absolute path without '.' and '..' elements, the one that hasAccessRight() checks
+     * */
+    public static Path normalized(Path path) {
+        return path.toAbsolutePath().normalize();
     }
 }
@@ -13,6 +13,11 @@ public class EasefileOut {
     private String easefileContent;
     private String errorMessage;
     private Path filePath;
+    private String etag;
+
+    public static EasefileOut of(EasefileStatus easefileStatus, String easefileContent, String errorMessage, Path filePath) {
+        return of(easefileStatus, easefileContent, errorMessage, filePath, null);
+    }
 
     public static EasefileOut of(EasefileStatus easefileStatus, String easefileContent, String errorMessage) {
         EasefileOut easefileOut = new EasefileOut();
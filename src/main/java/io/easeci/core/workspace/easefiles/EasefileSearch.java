@@ -0,0 +1,21 @@
+package io.easeci.core.workspace.easefiles;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Find Easefiles by their content and metadata
+ * without loading each of them from storage.
+ * */
+public interface EasefileSearch {
+
+    /**
+     * Use this method to find Easefiles containing all terms from query.
+     * @param query is a list of terms separated by whitespaces.
+     *              Term could be a word, directive name like '$git'
+     *              or tag of pipeline prefixed with 'tag:', for instance 'tag:release'
+     * @param limit is a max amount of paths returned
+     * @return sorted list of paths to Easefiles matching query
+     * */
+    List<Path> search(String query, int limit);
+}
@@ -10,6 +10,7 @@ public enum  EasefileStatus {
     SAVE_FAILED,
     EDIT_FAILED,
     EDITED_CORRECTLY,
+    VERSION_CONFLICT,
     REMOVED_CORRECTLY,
     REMOVE_FAILED
 }
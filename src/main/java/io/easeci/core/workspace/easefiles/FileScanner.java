@@ -1,8 +1,10 @@
 package io.easeci.core.workspace.easefiles;
 
 import io.easeci.core.workspace.easefiles.filetree.FileTree;
+import io.easeci.core.workspace.easefiles.filetree.FileTreeEntry;
 
 import java.nio.file.Path;
+import java.util.Iterator;
 
 /**
  * Scan file structure in order to get the view
@@ -25,4 +27,14 @@ public interface FileScanner {
      * @return FileTree that contains all directories and pipeline Easefiles stored in workspace
      * */
     FileTree scan(Path path);
+
+    /**
+     * Use this method to read file tree page by page, without building whole FileTree in memory.
+     * Entries are returned in depth-first order with children sorted by path.
+     * @param path is a directory where scanning starts
+     * @param depth is how deep nested directories will be scanned, 1 means only children of path
+     * @param cursor is a path of the last entry from previous page or null to start from beginning
+     * @return lazy iterator of entries, empty when path is out of workspace
+     * */
+    Iterator<FileTreeEntry> scan(Path path, int depth, Path cursor);
 }
@@ -0,0 +1,271 @@
+package io.easeci.core.workspace.easefiles.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.nonNull;
+
+/**
+ * Moves many Easefiles at once in zip archive.
+ * Archive has Easefiles under 'easefiles/' directory, in layout the same as in workspace,
+ * and optionally file with projects structure in its root.
+ * Files are streamed to and from archive, so no file is held in memory as a whole.
+ * Import is extracted and validated in staging directory first, and next applied file by file
+ * with atomic moves. When any file cannot be applied, files applied before are restored
+ * and directories created by import are removed, so workspace contains all files from archive or none of them.
+ * */
+public class EasefileArchiver {
+    public final static String EASEFILES_ENTRY = "easefiles/",
+                               PROJECTS_ENTRY = "projects-structure.json";
+    private final static String BACKUP_DIRECTORY = ".backup";
+    private final static int BUFFER_SIZE = 64 * 1024;
+    private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path easefilesRoot;
+    private final Path projectsFile;
+    private final Path tempDirectory;
+    private final long maxEasefileSize;
+
+    public EasefileArchiver(Path easefilesRoot, Path projectsFile, Path tempDirectory, long maxEasefileSize) {
+        this.easefilesRoot = easefilesRoot;
+        this.projectsFile = projectsFile;
+        this.tempDirectory = tempDirectory;
+        this.maxEasefileSize = maxEasefileSize;
+    }
+
+    /**
+     * Write directory with Easefiles to zip archive placed in temporary directory.
+     * @param directory is a directory in Easefiles workspace to archive with all nested directories
+     * @param withProjects specifies if file with projects structure is added to archive
+     * @return path of archive. Caller is responsible for removing it
+     * @throws IOException when archive could not be written
+     * */
+    public Path export(Path directory, boolean withProjects) throws IOException {
+        Files.createDirectories(tempDirectory);
+        final Path archive = Files.createTempFile(tempDirectory, "easefiles-export-", ".zip");
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive), BUFFER_SIZE))) {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (!dir.equals(easefilesRoot)) {
+                        zip.putNextEntry(new ZipEntry(entryName(dir) + "/"));
+                        zip.closeEntry();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (attrs.isRegularFile()) {
+                        write(zip, entryName(file), file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            if (withProjects && Files.exists(projectsFile)) {
+                write(zip, PROJECTS_ENTRY, projectsFile);
+            }
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(archive);
+            throw exception;
+        }
+        logit(WORKSPACE_EVENT, "Easefiles from " + directory + " exported to archive: " + archive, THREE);
+        return archive;
+    }
+
+    /**
+     * Apply all Easefiles from zip archive to workspace.
+     * Existing files are replaced, other files in workspace are not touched.
+     * @param archive is a stream of zip archive. Stream is not closed here
+     * @param withProjects specifies if file with projects structure from archive replaces current one
+     * @return paths of files and directories applied to workspace
+     * @throws IOException when archive is not correct or could not be applied. Then workspace is not changed
+     * */
+    public List<Path> importArchive(InputStream archive, boolean withProjects) throws IOException {
+        Files.createDirectories(tempDirectory);
+        final Path staging = Files.createTempDirectory(tempDirectory, "easefiles-import-");
+        try {
+            List<String> entries = extract(archive, staging, withProjects);
+            List<Path> applied = apply(staging, entries);
+            logit(WORKSPACE_EVENT, applied.size() + " files and directories imported to Easefiles workspace from archive", THREE);
+            return applied;
+        } finally {
+            FileUtils.deleteQuietly(staging.toFile());
+        }
+    }
+
+    private String entryName(Path path) {
+        StringBuilder name = new StringBuilder(EASEFILES_ENTRY);
+        Path relative = easefilesRoot.relativize(path);
+        for (int i = 0; i < relative.getNameCount(); i++) {
+            if (i > 0) {
+                name.append('/');
+            }
+            name.append(relative.getName(i));
+        }
+        return name.toString();
+    }
+
+    private static void write(ZipOutputStream zip, String entryName, Path file) throws IOException {
+        zip.putNextEntry(new ZipEntry(entryName));
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+
+    private List<String> extract(InputStream archive, Path staging, boolean withProjects) throws IOException {
+        List<String> entries = new ArrayList<>();
+        ZipInputStream zip = new ZipInputStream(archive);
+        ZipEntry entry;
+        while (nonNull(entry = zip.getNextEntry())) {
+            final String name = entry.getName();
+            if (PROJECTS_ENTRY.equals(name)) {
+                if (withProjects) {
+                    Path staged = staging.resolve(PROJECTS_ENTRY);
+                    copy(zip, staged, maxEasefileSize);
+                    OBJECT_MAPPER.readTree(staged.toFile());
+                    entries.add(name);
+                }
+                continue;
+            }
+            if (!name.startsWith(EASEFILES_ENTRY) || name.equals(EASEFILES_ENTRY)) {
+                throw new IOException("Archive contains not allowed entry: " + name);
+            }
+            final Path staged = staging.resolve(name).normalize();
+            if (!staged.startsWith(staging.resolve(EASEFILES_ENTRY))) {
+                throw new IOException("Archive contains entry placed out of Easefiles workspace: " + name);
+            }
+            if (entry.isDirectory()) {
+                Files.createDirectories(staged);
+            } else {
+                Files.createDirectories(staged.getParent());
+                copy(zip, staged, maxEasefileSize);
+            }
+            entries.add(name);
+        }
+        return entries;
+    }
+
+    private static void copy(InputStream input, Path target, long maxSize) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0;
+        try (OutputStream output = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                copied += read;
+                if (copied > maxSize) {
+                    throw new IOException("File " + target.getFileName() + " in archive is too large. Max size is " + maxSize + " bytes");
+                }
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private List<Path> apply(Path staging, List<String> entries) throws IOException {
+        final Path backups = staging.resolve(BACKUP_DIRECTORY);
+        final List<Path> applied = new ArrayList<>(entries.size());
+        final Set<Path> replaced = new HashSet<>();
+        final List<Path> created = new ArrayList<>();
+        try {
+            for (String name : entries) {
+                final Path staged = staging.resolve(name).normalize();
+                final Path target = destination(name);
+                if (Files.isDirectory(staged)) {
+                    createDirectories(target, created);
+                    applied.add(target);
+                    continue;
+                }
+                createDirectories(target.getParent(), created);
+                if (Files.exists(target)) {
+                    Path backup = backups.resolve(name).normalize();
+                    Files.createDirectories(backup.getParent());
+                    Files.copy(target, backup, StandardCopyOption.COPY_ATTRIBUTES);
+                    replaced.add(target);
+                }
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+                applied.add(target);
+            }
+        } catch (IOException | RuntimeException exception) {
+            logit(WORKSPACE_EVENT, "Import of Easefiles archive failed, restoring workspace: " + exception.getMessage(), THREE);
+            rollback(backups, applied, replaced, created);
+            throw exception;
+        }
+        return applied;
+    }
+
+    /**
+     * Like Files.createDirectories(), but records each directory that did not exist before,
+     * parents before children, so rollback can remove them.
+     * */
+    private static void createDirectories(Path directory, List<Path> created) throws IOException {
+        final List<Path> missing = new ArrayList<>();
+        for (Path current = directory; nonNull(current) && Files.notExists(current); current = current.getParent()) {
+            missing.add(0, current);
+        }
+        for (Path path : missing) {
+            try {
+                Files.createDirectory(path);
+                created.add(path);
+            } catch (FileAlreadyExistsException exception) {
+                if (!Files.isDirectory(path)) {
+                    throw exception;
+                }
+            }
+        }
+    }
+
+    private void rollback(Path backups, List<Path> applied, Set<Path> replaced, List<Path> created) {
+        for (int i = applied.size() - 1; i >= 0; i--) {
+            final Path target = applied.get(i);
+            if (Files.isDirectory(target)) {
+                continue;
+            }
+            try {
+                if (replaced.contains(target)) {
+                    Files.move(backups.resolve(entryOf(target)), target, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    Files.deleteIfExists(target);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                logit(WORKSPACE_EVENT, "Cannot restore file after failed import of Easefiles archive: " + target, THREE);
+            }
+        }
+        for (int i = created.size() - 1; i >= 0; i--) {
+            final Path directory = created.get(i);
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+                logit(WORKSPACE_EVENT, "Cannot remove directory created by failed import of Easefiles archive: " + directory, THREE);
+            }
+        }
+    }
+
+    private String entryOf(Path target) {
+        return target.equals(projectsFile) ? PROJECTS_ENTRY : entryName(target);
+    }
+
+    private Path destination(String name) {
+        if (PROJECTS_ENTRY.equals(name)) {
+            return projectsFile;
+        }
+        return easefilesRoot.resolve(name.substring(EASEFILES_ENTRY.length())).normalize();
+    }
+}
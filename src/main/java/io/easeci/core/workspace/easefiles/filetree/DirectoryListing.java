@@ -0,0 +1,49 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Source of directories content for FileTreeIterator.
+ * */
+interface DirectoryListing {
+
+    /**
+     * @return children of directory sorted by path, empty map when directory not exists
+     * */
+    NavigableMap<Path, NodeType> list(Path directory);
+
+    boolean hasAnyEntry(Path directory);
+
+    /**
+     * Lists directories directly from filesystem, only when iterator reaches them.
+     * */
+    DirectoryListing FILESYSTEM = new DirectoryListing() {
+        @Override
+        public NavigableMap<Path, NodeType> list(Path directory) {
+            NavigableMap<Path, NodeType> children = new TreeMap<>();
+            try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+                for (Path path : directoryStream) {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        children.put(path, NodeType.FILE);
+                    } else if (attributes.isDirectory()) {
+                        children.put(path, NodeType.DIRECTORY);
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                return Collections.emptyNavigableMap();
+            }
+            return children;
+        }
+
+        @Override
+        public boolean hasAnyEntry(Path directory) {
+            return FileTreeWalker.hasAnyEntry(directory);
+        }
+    };
+}
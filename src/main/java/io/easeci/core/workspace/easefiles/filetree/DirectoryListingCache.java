@@ -0,0 +1,69 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Caches listings of single directories made by FileTreeWalker.dumpOne().
+ * Listing is valid as long as modification time of directory is not changed,
+ * so cache hit costs one stat instead of listing whole directory.
+ * Notice that modification time of directory changes only when its direct
+ * children are added, removed or renamed, so use invalidate() after changes
+ * made by application itself.
+ * */
+public class DirectoryListingCache {
+    private final Cache<Path, Listing> listings;
+
+    public DirectoryListingCache(long maxDirectories) {
+        this.listings = CacheBuilder.newBuilder()
+                .maximumSize(maxDirectories)
+                .build();
+    }
+
+    public FileTree dumpOne(Path directory) throws IOException {
+        final FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(directory);
+        } catch (NoSuchFileException exception) {
+            listings.invalidate(directory);
+            return FileTree.notExisting(directory);
+        }
+        Listing listing = listings.getIfPresent(directory);
+        if (nonNull(listing) && listing.modified.equals(modified)) {
+            return listing.fileTree;
+        }
+        FileTree fileTree = new FileTreeWalker(directory).dumpOne();
+        listings.put(directory, new Listing(modified, fileTree));
+        return fileTree;
+    }
+
+    /**
+     * Drop listing of resource and listing of directory where resource is placed.
+     * @param path is a path of changed file or directory
+     * */
+    public void invalidate(Path path) {
+        listings.invalidate(path);
+        if (nonNull(path.getParent())) {
+            listings.invalidate(path.getParent());
+        }
+    }
+
+    long size() {
+        return listings.size();
+    }
+
+    @AllArgsConstructor
+    private static class Listing {
+        private final FileTime modified;
+        private final FileTree fileTree;
+    }
+}
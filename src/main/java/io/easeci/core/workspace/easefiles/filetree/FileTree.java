@@ -23,6 +23,12 @@ public class FileTree implements NestedLocations {
         this.entryPoint = entryPoint;
     }
 
+    FileTree(Path entryPoint, Node rootNode) {
+        this.objectMapper = new ObjectMapper();
+        this.rootNode = rootNode;
+        this.entryPoint = entryPoint;
+    }
+
     private FileTree(Path entryPoint, boolean isDirExist) {
         if (!isDirExist) {
             this.objectMapper = new ObjectMapper();
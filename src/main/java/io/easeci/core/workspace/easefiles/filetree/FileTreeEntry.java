@@ -0,0 +1,21 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+
+/**
+ * One file or directory of file tree listed page by page.
+ * Depth is counted from entry point of scanning, where direct children have depth 1.
+ * */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "of")
+public class FileTreeEntry {
+    private Path path;
+    private String nodeType;
+    private int depth;
+    private boolean hasNext;
+}
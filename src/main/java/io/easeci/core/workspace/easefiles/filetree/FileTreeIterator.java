@@ -0,0 +1,107 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Lazily walks file tree in depth-first order with children sorted by path.
+ * Only directories that are reached are listed, so whole tree is never held in memory.
+ * Walk could start right after cursor, which is a path of the last entry
+ * returned before, so file tree can be read page by page.
+ * */
+public class FileTreeIterator implements Iterator<FileTreeEntry> {
+    private final DirectoryListing directoryListing;
+    private final int maxDepth;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private FileTreeEntry next;
+
+    private FileTreeIterator(DirectoryListing directoryListing, Path entryPoint, int maxDepth, Path cursor) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth of scanning must be at least 1, but was: " + maxDepth);
+        }
+        this.directoryListing = directoryListing;
+        this.maxDepth = maxDepth;
+        if (isNull(cursor)) {
+            frames.push(new Frame(directoryListing.list(entryPoint).entrySet().iterator(), 1));
+        } else {
+            positionAfter(entryPoint, cursor);
+        }
+        this.next = advance();
+    }
+
+    public static FileTreeIterator of(WorkspaceTreeIndex workspaceTreeIndex, Path entryPoint, int maxDepth, Path cursor) {
+        return new FileTreeIterator(workspaceTreeIndex, entryPoint, maxDepth, cursor);
+    }
+
+    public static FileTreeIterator ofFilesystem(Path entryPoint, int maxDepth, Path cursor) {
+        return new FileTreeIterator(DirectoryListing.FILESYSTEM, entryPoint, maxDepth, cursor);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nonNull(next);
+    }
+
+    @Override
+    public FileTreeEntry next() {
+        if (isNull(next)) {
+            throw new NoSuchElementException();
+        }
+        FileTreeEntry current = next;
+        next = advance();
+        return current;
+    }
+
+    // Restores stack of directories as it was just after cursor was returned
+    private void positionAfter(Path entryPoint, Path cursor) {
+        if (!cursor.startsWith(entryPoint) || cursor.equals(entryPoint) || cursor.getNameCount() - entryPoint.getNameCount() > maxDepth) {
+            throw new IllegalArgumentException("Cursor " + cursor + " does not point to entry placed in " + entryPoint);
+        }
+        Path relative = entryPoint.relativize(cursor);
+        Path directory = entryPoint;
+        for (int depth = 1; depth <= relative.getNameCount(); depth++) {
+            Path ancestor = directory.resolve(relative.getName(depth - 1));
+            frames.push(new Frame(directoryListing.list(directory).tailMap(ancestor, false).entrySet().iterator(), depth));
+            directory = ancestor;
+        }
+        if (relative.getNameCount() < maxDepth) {
+            frames.push(new Frame(directoryListing.list(cursor).entrySet().iterator(), relative.getNameCount() + 1));
+        }
+    }
+
+    private FileTreeEntry advance() {
+        while (!frames.isEmpty()) {
+            Frame frame = frames.peek();
+            if (!frame.children.hasNext()) {
+                frames.pop();
+                continue;
+            }
+            Map.Entry<Path, NodeType> child = frame.children.next();
+            if (NodeType.FILE.equals(child.getValue())) {
+                return FileTreeEntry.of(child.getKey(), NodeType.FILE.name(), frame.depth, false);
+            }
+            if (frame.depth >= maxDepth) {
+                return FileTreeEntry.of(child.getKey(), NodeType.DIRECTORY.name(), frame.depth, directoryListing.hasAnyEntry(child.getKey()));
+            }
+            NavigableMap<Path, NodeType> grandchildren = directoryListing.list(child.getKey());
+            if (!grandchildren.isEmpty()) {
+                frames.push(new Frame(grandchildren.entrySet().iterator(), frame.depth + 1));
+            }
+            return FileTreeEntry.of(child.getKey(), NodeType.DIRECTORY.name(), frame.depth, !grandchildren.isEmpty());
+        }
+        return null;
+    }
+
+    private static class Frame {
+        private final Iterator<Map.Entry<Path, NodeType>> children;
+        private final int depth;
+
+        Frame(Iterator<Map.Entry<Path, NodeType>> children, int depth) {
+            this.children = children;
+            this.depth = depth;
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package io.easeci.core.workspace.easefiles.filetree;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
 
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+
+/**
+ * Walks directory in one pass with Files.walkFileTree().
+ * Type of each entry comes from BasicFileAttributes read while listing,
+ * so every directory is listed only once and there is no extra stat per entry.
+ * Children of each node are sorted by path.
+ * */
 public class FileTreeWalker {
     private Path parentDirectory;
     private FileTree fileTree;
@@ -24,29 +35,62 @@ public class FileTreeWalker {
     }
 
     private FileTree walk(Path pathDirectory, Node node, boolean recursively) throws IOException {
-        if (!Files.exists(pathDirectory)) {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(pathDirectory, BasicFileAttributes.class);
+        } catch (NoSuchFileException exception) {
             return FileTree.notExisting(pathDirectory);
         }
-        if (!Files.isDirectory(pathDirectory)) {
+        if (!attributes.isDirectory()) {
             return FileTree.empty(pathDirectory);
         }
-        List<Path> paths = Files.list(pathDirectory).collect(Collectors.toList());
-        for (Path path : paths) {
-            boolean regularFile = Files.isRegularFile(path);
-            if (regularFile) {
-                Node nodeNew = new Node(NodeType.FILE, path);
-                node.add(nodeNew);
-                continue;
+        final Deque<Node> parents = new ArrayDeque<>();
+        Files.walkFileTree(pathDirectory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), recursively ? Integer.MAX_VALUE : 1, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (parents.isEmpty()) {
+                    parents.push(node);
+                    return FileVisitResult.CONTINUE;
+                }
+                Node nodeNew = new Node(NodeType.DIRECTORY, dir);
+                parents.peek().add(nodeNew);
+                parents.push(nodeNew);
+                return FileVisitResult.CONTINUE;
             }
-            boolean directory = Files.isDirectory(path);
-            if (directory) {
-                Node nodeNew = new Node(NodeType.DIRECTORY, path);
-                node.add(nodeNew);
-                if (recursively) {
-                    walk(path, nodeNew, true);
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    parents.peek().add(new Node(NodeType.FILE, file));
+                } else if (attrs.isDirectory()) {
+                    // directory placed deeper than walk's depth, only check if it has any content
+                    parents.peek().add(new Node(NodeType.DIRECTORY, file, hasAnyEntry(file)));
                 }
+                return FileVisitResult.CONTINUE;
             }
-        }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logit(WORKSPACE_EVENT, "Cannot walk through path: " + file + ", cause: " + exc.getMessage(), THREE);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                Node visited = parents.pop();
+                visited.sortChildren();
+                visited.setHasNext(!visited.getChildNodes().isEmpty());
+                return FileVisitResult.CONTINUE;
+            }
+        });
         return fileTree;
     }
+
+    static boolean hasAnyEntry(Path directory) {
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            return directoryStream.iterator().hasNext();
+        } catch (IOException | DirectoryIteratorException e) {
+            return false;
+        }
+    }
 }
@@ -1,11 +1,12 @@
 package io.easeci.core.workspace.easefiles.filetree;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,17 +16,18 @@ class Node implements NestedLocations {
     private NodeType nodeType;
     private Path nodePath;
     private List<Node> childNodes;
+    @Setter(AccessLevel.PACKAGE)
     private boolean hasNext;
 
     Node(NodeType nodeType, Path nodePath) {
+        this(nodeType, nodePath, false);
+    }
+
+    Node(NodeType nodeType, Path nodePath, boolean hasNext) {
         this.nodeType = nodeType;
         this.nodePath = nodePath;
-        if (nodeType.equals(NodeType.FILE)) {
-            this.childNodes = null;
-        } else {
-            this.childNodes = new LinkedList<>();
-            this.hasNext = hasNext();
-        }
+        this.childNodes = nodeType.equals(NodeType.FILE) ? null : new LinkedList<>();
+        this.hasNext = hasNext;
     }
 
     public void add(Node node) {
@@ -33,11 +35,12 @@ class Node implements NestedLocations {
     }
 
     public boolean hasNext() {
-        try {
-            return childNodes != null && Files.list(nodePath).count() > 0;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+        return childNodes != null && hasNext;
+    }
+
+    void sortChildren() {
+        if (childNodes != null) {
+            childNodes.sort(Comparator.comparing(Node::getNodePath));
         }
     }
 
@@ -0,0 +1,138 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.nonNull;
+
+/**
+ * Walks directory tree reading subdirectories concurrently
+ * as RecursiveTask in ForkJoinPool. Use it when workspace has a lot
+ * of directories or it is placed on network filesystem,
+ * where sequential directory reads are bound by latency.
+ * Produces the same sorted FileTree as FileTreeWalker does.
+ * Directories deeper than maxDepth are not walked, only marked if they have any content.
+ * Symbolic links are followed like FileTreeWalker does, but link to directory that is
+ * an ancestor of itself is skipped, so the walk ends also when links make a cycle.
+ * */
+public class ParallelFileTreeWalker {
+    private final Path parentDirectory;
+    private final ForkJoinPool forkJoinPool;
+    private final int maxDepth;
+
+    public ParallelFileTreeWalker(Path parentDirectory, ForkJoinPool forkJoinPool, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth of walk must be at least 1, but was: " + maxDepth);
+        }
+        this.parentDirectory = parentDirectory;
+        this.forkJoinPool = forkJoinPool;
+        this.maxDepth = maxDepth;
+    }
+
+    public FileTree dumpAll() throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(parentDirectory, BasicFileAttributes.class);
+        } catch (NoSuchFileException exception) {
+            return FileTree.notExisting(parentDirectory);
+        }
+        if (!attributes.isDirectory()) {
+            return FileTree.empty(parentDirectory);
+        }
+        try {
+            Node rootNode = forkJoinPool.invoke(new DirectoryTask(parentDirectory, attributes.fileKey(), 0, null));
+            return new FileTree(parentDirectory, rootNode);
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private class DirectoryTask extends RecursiveTask<Node> {
+        private final Path directory;
+        private final Object fileKey;
+        private final int depth;
+        private final DirectoryTask parent;
+
+        DirectoryTask(Path directory, Object fileKey, int depth, DirectoryTask parent) {
+            this.directory = directory;
+            this.fileKey = fileKey;
+            this.depth = depth;
+            this.parent = parent;
+        }
+
+        /**
+         * The same check as Files.walkFileTree() does with FOLLOW_LINKS:
+         * by file key when filesystem provides it, otherwise by Files.isSameFile().
+         * */
+        private boolean isAncestor(Path path, Object key) {
+            for (DirectoryTask ancestor = this; nonNull(ancestor); ancestor = ancestor.parent) {
+                if (nonNull(key) && nonNull(ancestor.fileKey)) {
+                    if (key.equals(ancestor.fileKey)) {
+                        return true;
+                    }
+                } else {
+                    try {
+                        if (Files.isSameFile(path, ancestor.directory)) {
+                            return true;
+                        }
+                    } catch (IOException exception) {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Node compute() {
+            Node node = new Node(NodeType.DIRECTORY, directory);
+            List<Object> children = new ArrayList<>();
+            try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+                for (Path path : directoryStream) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    } catch (IOException exception) {
+                        logit(WORKSPACE_EVENT, "Cannot walk through path: " + path + ", cause: " + exception.getMessage(), THREE);
+                        continue;
+                    }
+                    if (attributes.isRegularFile()) {
+                        children.add(new Node(NodeType.FILE, path));
+                    } else if (attributes.isDirectory()) {
+                        if (depth + 1 < maxDepth) {
+                            if (isAncestor(path, attributes.fileKey())) {
+                                logit(WORKSPACE_EVENT, "Cannot walk through path: " + path + ", cause: symbolic links make a cycle", THREE);
+                                continue;
+                            }
+                            DirectoryTask task = new DirectoryTask(path, attributes.fileKey(), depth + 1, this);
+                            task.fork();
+                            children.add(task);
+                        } else {
+                            children.add(new Node(NodeType.DIRECTORY, path, FileTreeWalker.hasAnyEntry(path)));
+                        }
+                    }
+                }
+            } catch (IOException exception) {
+                if (depth == 0) {
+                    throw new UncheckedIOException(exception);
+                }
+                logit(WORKSPACE_EVENT, "Cannot walk through path: " + directory + ", cause: " + exception.getMessage(), THREE);
+            }
+            for (Object child : children) {
+                node.add(child instanceof DirectoryTask ? ((DirectoryTask) child).join() : (Node) child);
+            }
+            node.sortChildren();
+            node.setHasNext(!node.getChildNodes().isEmpty());
+            return node;
+        }
+    }
+}
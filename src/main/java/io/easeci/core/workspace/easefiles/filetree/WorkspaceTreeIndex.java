@@ -0,0 +1,255 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.nio.file.StandardWatchEventKinds.*;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * In-memory index of Easefiles workspace file tree.
+ * Index is built once and next it is kept current by recursive WatchService
+ * and by notifications from EasefileManager after its own operations on files.
+ * FileTree is produced from index without any filesystem traversal,
+ * and children of each directory are kept sorted, so output is deterministic.
+ * When index must be rebuilt, new one is built aside and published at once,
+ * so readers see either old or new index, never partial one.
+ * */
+public class WorkspaceTreeIndex implements Closeable, DirectoryListing {
+    private final Path root;
+    private volatile Indexed indexed = new Indexed();
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    private WorkspaceTreeIndex(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Build index of directory and start watching changes in it.
+     * @param root is a path of directory to index
+     * @return index ready to serve FileTree
+     * @throws IOException when directory could not be indexed
+     * */
+    public static WorkspaceTreeIndex build(Path root) throws IOException {
+        WorkspaceTreeIndex workspaceTreeIndex = new WorkspaceTreeIndex(root);
+        workspaceTreeIndex.watchService = root.getFileSystem().newWatchService();
+        workspaceTreeIndex.index(root, workspaceTreeIndex.indexed);
+        workspaceTreeIndex.startWatching();
+        logit(WORKSPACE_EVENT, "Index of Easefiles workspace built for " + workspaceTreeIndex.indexed.directories.size() + " directories", THREE);
+        return workspaceTreeIndex;
+    }
+
+    public FileTree dumpAll() {
+        final Map<Path, NavigableMap<Path, NodeType>> directories = indexed.directories;
+        if (!directories.containsKey(root)) {
+            return FileTree.notExisting(root);
+        }
+        return new FileTree(root, node(directories, root, NodeType.DIRECTORY, true));
+    }
+
+    /**
+     * @param directory is a path of directory from index
+     * @return FileTree with children of directory only, or empty optional when directory is not indexed
+     * */
+    public Optional<FileTree> dumpOne(Path directory) {
+        final Map<Path, NavigableMap<Path, NodeType>> directories = indexed.directories;
+        if (!directories.containsKey(directory)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileTree(directory, node(directories, directory, NodeType.DIRECTORY, false)));
+    }
+
+    @Override
+    public NavigableMap<Path, NodeType> list(Path directory) {
+        NavigableMap<Path, NodeType> children = indexed.directories.get(directory);
+        return isNull(children) ? Collections.emptyNavigableMap() : Collections.unmodifiableNavigableMap(children);
+    }
+
+    @Override
+    public boolean hasAnyEntry(Path directory) {
+        NavigableMap<Path, NodeType> children = indexed.directories.get(directory);
+        return nonNull(children) && !children.isEmpty();
+    }
+
+    /**
+     * Notify index that file or directory was just created or modified.
+     * When directory was created, its whole content is indexed.
+     * @param path is a path of created resource
+     * */
+    public void created(Path path) {
+        if (!path.startsWith(root) || path.equals(root)) {
+            return;
+        }
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                index(path, indexed);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            attach(path, NodeType.DIRECTORY);
+        } else if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+            attach(path, NodeType.FILE);
+        }
+    }
+
+    /**
+     * Notify index that file or directory was just removed.
+     * @param path is a path of removed resource
+     * */
+    public void deleted(Path path) {
+        final Map<Path, NavigableMap<Path, NodeType>> directories = indexed.directories;
+        NavigableMap<Path, NodeType> siblings = directories.get(path.getParent());
+        if (nonNull(siblings)) {
+            siblings.remove(path);
+        }
+        directories.keySet().removeIf(directory -> directory.startsWith(path));
+        indexed.watchKeys.entrySet().removeIf(entry -> {
+            if (entry.getValue().startsWith(path)) {
+                entry.getKey().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (nonNull(watcherThread)) {
+            watcherThread.interrupt();
+        }
+        watchService.close();
+    }
+
+    private void attach(Path path, NodeType nodeType) {
+        NavigableMap<Path, NodeType> siblings = indexed.directories.get(path.getParent());
+        if (isNull(siblings)) {
+            created(path.getParent());
+            siblings = indexed.directories.get(path.getParent());
+        }
+        if (nonNull(siblings)) {
+            siblings.put(path, nodeType);
+        }
+    }
+
+    private void index(Path directory, Indexed target) throws IOException {
+        final Map<Path, NavigableMap<Path, NodeType>> directories = target.directories;
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                target.watchKeys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE), dir);
+                directories.put(dir, new ConcurrentSkipListMap<>());
+                if (!dir.equals(directory)) {
+                    directories.get(dir.getParent()).put(dir, NodeType.DIRECTORY);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    directories.get(file.getParent()).put(file, NodeType.FILE);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logit(WORKSPACE_EVENT, "Cannot index path in Easefiles workspace: " + file, THREE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void rebuild() {
+        logit(WORKSPACE_EVENT, "Too many changes in Easefiles workspace at once, index is rebuilt", THREE);
+        Indexed rebuilt = new Indexed();
+        try {
+            index(root, rebuilt);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        Indexed previous = this.indexed;
+        this.indexed = rebuilt;
+        previous.watchKeys.keySet()
+                .stream()
+                .filter(watchKey -> !rebuilt.watchKeys.containsKey(watchKey))
+                .forEach(WatchKey::cancel);
+    }
+
+    private void startWatching() {
+        watcherThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey watchKey;
+                try {
+                    watchKey = watchService.take();
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+                Path directory = indexed.watchKeys.get(watchKey);
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (OVERFLOW.equals(event.kind())) {
+                        rebuild();
+                        break;
+                    }
+                    if (isNull(directory)) {
+                        continue;
+                    }
+                    Path path = directory.resolve((Path) event.context());
+                    if (ENTRY_CREATE.equals(event.kind())) {
+                        created(path);
+                    } else if (ENTRY_DELETE.equals(event.kind())) {
+                        deleted(path);
+                    }
+                }
+                if (!watchKey.reset()) {
+                    indexed.watchKeys.remove(watchKey);
+                }
+            }
+        }, "easefiles-workspace-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private Node node(Map<Path, NavigableMap<Path, NodeType>> directories, Path path, NodeType nodeType, boolean recursively) {
+        if (NodeType.FILE.equals(nodeType)) {
+            return new Node(NodeType.FILE, path, false);
+        }
+        NavigableMap<Path, NodeType> children = directories.get(path);
+        boolean hasNext = nonNull(children) && !children.isEmpty();
+        Node node = new Node(NodeType.DIRECTORY, path, hasNext);
+        if (hasNext) {
+            children.forEach((child, childType) -> node.add(recursively
+                    ? node(directories, child, childType, true)
+                    : leaf(directories, child, childType)));
+        }
+        return node;
+    }
+
+    private Node leaf(Map<Path, NavigableMap<Path, NodeType>> directories, Path path, NodeType nodeType) {
+        if (NodeType.FILE.equals(nodeType)) {
+            return new Node(NodeType.FILE, path, false);
+        }
+        NavigableMap<Path, NodeType> children = directories.get(path);
+        return new Node(NodeType.DIRECTORY, path, nonNull(children) && !children.isEmpty());
+    }
+
+    private static class Indexed {
+        private final Map<Path, NavigableMap<Path, NodeType>> directories = new ConcurrentHashMap<>();
+        private final Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
+    }
+}
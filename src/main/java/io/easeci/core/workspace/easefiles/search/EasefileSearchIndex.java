@@ -0,0 +1,336 @@
+package io.easeci.core.workspace.easefiles.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.easeci.commons.FileUtils;
+import io.easeci.core.workspace.projects.PipelinePointer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
+import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
+import static io.easeci.core.log.ApplicationLevelLogFacade.logit;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Inverted index of Easefiles stored in workspace.
+ * Each Easefile is split to terms: words, directive names (like '$git')
+ * and metadata of PipelinePointer pointing to this Easefile ('tag:release', words of name and description).
+ * Query is a list of terms separated by whitespaces and returns Easefiles containing all of them.
+ * Content terms are updated by EasefileManager after each save, update and delete
+ * and persisted in .cache directory, so after restart only Easefiles modified
+ * in the meantime are read again. Metadata terms are not persisted, but rebuilt
+ * when file with projects structure was changed.
+ * */
+public class EasefileSearchIndex {
+    public final static String INDEX_FILE = "easefiles-search-index.json",
+                               TAG_PREFIX = "tag:";
+    private final static Pattern TERM_PATTERN = Pattern.compile("\\$?[\\p{L}\\p{N}_][\\p{L}\\p{N}_.\\-]*");
+    private final static long PERSIST_DELAY_SECONDS = 5;
+    private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path indexFile;
+    private final Map<String, Set<Path>> contentPostings = new ConcurrentHashMap<>();
+    private final Map<String, Set<Path>> metadataPostings = new ConcurrentHashMap<>();
+    private final Map<Path, Document> documents = new ConcurrentHashMap<>();
+    private final Map<Path, Set<String>> metadataTerms = new ConcurrentHashMap<>();
+    private final AtomicBoolean persistScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService persistExecutor;
+    private Supplier<Collection<PipelinePointer>> metadataSource;
+    private Path metadataFile;
+    private volatile long metadataModified = -1;
+
+    private EasefileSearchIndex(Path indexFile) {
+        this.indexFile = indexFile;
+        this.persistExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "easefiles-search-index-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Build index of all Easefiles placed in directory.
+     * Terms of Easefiles not modified since index was persisted last time are taken from index file.
+     * @param root is a directory with Easefiles
+     * @param indexFile is a file where index is persisted
+     * @return index ready for searching
+     * @throws IOException when directory could not be indexed
+     * */
+    public static EasefileSearchIndex build(Path root, Path indexFile) throws IOException {
+        EasefileSearchIndex searchIndex = new EasefileSearchIndex(indexFile);
+        Files.createDirectories(indexFile.getParent());
+        Map<String, Document> persisted = searchIndex.loadPersisted();
+        int[] reused = {0};
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                Document document = persisted.get(file.toString());
+                if (nonNull(document) && document.getModified() == attrs.lastModifiedTime().toMillis()) {
+                    searchIndex.put(file, document);
+                    reused[0]++;
+                } else {
+                    searchIndex.put(file, new Document(attrs.lastModifiedTime().toMillis(), terms(Files.readString(file, StandardCharsets.UTF_8))));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logit(WORKSPACE_EVENT, "Cannot index Easefile for searching: " + file, THREE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (reused[0] != searchIndex.documents.size() || persisted.size() != reused[0]) {
+            searchIndex.persist();
+        }
+        logit(WORKSPACE_EVENT, "Search index of Easefiles built for " + searchIndex.documents.size()
+                + " files, " + reused[0] + " of them taken from " + indexFile, THREE);
+        return searchIndex;
+    }
+
+    /**
+     * Attach source of PipelinePointers which metadata is indexed together with Easefiles.
+     * @param metadataSource provides all PipelinePointers. It is called only when metadataFile was changed
+     * @param metadataFile is a file where PipelinePointers are stored
+     * */
+    public void attachMetadata(Supplier<Collection<PipelinePointer>> metadataSource, Path metadataFile) {
+        this.metadataSource = metadataSource;
+        this.metadataFile = metadataFile;
+        this.metadataModified = -1;
+    }
+
+    /**
+     * Index content of Easefile just saved or updated.
+     * @param path is a path of Easefile
+     * @param content is a content of Easefile
+     * */
+    public void index(Path path, String content) {
+        long modified;
+        try {
+            modified = Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            modified = -1;
+        }
+        put(path, new Document(modified, terms(content)));
+        schedulePersist();
+    }
+
+    /**
+     * Remove Easefile or all Easefiles placed in removed directory from index.
+     * @param path is a path of removed resource
+     * */
+    public void remove(Path path) {
+        List<Path> removed = documents.keySet().stream()
+                .filter(document -> document.startsWith(path))
+                .collect(Collectors.toList());
+        removed.forEach(this::removeDocument);
+        if (!removed.isEmpty()) {
+            schedulePersist();
+        }
+    }
+
+    /**
+     * @param query is a list of terms separated by whitespaces, for instance '$git tag:release'
+     * @param limit is a max amount of paths returned
+     * @return sorted paths of Easefiles containing all terms from query
+     * */
+    public List<Path> search(String query, int limit) {
+        refreshMetadata();
+        Set<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Set<Path>> matches = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Set<Path> matched = postings(term);
+            if (matched.isEmpty()) {
+                return Collections.emptyList();
+            }
+            matches.add(matched);
+        }
+        matches.sort(Comparator.comparingInt(Set::size));
+        return matches.get(0).stream()
+                .filter(path -> matches.stream().skip(1).allMatch(matched -> matched.contains(path)))
+                .sorted()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Write current state of index to index file.
+     * */
+    public synchronized void persist() {
+        Map<String, Document> snapshot = new HashMap<>(documents.size());
+        documents.forEach((path, document) -> snapshot.put(path.toString(), document));
+        try {
+            FileUtils.fileWriteAtomically(indexFile, OBJECT_MAPPER.writeValueAsBytes(snapshot), true);
+        } catch (IOException e) {
+            e.printStackTrace();
+            logit(WORKSPACE_EVENT, "Cannot persist search index of Easefiles here: " + indexFile, THREE);
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    static Set<String> terms(String content) {
+        Set<String> terms = new HashSet<>();
+        Matcher matcher = TERM_PATTERN.matcher(content);
+        while (matcher.find()) {
+            String term = trimTrailing(matcher.group().toLowerCase(Locale.ROOT));
+            if (term.length() > 1) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> queryTerms(String query) {
+        Set<String> queryTerms = new HashSet<>();
+        for (String chunk : query.trim().split("\\s+")) {
+            if (chunk.toLowerCase(Locale.ROOT).startsWith(TAG_PREFIX)) {
+                queryTerms.add(chunk.toLowerCase(Locale.ROOT));
+            } else {
+                queryTerms.addAll(terms(chunk));
+            }
+        }
+        return queryTerms;
+    }
+
+    private static String trimTrailing(String term) {
+        int end = term.length();
+        while (end > 0 && (term.charAt(end - 1) == '.' || term.charAt(end - 1) == '-')) {
+            end--;
+        }
+        return term.substring(0, end);
+    }
+
+    private Set<Path> postings(String term) {
+        Set<Path> content = contentPostings.getOrDefault(term, Collections.emptySet());
+        Set<Path> metadata = metadataPostings.getOrDefault(term, Collections.emptySet());
+        if (metadata.isEmpty()) {
+            return content;
+        }
+        if (content.isEmpty()) {
+            return metadata;
+        }
+        Set<Path> union = new HashSet<>(content);
+        union.addAll(metadata);
+        return union;
+    }
+
+    private synchronized void put(Path path, Document document) {
+        removeDocument(path);
+        documents.put(path, document);
+        document.getTerms().forEach(term -> contentPostings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(path));
+    }
+
+    private synchronized void removeDocument(Path path) {
+        Document document = documents.remove(path);
+        if (isNull(document)) {
+            return;
+        }
+        document.getTerms().forEach(term -> contentPostings.computeIfPresent(term, (key, paths) -> {
+            paths.remove(path);
+            return paths.isEmpty() ? null : paths;
+        }));
+    }
+
+    private void refreshMetadata() {
+        if (isNull(metadataSource)) {
+            return;
+        }
+        long modified;
+        try {
+            modified = Files.getLastModifiedTime(metadataFile).toMillis();
+        } catch (IOException e) {
+            modified = 0;
+        }
+        if (modified != metadataModified) {
+            reloadMetadata(modified);
+        }
+    }
+
+    private synchronized void reloadMetadata(long modified) {
+        if (modified == metadataModified) {
+            return;
+        }
+        metadataPostings.clear();
+        metadataTerms.clear();
+        for (PipelinePointer pointer : metadataSource.get()) {
+            if (isNull(pointer.getEasefilePath())) {
+                continue;
+            }
+            Set<String> terms = metadataTerms.computeIfAbsent(pointer.getEasefilePath(), key -> new HashSet<>());
+            if (nonNull(pointer.getTag())) {
+                terms.add(TAG_PREFIX + pointer.getTag().toLowerCase(Locale.ROOT));
+            }
+            if (nonNull(pointer.getName())) {
+                terms.addAll(terms(pointer.getName()));
+            }
+            if (nonNull(pointer.getDescription())) {
+                terms.addAll(terms(pointer.getDescription()));
+            }
+        }
+        metadataTerms.forEach((path, terms) -> terms.forEach(term ->
+                metadataPostings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(path)));
+        metadataModified = modified;
+    }
+
+    private void schedulePersist() {
+        if (persistScheduled.compareAndSet(false, true)) {
+            persistExecutor.schedule(() -> {
+                persistScheduled.set(false);
+                persist();
+            }, PERSIST_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private Map<String, Document> loadPersisted() {
+        if (!Files.exists(indexFile)) {
+            return Collections.emptyMap();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(indexFile.toFile(), new TypeReference<Map<String, Document>>() {});
+        } catch (NoSuchFileException e) {
+            return Collections.emptyMap();
+        } catch (IOException e) {
+            logit(WORKSPACE_EVENT, "Search index of Easefiles is corrupted and will be built from scratch: " + indexFile, THREE);
+            return Collections.emptyMap();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Document {
+        private long modified;
+        private Set<String> terms;
+    }
+}
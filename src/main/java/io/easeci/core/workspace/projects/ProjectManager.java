@@ -3,6 +3,7 @@ package io.easeci.core.workspace.projects;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.easeci.commons.DirUtils;
+import io.easeci.commons.FileUtils;
 import io.easeci.core.engine.pipeline.Pipeline;
 import io.easeci.core.workspace.projects.dto.AddProjectGroupRequest;
 import io.easeci.core.workspace.projects.dto.AddProjectRequest;
@@ -17,6 +18,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelName.WORKSPACE_EVENT;
 import static io.easeci.core.log.ApplicationLevelLogFacade.LogLevelPrefix.THREE;
@@ -102,6 +104,24 @@ public class ProjectManager implements PipelinePointerIO, ProjectIO, ProjectGrou
         return projectsFile;
     }
 
+    /**
+     * @return all PipelinePointers from all projects
+     * */
+    public List<PipelinePointer> pipelinePointers() {
+        return getProjectsFile().getProjectGroups().stream()
+                .flatMap(projectGroup -> projectGroup.getProjects().stream())
+                .flatMap(project -> project.getPipelines().stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Read file with projects structure again, when it was replaced outside of this class.
+     * @throws IOException when file could not be read. Then current state is kept
+     * */
+    public synchronized void reload() throws IOException {
+        projectsFile = load();
+    }
+
     public ProjectsFile load() throws IOException {
         Path projectsStructureFileLocation = getProjectsStructureFileLocation();
         return OBJECT_MAPPER.readValue(projectsStructureFileLocation.toFile(), ProjectsFile.class);
@@ -209,11 +229,11 @@ public class ProjectManager implements PipelinePointerIO, ProjectIO, ProjectGrou
         return true;
     }
 
-    private ProjectsFile save() {
+    private synchronized ProjectsFile save() {
         try {
-            String fileContent = OBJECT_MAPPER.writeValueAsString(ProjectManager.projectsFile);
+            byte[] fileContent = OBJECT_MAPPER.writeValueAsBytes(ProjectManager.projectsFile);
             try {
-                Files.writeString(getProjectsStructureFileLocation(), fileContent);
+                FileUtils.fileWriteAtomically(getProjectsStructureFileLocation(), fileContent, true);
             } catch (IOException e) {
                 e.printStackTrace();
                 logit(WORKSPACE_EVENT, "IOException occurred while trying to save " + PROJECTS_FILE, THREE);
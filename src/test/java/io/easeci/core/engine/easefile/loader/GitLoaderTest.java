@@ -8,11 +8,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static io.easeci.core.workspace.LocationUtils.getCacheDirectoryLocation;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 class GitLoaderTest {
 
@@ -49,12 +49,26 @@ class GitLoaderTest {
         assertEquals(EASEFILE_FROM_GITHUB, providedContent);
     }
 
+    @Test
+    @DisplayName("Should keep bare mirror of remote in cache and reuse it in next loading")
+    void loadFromMirrorTest() throws IOException, GitAPIException, IllegalAccessException, EasefileContentMalformed {
+        GitLoader gitLoader = (GitLoader) GitLoader.of(GITHUB_PUBLIC_REPO);
+
+        gitLoader.provide();
+        String providedContent = gitLoader.provide();
+
+        assertAll(() -> assertEquals(EASEFILE_FROM_GITHUB, providedContent),
+                  () -> assertTrue(Files.exists(gitLoader.mirrorDestination().toPath().resolve("HEAD"))),
+                  () -> assertFalse(Files.exists(gitLoader.mirrorDestination().toPath().resolve(".git"))));
+    }
+
     @Test
     @DisplayName("Should throw exception because there is no such repository")
     void failureNotExistsTest() {
         EasefileLoader gitLoader = GitLoader.of(GITHUB_PUBLIC_REPO_NOT_EXISTS);
 
         assertThrows(InvalidRemoteException.class, gitLoader::provide);
+        assertFalse(Files.exists(((GitLoader) gitLoader).mirrorDestination().toPath()));
     }
 
     @Test
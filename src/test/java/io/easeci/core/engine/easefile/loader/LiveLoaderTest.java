@@ -26,6 +26,28 @@ class LiveLoaderTest {
         assertEquals(EASEFILE_FROM_GITHUB, providedContent);
     }
 
+    @Test
+    @DisplayName("Should throw when decoded content is greater than max Easefile size")
+    void failureTooLargeTest() {
+        byte[] encoded = Base64.getEncoder().encode(EASEFILE_FROM_GITHUB.getBytes());
+        final String encodedEasefile = new String(encoded, StandardCharsets.UTF_8);
+
+        EasefileLoader easefileLoader = LiveLoader.of(null, encodedEasefile, EASEFILE_FROM_GITHUB.length() / 2);
+
+        assertThrows(EasefileContentMalformed.class, easefileLoader::provide);
+    }
+
+    @Test
+    @DisplayName("Should accept content that has exactly max Easefile size")
+    void exactlyMaxSizeTest() throws IllegalAccessException, GitAPIException, IOException, EasefileContentMalformed {
+        byte[] encoded = Base64.getEncoder().encode(EASEFILE_FROM_GITHUB.getBytes());
+        final String encodedEasefile = new String(encoded, StandardCharsets.UTF_8);
+
+        EasefileLoader easefileLoader = LiveLoader.of(null, encodedEasefile, EASEFILE_FROM_GITHUB.getBytes().length);
+
+        assertEquals(EASEFILE_FROM_GITHUB, easefileLoader.provide());
+    }
+
     @Test
     @DisplayName("Should throw when trying to parse not encoded content")
     void failureEncodingTest() {
@@ -0,0 +1,176 @@
+package io.easeci.core.engine.script;
+
+import io.easeci.core.extension.DirectivesCollector;
+import io.easeci.core.extension.Plugin;
+import io.easeci.extension.command.Command;
+import io.easeci.extension.command.CommandParameter;
+import io.easeci.extension.command.Directive;
+import io.easeci.extension.command.VariableType;
+import io.easeci.extension.directive.CodeChunk;
+import io.easeci.extension.directive.CodeLanguage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeChunkCacheTest {
+    private final static Path SCRIPT_PATH = Paths.get("/tmp/easeci-test-cached-script.sh");
+
+    @Test
+    @DisplayName("Should produce the same key for equal commands and different key when any value differs")
+    void keyTest() {
+        List<Command> commands = List.of(Command.of("clone", List.of(CommandParameter.of("url", "https://github.com", VariableType.STRING))));
+        List<Command> sameCommands = List.of(Command.of("clone", List.of(CommandParameter.of("url", "https://github.com", VariableType.STRING))));
+        List<Command> otherCommands = List.of(Command.of("clone", List.of(CommandParameter.of("url", "https://gitlab.com", VariableType.STRING))));
+
+        assertAll(() -> assertEquals(CodeChunkCache.key("git", "0.0.1", commands), CodeChunkCache.key("git", "0.0.1", sameCommands)),
+                  () -> assertNotEquals(CodeChunkCache.key("git", "0.0.1", commands), CodeChunkCache.key("git", "0.0.2", commands)),
+                  () -> assertNotEquals(CodeChunkCache.key("git", "0.0.1", commands), CodeChunkCache.key("git", "0.0.1", otherCommands)));
+    }
+
+    @Test
+    @DisplayName("Should not confuse command lists that concatenate to the same text")
+    void canonicalHashTest() {
+        List<Command> first = List.of(Command.of("ab", Collections.emptyList()), Command.of("c", Collections.emptyList()));
+        List<Command> second = List.of(Command.of("a", Collections.emptyList()), Command.of("bc", Collections.emptyList()));
+
+        assertNotEquals(CodeChunkCache.canonicalHash(first), CodeChunkCache.canonicalHash(second));
+    }
+
+    @Test
+    @DisplayName("Should drop all entries of plugin when its lifecycle changed")
+    void invalidationTest() {
+        CodeChunkCache codeChunkCache = new CodeChunkCache();
+        codeChunkCache.put(CodeChunkCache.key("git", "0.0.1", Collections.emptyList()), CodeChunk.of(CodeLanguage.BASH, "git", "UTF-8"));
+        codeChunkCache.put(CodeChunkCache.key("maven", "0.0.1", Collections.emptyList()), CodeChunk.of(CodeLanguage.BASH, "mvn", "UTF-8"));
+
+        codeChunkCache.onLifecycleChange("git", "0.0.1");
+
+        assertAll(() -> assertEquals(1, codeChunkCache.size()),
+                  () -> assertTrue(codeChunkCache.get(CodeChunkCache.key("git", "0.0.1", Collections.emptyList())).isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Should not invoke plugin for the second time when the same commands were generated before")
+    void memoizationTest() throws ScriptGenerationException, IOException {
+        AtomicInteger invocations = new AtomicInteger();
+        Directive directive = directive(invocations);
+        DirectivesCollector directivesCollector = new DirectivesCollector() {
+            @Override
+            public List<Directive> collectAll() {
+                return List.of(directive);
+            }
+
+            @Override
+            public Optional<Plugin> pluginOf(Directive directive) {
+                return Optional.of(Plugin.of("git", "0.0.1"));
+            }
+        };
+        CodeChunkCache codeChunkCache = new CodeChunkCache();
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(directivesCollector,
+                ParallelScriptGenerator.newDaemonThreadPool(1), 5000, codeChunkCache);
+        List<DirectiveStep> steps = List.of(DirectiveStep.of("$git", List.of(Command.of("clone", Collections.emptyList()))));
+
+        scriptGenerator.generate(steps, SCRIPT_PATH);
+        scriptGenerator.generate(steps, SCRIPT_PATH);
+        codeChunkCache.onLifecycleChange("git", "0.0.1");
+        scriptGenerator.generate(steps, SCRIPT_PATH);
+
+        assertAll(() -> assertEquals(2, invocations.get()),
+                  () -> assertEquals(List.of("#!/bin/bash", "git clone"), Files.readAllLines(SCRIPT_PATH)));
+    }
+
+    @Test
+    @DisplayName("Should not store chunk generated before plugin's lifecycle changed")
+    void invalidationDuringGenerationTest() {
+        CodeChunkCache codeChunkCache = new CodeChunkCache();
+        CodeChunkCache.Key key = CodeChunkCache.key("git", "0.0.1", Collections.emptyList());
+        long generation = codeChunkCache.generation();
+
+        codeChunkCache.onLifecycleChange("git", "0.0.1");
+        codeChunkCache.put(key, CodeChunk.of(CodeLanguage.BASH, "git", "UTF-8"), generation);
+
+        assertTrue(codeChunkCache.get(key).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should invoke plugin again when its lifecycle changed while code was generated")
+    void invalidationDuringGenerationByPluginTest() throws ScriptGenerationException {
+        AtomicInteger invocations = new AtomicInteger();
+        CodeChunkCache codeChunkCache = new CodeChunkCache();
+        Directive directive = directive(invocations);
+        Directive invalidatingDirective = new Directive() {
+            @Override
+            public String getDirectiveName() {
+                return directive.getDirectiveName();
+            }
+
+            @Override
+            public List<Command> getAvailableCommandList() {
+                return directive.getAvailableCommandList();
+            }
+
+            @Override
+            public CodeChunk provideCode(List<Command> commands) {
+                CodeChunk codeChunk = directive.provideCode(commands);
+                codeChunkCache.onLifecycleChange("git", "0.0.1");
+                return codeChunk;
+            }
+        };
+        DirectivesCollector directivesCollector = new DirectivesCollector() {
+            @Override
+            public List<Directive> collectAll() {
+                return List.of(invalidatingDirective);
+            }
+
+            @Override
+            public Optional<Plugin> pluginOf(Directive directive) {
+                return Optional.of(Plugin.of("git", "0.0.1"));
+            }
+        };
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(directivesCollector,
+                ParallelScriptGenerator.newDaemonThreadPool(1), 5000, codeChunkCache);
+        List<DirectiveStep> steps = List.of(DirectiveStep.of("$git", List.of(Command.of("clone", Collections.emptyList()))));
+
+        scriptGenerator.generate(steps, SCRIPT_PATH);
+        scriptGenerator.generate(steps, SCRIPT_PATH);
+
+        assertAll(() -> assertEquals(2, invocations.get()),
+                  () -> assertEquals(0, codeChunkCache.size()));
+    }
+
+    private Directive directive(AtomicInteger invocations) {
+        return new Directive() {
+            @Override
+            public String getDirectiveName() {
+                return "git";
+            }
+
+            @Override
+            public List<Command> getAvailableCommandList() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public CodeChunk provideCode(List<Command> commands) {
+                invocations.incrementAndGet();
+                return CodeChunk.of(CodeLanguage.BASH, "git " + commands.get(0).getCommandName(), "UTF-8");
+            }
+        };
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(SCRIPT_PATH);
+    }
+}
@@ -0,0 +1,138 @@
+package io.easeci.core.engine.script;
+
+import io.easeci.extension.command.Command;
+import io.easeci.extension.command.Directive;
+import io.easeci.extension.directive.CodeChunk;
+import io.easeci.extension.directive.CodeLanguage;
+import io.vavr.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelScriptGeneratorTest {
+    private final static Path SCRIPT_PATH = Paths.get("/tmp/easeci-test-script.sh");
+
+    @Test
+    @DisplayName("Should write code chunks in declared order even if plugins finish in different order")
+    void declaredOrderTest() throws ScriptGenerationException, IOException {
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(
+                () -> List.of(directive("git", 300), directive("maven", 0)),
+                ParallelScriptGenerator.newDaemonThreadPool(4), 5000);
+
+        List<DirectiveStep> steps = DirectiveStep.group(List.of(
+                Tuple.of("$git", Command.of("clone", Collections.emptyList())),
+                Tuple.of("$maven", Command.of("install", Collections.emptyList()))));
+
+        Path script = scriptGenerator.generate(steps, SCRIPT_PATH);
+
+        assertEquals(List.of("#!/bin/bash", "git clone", "maven install"), Files.readAllLines(script));
+    }
+
+    @Test
+    @DisplayName("Should merge consecutive commands of the same directive to one step")
+    void groupTest() {
+        List<DirectiveStep> steps = DirectiveStep.group(List.of(
+                Tuple.of("$git", Command.of("clone", Collections.emptyList())),
+                Tuple.of("$git", Command.of("checkout", Collections.emptyList())),
+                Tuple.of("$maven", Command.of("install", Collections.emptyList())),
+                Tuple.of("$git", Command.of("push", Collections.emptyList()))));
+
+        assertAll(() -> assertEquals(3, steps.size()),
+                () -> assertEquals(2, steps.get(0).getCommands().size()),
+                () -> assertEquals("$maven", steps.get(1).getDirectiveName()),
+                () -> assertEquals("$git", steps.get(2).getDirectiveName()));
+    }
+
+    @Test
+    @DisplayName("Should throw and not leave script file when plugin not provided code in time")
+    void timeoutTest() {
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(
+                () -> List.of(directive("git", 2000)),
+                ParallelScriptGenerator.newDaemonThreadPool(1), 100);
+
+        List<DirectiveStep> steps = List.of(DirectiveStep.of("git", List.of(Command.of("clone", Collections.emptyList()))));
+
+        assertThrows(ScriptGenerationException.class, () -> scriptGenerator.generate(steps, SCRIPT_PATH));
+        assertFalse(Files.exists(SCRIPT_PATH));
+    }
+
+    @Test
+    @DisplayName("Should not count time of waiting in queue of busy thread pool to timeout of plugin")
+    void queuedStepTimeoutTest() throws ScriptGenerationException, IOException {
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(
+                () -> List.of(directive("git", 200), directive("maven", 200)),
+                ParallelScriptGenerator.newDaemonThreadPool(1), 300);
+
+        List<DirectiveStep> steps = DirectiveStep.group(List.of(
+                Tuple.of("$git", Command.of("clone", Collections.emptyList())),
+                Tuple.of("$maven", Command.of("install", Collections.emptyList()))));
+
+        Path script = scriptGenerator.generate(steps, SCRIPT_PATH);
+
+        assertEquals(List.of("#!/bin/bash", "git clone", "maven install"), Files.readAllLines(script));
+    }
+
+    @Test
+    @DisplayName("Should interrupt plugin that not provided code in time and release its thread")
+    void timeoutInterruptTest() throws Exception {
+        ExecutorService executorService = ParallelScriptGenerator.newDaemonThreadPool(1);
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(
+                () -> List.of(directive("git", 10_000)), executorService, 100);
+
+        List<DirectiveStep> steps = List.of(DirectiveStep.of("git", List.of(Command.of("clone", Collections.emptyList()))));
+
+        assertThrows(ScriptGenerationException.class, () -> scriptGenerator.generate(steps, SCRIPT_PATH));
+        assertTrue(executorService.submit(() -> true).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should throw when directive is not installed")
+    void notInstalledDirectiveTest() {
+        ScriptGenerator scriptGenerator = new ParallelScriptGenerator(
+                Collections::emptyList, ParallelScriptGenerator.newDaemonThreadPool(1), 100);
+
+        List<DirectiveStep> steps = List.of(DirectiveStep.of("$aws", Collections.emptyList()));
+
+        assertThrows(ScriptGenerationException.class, () -> scriptGenerator.generate(steps, SCRIPT_PATH));
+    }
+
+    private Directive directive(String name, long delayMillis) {
+        return new Directive() {
+            @Override
+            public String getDirectiveName() {
+                return name;
+            }
+
+            @Override
+            public List<Command> getAvailableCommandList() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public CodeChunk provideCode(List<Command> commands) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return CodeChunk.of(CodeLanguage.BASH, name + " " + commands.get(0).getCommandName(), "UTF-8");
+            }
+        };
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(SCRIPT_PATH);
+    }
+}
@@ -18,7 +18,8 @@ class DefaultPluginConfigTest {
     private final static String PLUGIN_CONFIG_FILE = "workspace/plugins-config-test.json",
                                  NOT_EXISTING_FILE = "workspace/not-exists/plugins-config-test.json",
                                INVALID_CONFIG_FILE = "workspace/plugins-config-test-invalid.json",
-           PLUGIN_CONFIG_FILE_WITH_NOT_UNIQUE_UUID = "workspace/plugins-config-test-not-unique-uuid.json";
+           PLUGIN_CONFIG_FILE_WITH_NOT_UNIQUE_UUID = "workspace/plugins-config-test-not-unique-uuid.json",
+              PLUGIN_CONFIG_FILE_MANY_INTERFACES = "workspace/plugins-config-test-many-interfaces.json";
 
     private final static String INSTANCE_A_INTERFACE = "io.easeci.extension.bootstrap.OnStartup",
                                 INSTANCE_B_INTERFACE = "io.easeci.extension.bootstrap.OnStartup";
@@ -185,6 +186,21 @@ class DefaultPluginConfigTest {
         assertFalse(isDisabled);
     }
 
+    @Test
+    @DisplayName("Should find description of requested interface when the same name and version is described for other interface too")
+    void findByInterfaceNameAndVersionTest() throws PluginSystemCriticalException {
+        Path path = buildPathFromResources(PLUGIN_CONFIG_FILE_MANY_INTERFACES);
+        PluginStrategy pluginStrategy = new DefaultPluginConfig(path);
+
+        ConfigDescription standalone = pluginStrategy.find(ExtensionType.STANDALONE_PLUGIN, "multi-plugin", "0.0.1");
+        ConfigDescription directive = pluginStrategy.find(ExtensionType.DIRECTIVE_PLUGIN, "multi-plugin", "0.0.1");
+
+        assertAll(() -> assertTrue(standalone.getEnabled()),
+                  () -> assertEquals(UUID.fromString("8a3e5c20-1b7d-4f96-a2c4-3e9d7b0f5c62"), directive.getUuid()),
+                  () -> assertFalse(directive.getEnabled()),
+                  () -> assertThrows(PluginSystemIntegrityViolated.class, () -> pluginStrategy.find(ExtensionType.EXTENSION_PLUGIN, "multi-plugin", "0.0.1")));
+    }
+
     @Test
     @DisplayName("Should correctly detect repetition of UUID in PluginsConfigFile.class and throw exception")
     void uniquePluginConfigCheckTest() {
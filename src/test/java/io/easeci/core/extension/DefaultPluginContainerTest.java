@@ -352,4 +352,88 @@ class DefaultPluginContainerTest {
                 () -> assertEquals(1, pluginContainer.instanceSize()),
                 () -> assertEquals(1, pluginContainer.keySize()));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should find Instance by identity hash code and not find it anymore after it was removed from container")
+    void defaultPluginContainerFindByIdentityHashCodeAfterRemoveTest() {
+        final String INTERFACE_NAME = "java.lang.String";
+        final String IMPLEMENTATION = "This is implementation";
+        final int IDENTITY_HASH_CODE = System.identityHashCode(IMPLEMENTATION);
+
+        Instance basic = fromBasic(INTERFACE_NAME, IMPLEMENTATION);
+        Instance instance = Instance.builder()
+                .plugin(basic.getPlugin())
+                .instance(IMPLEMENTATION)
+                .identityHashCode(IDENTITY_HASH_CODE)
+                .instantiateDateTime(basic.getInstantiateDateTime())
+                .build();
+        pluginContainer.add(instance);
+
+        Optional<Instance> found = pluginContainer.findByIdentityHashCode(IDENTITY_HASH_CODE);
+        boolean isRemoved = pluginContainer.remove(instance.getPlugin().getName(), instance.getPlugin().getVersion());
+
+        assertAll(() -> assertEquals(Optional.of(instance), found),
+                  () -> assertTrue(isRemoved),
+                  () -> assertTrue(pluginContainer.findByIdentityHashCode(IDENTITY_HASH_CODE).isEmpty()),
+                  () -> assertEquals(0, pluginContainer.instanceSize()));
+    }
+
+    @Test
+    @DisplayName("Should replace instance of plugin in one step so it is still found by the same name and version")
+    void defaultPluginContainerReplaceTest() {
+        final String INTERFACE_NAME = "java.lang.String";
+        final String IMPLEMENTATION_PREVIOUS = "This is previous implementation";
+        final String IMPLEMENTATION_NEXT = "This is next implementation";
+
+        Instance previous = fromBasic(INTERFACE_NAME, IMPLEMENTATION_PREVIOUS);
+        Instance next = Instance.builder()
+                .plugin(previous.getPlugin())
+                .instance(IMPLEMENTATION_NEXT)
+                .identityHashCode(System.identityHashCode(IMPLEMENTATION_NEXT))
+                .build();
+        pluginContainer.add(previous);
+
+        boolean isReplaced = pluginContainer.replace(previous, next);
+
+        assertAll(() -> assertTrue(isReplaced),
+                  () -> assertEquals(1, pluginContainer.implementationSize(INTERFACE_NAME)),
+                  () -> assertEquals(List.of(IMPLEMENTATION_NEXT), pluginContainer.getGathered(INTERFACE_NAME, String.class)),
+                  () -> assertEquals(Optional.of(next), pluginContainer.findByIdentityHashCode(System.identityHashCode(IMPLEMENTATION_NEXT))));
+    }
+
+    @Test
+    @DisplayName("Should serialize state of container once and build new snapshot only after state was invalidated")
+    void defaultPluginContainerSnapshotTest() {
+        final String INTERFACE_NAME = "io.easeci.extension.bootstrap.OnStartup";
+
+        pluginContainer.add(fromBasic(INTERFACE_NAME, "This is implementation A", "0.0.1"));
+        PluginContainerSnapshot first = pluginContainer.snapshot();
+        PluginContainerSnapshot same = pluginContainer.snapshot();
+        pluginContainer.invalidateState();
+        PluginContainerSnapshot rebuilt = pluginContainer.snapshot();
+        pluginContainer.add(fromBasic(INTERFACE_NAME, "This is implementation B", "0.0.2"));
+        PluginContainerSnapshot changed = pluginContainer.snapshot();
+
+        assertAll(() -> assertSame(first, same),
+                  () -> assertNotSame(first, rebuilt),
+                  () -> assertTrue(rebuilt.getVersion() > first.getVersion()),
+                  () -> assertEquals(first.getEntityTag(), rebuilt.getEntityTag()),
+                  () -> assertNotEquals(first.getEntityTag(), changed.getEntityTag()),
+                  () -> assertTrue(new String(changed.getJson()).contains("0.0.2")));
+    }
+
+    @Test
+    @DisplayName("Should list installed plugins from index of container, each version once")
+    void defaultPluginContainerInstalledTest() {
+        final String INTERFACE_NAME = "io.easeci.extension.bootstrap.OnStartup";
+
+        pluginContainer.add(fromBasic(INTERFACE_NAME, "This is implementation A", "0.0.1"));
+        pluginContainer.add(fromBasic(INTERFACE_NAME, "This is implementation B", "0.0.2"));
+
+        List<Plugin> installed = pluginContainer.installed();
+
+        assertAll(() -> assertEquals(2, installed.size()),
+                  () -> assertTrue(installed.contains(Plugin.of("test", "0.0.1"))),
+                  () -> assertTrue(installed.contains(Plugin.of("test", "0.0.2"))));
+    }
+}
@@ -0,0 +1,166 @@
+package io.easeci.core.extension;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.nonNull;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultPluginDownloaderTest {
+    private final static Path TEST_DIRECTORY = Paths.get("/tmp/easeci-test-plugin-downloader");
+    private final static Plugin PLUGIN = Plugin.of("welcome-logo", "0.0.1");
+    private final static Path JAR_PATH = TEST_DIRECTORY.resolve("welcome-logo-0.0.1.jar"),
+                              PART_PATH = TEST_DIRECTORY.resolve("welcome-logo-0.0.1.jar" + DefaultPluginDownloader.PART_EXTENSION);
+
+    private final byte[] content = new byte[256 * 1024];
+    private final List<String> rangeHeaders = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer registry;
+    private String checksum;
+    private boolean checksumInHeader = true;
+    private String detailsResponse = "{\"performerVersions\":[]}";
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(TEST_DIRECTORY);
+        new Random(42).nextBytes(content);
+        checksum = Hashing.sha256().hashBytes(content).toString();
+        registry = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        registry.createContext("/api/v1/download/welcome-logo/0.0.1", this::serve);
+        registry.createContext("/api/v1/details/welcome-logo/0.0.1", this::serveDetails);
+        registry.start();
+    }
+
+    @Test
+    @DisplayName("Should download plugin, verify its checksum and move it to plugin directory")
+    void downloadTest() throws IOException {
+        downloader().download(PLUGIN).join();
+
+        assertAll(() -> assertArrayEquals(content, Files.readAllBytes(JAR_PATH)),
+                  () -> assertFalse(Files.exists(PART_PATH)),
+                  () -> assertEquals(List.of(), rangeHeaders));
+    }
+
+    @Test
+    @DisplayName("Should resume download of plugin from bytes already stored in '.part' file")
+    void resumeTest() throws IOException {
+        final int stored = content.length / 3;
+        Files.write(PART_PATH, Arrays.copyOf(content, stored));
+
+        downloader().download(PLUGIN).join();
+
+        assertAll(() -> assertArrayEquals(content, Files.readAllBytes(JAR_PATH)),
+                  () -> assertFalse(Files.exists(PART_PATH)),
+                  () -> assertEquals(List.of("bytes=" + stored + "-"), rangeHeaders));
+    }
+
+    @Test
+    @DisplayName("Should not place plugin in plugin directory and remove '.part' file when checksum of downloaded file not match")
+    void checksumMismatchTest() {
+        checksum = Hashing.sha256().hashBytes(new byte[0]).toString();
+
+        assertThrows(CompletionException.class, () -> downloader().download(PLUGIN).join());
+        assertAll(() -> assertFalse(Files.exists(JAR_PATH)),
+                  () -> assertFalse(Files.exists(PART_PATH)),
+                  () -> assertEquals(3, requests.get()));
+    }
+
+    @Test
+    @DisplayName("Should verify downloaded plugin with checksum from registry's plugin details when checksum header is missing")
+    void checksumFromDetailsTest() throws IOException {
+        checksumInHeader = false;
+        detailsResponse = "{\"performerVersions\":[{\"performerVersion\":\"0.0.1\",\"checksumSha256\":\"" + checksum + "\"}]}";
+
+        downloader().download(PLUGIN).join();
+
+        assertAll(() -> assertArrayEquals(content, Files.readAllBytes(JAR_PATH)),
+                  () -> assertFalse(Files.exists(PART_PATH)));
+    }
+
+    @Test
+    @DisplayName("Should reject plugin and remove '.part' file without retrying when registry provides no checksum")
+    void missingChecksumTest() {
+        checksumInHeader = false;
+
+        assertThrows(CompletionException.class, () -> downloader().download(PLUGIN).join());
+        assertAll(() -> assertFalse(Files.exists(JAR_PATH)),
+                  () -> assertFalse(Files.exists(PART_PATH)),
+                  () -> assertEquals(1, requests.get()));
+    }
+
+    @Test
+    @DisplayName("Should download plugin once when it is requested to download concurrently")
+    void concurrentDownloadTest() throws IOException {
+        DefaultPluginDownloader downloader = downloader();
+
+        CompletableFuture<Plugin> first = downloader.download(PLUGIN);
+        CompletableFuture<Plugin> second = downloader.download(PLUGIN);
+        CompletableFuture.allOf(first, second).join();
+
+        assertAll(() -> assertArrayEquals(content, Files.readAllBytes(JAR_PATH)),
+                  () -> assertEquals(1, requests.get()));
+    }
+
+    private DefaultPluginDownloader downloader() throws IOException {
+        return DefaultPluginDownloader.builder()
+                .registryUrl(new URL("http://localhost:" + registry.getAddress().getPort()))
+                .targetPath(TEST_DIRECTORY)
+                .timeoutMilliseconds(1000)
+                .maxParallelDownloads(2)
+                .build();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int from = 0;
+        if (nonNull(range)) {
+            rangeHeaders.add(range);
+            from = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + from + "-" + (content.length - 1) + "/" + content.length);
+        }
+        if (checksumInHeader) {
+            exchange.getResponseHeaders().add(DefaultPluginDownloader.CHECKSUM_HEADER, checksum);
+        }
+        exchange.sendResponseHeaders(nonNull(range) ? 206 : 200, content.length - from);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(content, from, content.length - from);
+        }
+    }
+
+    private void serveDetails(HttpExchange exchange) throws IOException {
+        byte[] body = detailsResponse.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        registry.stop(0);
+        FileUtils.deleteDirectory(TEST_DIRECTORY.toFile());
+    }
+}
@@ -1,18 +1,29 @@
 package io.easeci.core.extension;
 
 import io.easeci.extension.ExtensionType;
+import io.easeci.extension.Standalone;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.net.URLClassLoader;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static commons.WorkspaceTestUtils.buildPathFromResources;
+import static io.easeci.core.extension.ProbePlugin.IMPLEMENTS;
+import static io.easeci.core.extension.ProbePlugin.PROBE_CLASS;
 import static io.easeci.core.extension.utils.PluginContainerUtils.createCorrectFakePlugin;
 import static io.easeci.core.extension.utils.PluginContainerUtils.createFakePlugin;
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +32,7 @@ import static org.mockito.ArgumentMatchers.any;
 class DefaultPluginLoaderTest {
     private final static String PLUGIN_CONFIG_FILE_DISABLED = "workspace/plugins-config-test-all-disabled.json",
                                    PLUGIN_CONFIG_FILE_VALID = "workspace/plugins-config-test.json";
+    private final static Path TEST_DIRECTORY = Paths.get("/tmp/easeci-test-plugin-loader");
     private static Path pluginConfigJsonDisabledPath,
                         pluginConfigJsonValidPath;
 
@@ -95,4 +107,103 @@ class DefaultPluginLoaderTest {
                 () -> assertEquals(1, pluginContainer.keySize()),        // total container key size
                 () -> assertEquals(1, pluginContainer.instanceSize()));  // total instances created in container
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep previous instance in container when new instance of reloaded plugin cannot be created")
+    void reloadPluginFailureTest() throws IOException {
+        PluginStrategy pluginStrategy = Mockito.mock(PluginStrategy.class);
+        PluginContainer pluginContainer = new DefaultPluginContainer(pluginStrategy);
+        DefaultPluginLoader pluginLoader = new DefaultPluginLoader(pluginContainer, new JarJoiner(), 0);
+        Object probe = pluginLoader.instantiate(ProbePlugin.writeJar(TEST_DIRECTORY.resolve("probe-plugin.jar"), PROBE_CLASS));
+        pluginLoader.insert(ProbePlugin.writeJar(TEST_DIRECTORY.resolve("broken-plugin.jar"), "io.easeci.MissingPlugin"), probe);
+        Instance previous = pluginContainer.findByIdentityHashCode(System.identityHashCode(probe)).orElseThrow();
+
+        assertThrows(RuntimeException.class, () -> pluginLoader.reloadPlugin(previous, pluginStrategy));
+
+        assertAll(() -> assertSame(probe, previous.getInstance()),
+                  () -> assertEquals(Optional.of(previous), pluginContainer.findByIdentityHashCode(System.identityHashCode(probe))),
+                  () -> assertEquals(List.of(probe), pluginContainer.getGathered(IMPLEMENTS, Object.class)));
+    }
+
+    @Test
+    @DisplayName("Should always find reloaded plugin in container, also while its instance is swapped")
+    void reloadPluginLookupTest() throws IOException, InterruptedException {
+        PluginStrategy pluginStrategy = Mockito.mock(PluginStrategy.class);
+        PluginContainer pluginContainer = new DefaultPluginContainer(pluginStrategy);
+        DefaultPluginLoader pluginLoader = new DefaultPluginLoader(pluginContainer, new JarJoiner(), 1);
+        Plugin plugin = ProbePlugin.writeJar(TEST_DIRECTORY.resolve("probe-plugin.jar"), PROBE_CLASS);
+        Object probe = pluginLoader.instantiate(plugin);
+        pluginLoader.insert(plugin, probe);
+        Instance instance = pluginContainer.findByIdentityHashCode(System.identityHashCode(probe)).orElseThrow();
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        AtomicInteger lookups = new AtomicInteger(), misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (reloading.get()) {
+                lookups.incrementAndGet();
+                if (pluginContainer.getGathered(IMPLEMENTS, Object.class).isEmpty()) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 200; i++) {
+            instance = pluginLoader.reloadPlugin(instance, pluginStrategy);
+        }
+        reloading.set(false);
+        reader.join();
+
+        Object reloaded = instance.getInstance();
+        assertAll(() -> assertEquals(0, misses.get()),
+                  () -> assertTrue(lookups.get() > 0),
+                  () -> assertEquals(List.of(reloaded), pluginContainer.getGathered(IMPLEMENTS, Object.class)));
+    }
+
+    @Test
+    @DisplayName("Should drop previous instance of reloaded plugin and close its ClassLoader after drain time")
+    void reloadPluginClosePreviousClassLoaderTest() throws IOException, InterruptedException {
+        PluginStrategy pluginStrategy = Mockito.mock(PluginStrategy.class);
+        PluginContainer pluginContainer = new DefaultPluginContainer(pluginStrategy);
+        JarJoiner jarJoiner = new JarJoiner();
+        DefaultPluginLoader pluginLoader = new DefaultPluginLoader(pluginContainer, jarJoiner, 0);
+        Plugin plugin = ProbePlugin.writeJar(TEST_DIRECTORY.resolve("probe-plugin.jar"), PROBE_CLASS);
+        Object probe = pluginLoader.instantiate(plugin);
+        pluginLoader.insert(plugin, probe);
+        Instance previous = pluginContainer.findByIdentityHashCode(System.identityHashCode(probe)).orElseThrow();
+        URLClassLoader previousClassLoader = (URLClassLoader) probe.getClass().getClassLoader();
+
+        Instance reloaded = pluginLoader.reloadPlugin(previous, pluginStrategy);
+        for (int i = 0; i < 20 && previousClassLoader.findResource(ProbePlugin.PROBE_ENTRY) != null; i++) {
+            Thread.sleep(50);
+        }
+
+        assertAll(() -> assertNull(previousClassLoader.findResource(ProbePlugin.PROBE_ENTRY)),
+                  () -> assertNull(previous.getInstance()),
+                  () -> assertNotSame(previousClassLoader, reloaded.getInstance().getClass().getClassLoader()),
+                  () -> assertSame(jarJoiner.classLoaderOf(plugin), reloaded.getInstance().getClass().getClassLoader()),
+                  () -> assertEquals(1, jarJoiner.classLoadersSize()));
+    }
+
+    @Test
+    @DisplayName("Should stop previous standalone instance of reloaded plugin only after drain time")
+    void reloadPluginStopAfterDrainTest() throws IOException {
+        PluginStrategy pluginStrategy = Mockito.mock(PluginStrategy.class);
+        PluginContainer pluginContainer = new DefaultPluginContainer(pluginStrategy);
+        DefaultPluginLoader pluginLoader = new DefaultPluginLoader(pluginContainer, new JarJoiner(), 1);
+        Plugin plugin = ProbePlugin.writeJar(TEST_DIRECTORY.resolve("probe-plugin.jar"), PROBE_CLASS);
+        Standalone standalone = Mockito.mock(Standalone.class);
+        pluginLoader.insert(plugin, standalone);
+        Instance previous = pluginContainer.findByIdentityHashCode(System.identityHashCode(standalone)).orElseThrow();
+
+        pluginLoader.reloadPlugin(previous, pluginStrategy);
+
+        Mockito.verify(standalone, Mockito.never()).stop();
+        assertSame(standalone, previous.getInstance());
+        Mockito.verify(standalone, Mockito.timeout(3000)).stop();
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(TEST_DIRECTORY.toFile());
+    }
+}
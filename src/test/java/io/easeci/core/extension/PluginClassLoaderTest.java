@@ -0,0 +1,102 @@
+package io.easeci.core.extension;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.easeci.core.extension.ProbePlugin.PROBE_CLASS;
+import static java.util.Objects.nonNull;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginClassLoaderTest {
+    private final static Path TEST_DIRECTORY = Paths.get("/tmp/easeci-test-plugin-classloader");
+    private final static Path JAR_PATH = TEST_DIRECTORY.resolve("probe-plugin-0.0.1.jar");
+    private final static int WARM_UP_RESTARTS = 20,
+                             RESTARTS = 2000;
+    private final static long METASPACE_LIMIT = 1024 * 1024;
+
+    private Plugin plugin;
+
+    @BeforeEach
+    void setup() throws IOException {
+        plugin = ProbePlugin.writeJar(JAR_PATH, PROBE_CLASS);
+    }
+
+    @Test
+    @DisplayName("Should load classes of plugin from its jar file first, in ClassLoader isolated from application")
+    void childFirstTest() {
+        JarJoiner jarJoiner = new JarJoiner();
+
+        Object instance = new ReflectiveFactory.ReflectiveFactoryBuilder<>()
+                .classReference(PROBE_CLASS)
+                .build()
+                .instantiate(plugin.getJarArchive(), jarJoiner.classLoaderOf(plugin));
+
+        assertAll(() -> assertNotSame(ProbePlugin.Probe.class, instance.getClass()),
+                  () -> assertEquals(PROBE_CLASS, instance.getClass().getName()),
+                  () -> assertTrue(instance.getClass().getClassLoader() instanceof PluginClassLoader),
+                  () -> assertSame(jarJoiner.classLoaderOf(plugin), instance.getClass().getClassLoader()),
+                  () -> assertSame(String.class, instance.getClass().getClassLoader().loadClass(String.class.getName())));
+    }
+
+    @Test
+    @DisplayName("Should close ClassLoaders of reloaded and unloaded plugin and let GC unload its classes after thousands of restarts")
+    void restartLeakTest() throws InterruptedException {
+        PluginStrategy pluginStrategy = Mockito.mock(PluginStrategy.class);
+        PluginContainer pluginContainer = new DefaultPluginContainer(pluginStrategy);
+        JarJoiner jarJoiner = new JarJoiner();
+        DefaultPluginLoader pluginLoader = new DefaultPluginLoader(pluginContainer, jarJoiner, 0);
+        Object probe = pluginLoader.instantiate(plugin);
+        pluginLoader.insert(plugin, probe);
+        Instance instance = pluginContainer.findByIdentityHashCode(System.identityHashCode(probe)).orElseThrow();
+        probe = null;
+        for (int i = 0; i < WARM_UP_RESTARTS; i++) {
+            instance = pluginLoader.reloadPlugin(instance, pluginStrategy);
+        }
+        long metaspaceBefore = metaspaceUsedAfterGc();
+        List<WeakReference<ClassLoader>> classLoaders = new ArrayList<>(RESTARTS);
+
+        for (int i = 0; i < RESTARTS; i++) {
+            instance = pluginLoader.reloadPlugin(instance, pluginStrategy);
+            classLoaders.add(new WeakReference<>(instance.getInstance().getClass().getClassLoader()));
+        }
+        pluginLoader.unloadPlugin(instance);
+        for (int i = 0; i < 10 && classLoaders.stream().anyMatch(reference -> nonNull(reference.get())); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        long aliveClassLoaders = classLoaders.stream()
+                .filter(reference -> nonNull(reference.get()))
+                .count();
+        long metaspaceGrowth = metaspaceUsedAfterGc() - metaspaceBefore;
+        assertAll(() -> assertEquals(0, jarJoiner.classLoadersSize()),
+                  () -> assertTrue(aliveClassLoaders < RESTARTS / 100, "ClassLoaders still alive: " + aliveClassLoaders),
+                  () -> assertTrue(metaspaceGrowth < METASPACE_LIMIT, "Metaspace grown by bytes: " + metaspaceGrowth));
+    }
+
+    private static long metaspaceUsedAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> "Metaspace".equals(pool.getName()))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .sum();
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(TEST_DIRECTORY.toFile());
+    }
+}
@@ -0,0 +1,101 @@
+package io.easeci.core.extension;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginMetadataCacheTest {
+    private final static Path TEST_DIRECTORY = Paths.get("/tmp/easeci-test-plugin-metadata");
+    private final static Path JAR_PATH = TEST_DIRECTORY.resolve("plugins/welcome-logo-0.0.1.jar"),
+                              CACHE_FILE = TEST_DIRECTORY.resolve(".cache/" + PluginMetadataCache.CACHE_FILE);
+    private final static String IMPLEMENTS = "io.easeci.extension.bootstrap.OnStartup",
+                                ENTRY_CLASS = "io.easeci.WelcomeLogo";
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(JAR_PATH.getParent());
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue(ExtensionManifest.IMPLEMENTS, IMPLEMENTS);
+        manifest.getMainAttributes().putValue(ExtensionManifest.ENTRY_CLASS, ENTRY_CLASS);
+        try (OutputStream outputStream = Files.newOutputStream(JAR_PATH);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream, manifest)) {
+            jarOutputStream.flush();
+        }
+    }
+
+    @Test
+    @DisplayName("Should take manifest from persisted cache when jar file was not changed")
+    void persistedManifestTest() throws IOException {
+        PluginMetadataCache metadataCache = PluginMetadataCache.load(CACHE_FILE);
+        metadataCache.put(JAR_PATH, Utils.extractManifest(JAR_PATH));
+        metadataCache.persist();
+
+        Optional<ExtensionManifest> manifest = PluginMetadataCache.load(CACHE_FILE).manifest(JAR_PATH);
+
+        assertAll(() -> assertTrue(Files.exists(CACHE_FILE)),
+                  () -> assertTrue(manifest.isPresent()),
+                  () -> assertEquals(IMPLEMENTS, manifest.get().getImplementsProperty()),
+                  () -> assertEquals(ENTRY_CLASS, manifest.get().getEntryClassProperty()));
+    }
+
+    @Test
+    @DisplayName("Should not take manifest from cache when content of jar file was modified or jar was removed")
+    void changedJarTest() throws IOException {
+        PluginMetadataCache metadataCache = PluginMetadataCache.load(CACHE_FILE);
+        metadataCache.put(JAR_PATH, Utils.extractManifest(JAR_PATH));
+
+        byte[] content = Files.readAllBytes(JAR_PATH);
+        content[content.length - 1] ^= 1;
+        Files.write(JAR_PATH, content);
+        Files.setLastModifiedTime(JAR_PATH, FileTime.fromMillis(Files.getLastModifiedTime(JAR_PATH).toMillis() - 60_000));
+        Optional<ExtensionManifest> manifest = metadataCache.manifest(JAR_PATH);
+        Files.delete(JAR_PATH);
+        metadataCache.persist();
+
+        assertAll(() -> assertTrue(manifest.isEmpty()),
+                  () -> assertEquals(0, metadataCache.size()));
+    }
+
+    @Test
+    @DisplayName("Should take manifest from cache and refresh entry when only modification time of jar file changed")
+    void touchedJarTest() throws IOException {
+        PluginMetadataCache metadataCache = PluginMetadataCache.load(CACHE_FILE);
+        metadataCache.put(JAR_PATH, Utils.extractManifest(JAR_PATH));
+        metadataCache.persist();
+
+        Files.setLastModifiedTime(JAR_PATH, FileTime.fromMillis(Files.getLastModifiedTime(JAR_PATH).toMillis() - 60_000));
+        Optional<ExtensionManifest> manifest = metadataCache.manifest(JAR_PATH);
+        metadataCache.persist();
+        PluginMetadataCache.Metadata persisted = new ObjectMapper()
+                .readValue(CACHE_FILE.toFile(), new TypeReference<Map<String, PluginMetadataCache.Metadata>>() {})
+                .get(JAR_PATH.toString());
+
+        assertAll(() -> assertTrue(manifest.isPresent()),
+                  () -> assertEquals(ENTRY_CLASS, manifest.get().getEntryClassProperty()),
+                  () -> assertEquals(Files.getLastModifiedTime(JAR_PATH).toMillis(), persisted.getModified()));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(TEST_DIRECTORY.toFile());
+    }
+}
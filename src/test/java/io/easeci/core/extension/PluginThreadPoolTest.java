@@ -0,0 +1,267 @@
+package io.easeci.core.extension;
+
+import io.easeci.extension.ExtensionType;
+import io.easeci.extension.Standalone;
+import io.easeci.extension.State;
+import io.easeci.extension.command.PluginDirective;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.easeci.core.extension.PluginThreadPool.RestartPolicy.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginThreadPoolTest {
+    private final static String STANDALONE_INTERFACE = "io.easeci.extension.Standalone";
+    private final static long INITIAL_BACKOFF_MILLIS = 20,
+                              MAX_BACKOFF_MILLIS = 160,
+                              TIMEOUT_MILLIS = 5000;
+
+    private final PluginContainer pluginContainer = new DefaultPluginContainer(Mockito.mock(PluginStrategy.class));
+    private final List<Instance> instances = new CopyOnWriteArrayList<>();
+    private final List<FakeStandalone> standalones = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Should restart crashed plugin with ON_FAILURE policy, but not plugin that finished its work")
+    void onFailureRestartPolicyTest() throws InterruptedException {
+        PluginThreadPool pluginThreadPool = pluginThreadPool(2, ON_FAILURE);
+        FakeStandalone crashing = add("crashing", FakeStandalone.crashing());
+        FakeStandalone returning = add("returning", FakeStandalone.returning());
+
+        pluginThreadPool.run(List.of(crashing, returning));
+        await(() -> crashing.starts.get() >= 3);
+        await(() -> pluginThreadPool.stats().stream().noneMatch(stats -> "returning".equals(stats.getPluginName())));
+
+        assertAll(() -> assertTrue(crashing.starts.get() >= 3),
+                  () -> assertEquals(1, returning.starts.get()));
+    }
+
+    @Test
+    @DisplayName("Should never restart plugin with NEVER policy and always restart plugin with ALWAYS policy")
+    void neverAndAlwaysRestartPolicyTest() throws InterruptedException {
+        PluginThreadPool neverRestarting = pluginThreadPool(1, NEVER);
+        PluginThreadPool alwaysRestarting = pluginThreadPool(1, ALWAYS);
+        FakeStandalone crashing = add("crashing", FakeStandalone.crashing());
+        FakeStandalone returning = add("returning", FakeStandalone.returning());
+
+        neverRestarting.run(List.of(crashing));
+        alwaysRestarting.run(List.of(returning));
+        await(() -> returning.starts.get() >= 3);
+        await(() -> neverRestarting.stats().isEmpty());
+
+        assertEquals(1, crashing.starts.get());
+    }
+
+    @Test
+    @DisplayName("Should not restart plugin stopped by API even with ALWAYS policy")
+    void noRestartAfterStopTest() throws InterruptedException {
+        PluginThreadPool pluginThreadPool = pluginThreadPool(1, ALWAYS);
+        FakeStandalone blocking = add("blocking", FakeStandalone.blocking());
+
+        pluginThreadPool.run(List.of(blocking));
+        await(() -> blocking.starts.get() == 1);
+        blocking.stop();
+        instances.get(0).clear();
+        await(() -> pluginThreadPool.stats().isEmpty());
+        Thread.sleep(MAX_BACKOFF_MILLIS);
+
+        assertAll(() -> assertEquals(1, blocking.starts.get()),
+                  () -> assertTrue(pluginThreadPool.stats().isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Should grow backoff twice with each restart up to max and reset it when plugin worked longer than max backoff")
+    void backoffTest() throws InterruptedException {
+        PluginThreadPool.Supervised supervised = new PluginThreadPool.Supervised(FakeStandalone.crashing(),
+                Plugin.of("crashing", "0.0.1"), ON_FAILURE, false);
+
+        supervised.started(Thread.currentThread());
+        List<Long> backoffs = IntStream.range(0, 5)
+                .mapToObj(restart -> supervised.nextBackoff(INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS))
+                .collect(Collectors.toList());
+        Thread.sleep(MAX_BACKOFF_MILLIS + 50);
+        long backoffAfterLongRun = supervised.nextBackoff(INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
+
+        assertAll(() -> assertEquals(List.of(20L, 40L, 80L, 160L, 160L), backoffs),
+                  () -> assertEquals(INITIAL_BACKOFF_MILLIS, backoffAfterLongRun));
+    }
+
+    @Test
+    @DisplayName("Should not run plugin in thread pool when all threads of pool are taken")
+    void poolFullTest() throws InterruptedException {
+        PluginThreadPool pluginThreadPool = pluginThreadPool(1, NEVER);
+        FakeStandalone first = add("first", FakeStandalone.blocking());
+        FakeStandalone second = add("second", FakeStandalone.blocking());
+
+        pluginThreadPool.run(List.of(first, second));
+        await(() -> first.starts.get() == 1);
+
+        List<StandaloneStats> stats = pluginThreadPool.stats();
+        assertAll(() -> assertEquals(0, second.starts.get()),
+                  () -> assertEquals(1, stats.size()),
+                  () -> assertEquals("first", stats.get(0).getPluginName()));
+    }
+
+    @Test
+    @DisplayName("Should not exceed size of thread pool when many plugins are run at the same time")
+    void concurrentRunPoolFullTest() throws InterruptedException {
+        PluginThreadPool pluginThreadPool = pluginThreadPool(2, NEVER);
+        List<FakeStandalone> blocking = IntStream.range(0, 8)
+                .mapToObj(i -> add("blocking-" + i, FakeStandalone.blocking()))
+                .collect(Collectors.toList());
+        CountDownLatch startLine = new CountDownLatch(1);
+        List<Thread> callers = blocking.stream()
+                .map(standalone -> new Thread(() -> {
+                    try {
+                        startLine.await();
+                        pluginThreadPool.run(List.of(standalone));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }))
+                .collect(Collectors.toList());
+        callers.forEach(Thread::start);
+
+        startLine.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        await(() -> blocking.stream().mapToInt(standalone -> standalone.starts.get()).sum() == 2);
+
+        assertAll(() -> assertEquals(2, pluginThreadPool.stats().size()),
+                  () -> assertEquals(2, blocking.stream().mapToInt(standalone -> standalone.starts.get()).sum()));
+    }
+
+    @Test
+    @DisplayName("Should count CPU time of plugin only since it was started, not CPU time of previous tasks of pooled thread")
+    void cpuTimeSinceStartTest() throws InterruptedException {
+        PluginThreadPool pluginThreadPool = pluginThreadPool(1, NEVER);
+        FakeStandalone spinning = add("spinning", FakeStandalone.spinning(300));
+        FakeStandalone blocking = add("blocking", FakeStandalone.blocking());
+
+        pluginThreadPool.run(List.of(spinning));
+        await(() -> pluginThreadPool.stats().isEmpty());
+        pluginThreadPool.run(List.of(blocking));
+        await(() -> blocking.starts.get() == 1);
+
+        List<StandaloneStats> stats = pluginThreadPool.stats();
+        assertAll(() -> assertEquals(1, stats.size()),
+                  () -> assertTrue(stats.get(0).getCpuTimeMillis() < 100, "CPU time of plugin: " + stats.get(0).getCpuTimeMillis()));
+    }
+
+    private PluginThreadPool pluginThreadPool(int threadPoolMaxSize, PluginThreadPool.RestartPolicy restartPolicy) {
+        return new PluginThreadPool(pluginContainer, threadPoolMaxSize, restartPolicy, INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
+    }
+
+    private FakeStandalone add(String pluginName, FakeStandalone standalone) {
+        Plugin.JarArchive jarArchive = Plugin.JarArchive.of(null, false, null, null, ExtensionManifest.of(STANDALONE_INTERFACE, pluginName));
+        Instance instance = Instance.builder()
+                .plugin(Plugin.of(Plugin.of(pluginName, "0.0.1"), jarArchive))
+                .instance(standalone)
+                .identityHashCode(System.identityHashCode(standalone))
+                .instantiateDateTime(LocalDateTime.now())
+                .build();
+        pluginContainer.add(instance);
+        instances.add(instance);
+        standalones.add(standalone);
+        return standalone;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        instances.forEach(Instance::clear);
+        standalones.forEach(FakeStandalone::stop);
+    }
+
+    private static class FakeStandalone implements Standalone {
+        private final AtomicInteger starts = new AtomicInteger();
+        private final CountDownLatch stopped = new CountDownLatch(1);
+        private final boolean crashing;
+        private final boolean blocking;
+        private final long spinMillis;
+
+        private FakeStandalone(boolean crashing, boolean blocking, long spinMillis) {
+            this.crashing = crashing;
+            this.blocking = blocking;
+            this.spinMillis = spinMillis;
+        }
+
+        static FakeStandalone crashing() {
+            return new FakeStandalone(true, false, 0);
+        }
+
+        static FakeStandalone returning() {
+            return new FakeStandalone(false, false, 0);
+        }
+
+        static FakeStandalone blocking() {
+            return new FakeStandalone(false, true, 0);
+        }
+
+        static FakeStandalone spinning(long spinMillis) {
+            return new FakeStandalone(false, false, spinMillis);
+        }
+
+        @Override
+        public void start() {
+            starts.incrementAndGet();
+            final long spinUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(spinMillis);
+            while (System.nanoTime() < spinUntil) {
+                Thread.onSpinWait();
+            }
+            if (blocking) {
+                try {
+                    stopped.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (crashing) {
+                throw new IllegalStateException("Plugin crashed");
+            }
+        }
+
+        @Override
+        public void stop() {
+            stopped.countDown();
+        }
+
+        @Override
+        public State state() {
+            return null;
+        }
+
+        @Override
+        public String about() {
+            return "Fake standalone plugin";
+        }
+
+        @Override
+        public ExtensionType type() {
+            return ExtensionType.STANDALONE_PLUGIN;
+        }
+
+        @Override
+        public List<PluginDirective> directivesExposed() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.easeci.core.extension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+class ProbePlugin {
+    final static String IMPLEMENTS = "io.easeci.extension.bootstrap.OnStartup",
+                        PROBE_CLASS = Probe.class.getName(),
+                        PROBE_ENTRY = PROBE_CLASS.replace('.', '/') + ".class";
+
+    static Plugin writeJar(Path jarPath, String entryClass) throws IOException {
+        Files.createDirectories(jarPath.getParent());
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue(ExtensionManifest.IMPLEMENTS, IMPLEMENTS);
+        manifest.getMainAttributes().putValue(ExtensionManifest.ENTRY_CLASS, entryClass);
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jarPath), manifest);
+             InputStream probe = ProbePlugin.class.getClassLoader().getResourceAsStream(PROBE_ENTRY)) {
+            jarOutputStream.putNextEntry(new JarEntry(PROBE_ENTRY));
+            probe.transferTo(jarOutputStream);
+            jarOutputStream.closeEntry();
+        }
+        Plugin.JarArchive jarArchive = Plugin.JarArchive.of(jarPath.getFileName().toString(), true, jarPath.toUri().toURL(),
+                jarPath, ExtensionManifest.of(IMPLEMENTS, entryClass));
+        return Plugin.of(Plugin.of("probe-plugin", "0.0.1"), jarArchive);
+    }
+
+    public static class Probe {
+        public Probe() {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.easeci.core.registry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistryCacheTest {
+    private final static String KEY = "welcome-logo@0.0.1";
+    private final static long TTL = 1000, STALE = 5000;
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private final List<CompletableFuture<String>> requests = new CopyOnWriteArrayList<>();
+    private final Function<String, CompletableFuture<String>> loader = key -> {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        requests.add(request);
+        return request;
+    };
+    private final RegistryCache<String> registryCache = new RegistryCache<>(TTL, STALE, clock::get);
+
+    @Test
+    @DisplayName("Should send one request to registry for concurrent calls and serve response from cache while fresh")
+    void coalesceTest() {
+        CompletableFuture<String> first = registryCache.get(KEY, loader);
+        CompletableFuture<String> second = registryCache.get(KEY, loader);
+        requests.get(0).complete("v1");
+        clock.set(TTL - 1);
+        CompletableFuture<String> third = registryCache.get(KEY, loader);
+
+        assertAll(() -> assertEquals(1, requests.size()),
+                  () -> assertEquals("v1", first.join()),
+                  () -> assertEquals("v1", second.join()),
+                  () -> assertEquals("v1", third.join()));
+    }
+
+    @Test
+    @DisplayName("Should serve stale response and refresh it with one background request")
+    void staleWhileRevalidateTest() {
+        registryCache.get(KEY, loader);
+        requests.get(0).complete("v1");
+        clock.set(TTL + 1);
+
+        CompletableFuture<String> stale = registryCache.get(KEY, loader);
+        CompletableFuture<String> staleAgain = registryCache.get(KEY, loader);
+        requests.get(1).complete("v2");
+        CompletableFuture<String> refreshed = registryCache.get(KEY, loader);
+
+        assertAll(() -> assertEquals(2, requests.size()),
+                  () -> assertEquals("v1", stale.join()),
+                  () -> assertEquals("v1", staleAgain.join()),
+                  () -> assertEquals("v2", refreshed.join()));
+    }
+
+    @Test
+    @DisplayName("Should wait for new response when cached one expired and not cache failed requests")
+    void expiredAndFailedTest() {
+        registryCache.get(KEY, loader);
+        requests.get(0).complete("v1");
+        clock.set(TTL + STALE + 1);
+
+        CompletableFuture<String> expired = registryCache.get(KEY, loader);
+        requests.get(1).completeExceptionally(new IllegalStateException("Registry unavailable"));
+        CompletableFuture<String> retried = registryCache.get(KEY, loader);
+        requests.get(2).complete("v2");
+
+        assertAll(() -> assertEquals(3, requests.size()),
+                  () -> assertTrue(expired.isCompletedExceptionally()),
+                  () -> assertEquals("v2", retried.join()));
+    }
+}
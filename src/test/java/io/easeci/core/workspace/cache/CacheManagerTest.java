@@ -1,5 +1,6 @@
 package io.easeci.core.workspace.cache;
 
+import io.easeci.commons.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static io.easeci.core.workspace.LocationUtils.getCacheDirectoryLocation;
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,19 +22,22 @@ import static org.junit.jupiter.api.Assertions.*;
 class CacheManagerTest {
 
     @Test
-    @DisplayName("Should clean cache directory in workspace")
+    @DisplayName("Should clean cache directory in workspace and count size of nested files")
     void shouldCleanCacheTest() throws IOException {
+        CacheManager cacheManager = CacheManager.getInstance();
+        cacheManager.cleanup();
         Path path = getCacheDirectoryLocation();
         Path fileToCreate = Paths.get(path.toString().concat("/test-file"));
         Path directoryToCreate = Paths.get(path.toString().concat("/test-dir"));
+        final String text = "Some text value";
 
-        Files.createFile(fileToCreate);
+        Files.writeString(fileToCreate, text);
         Files.createDirectory(directoryToCreate);
+        Files.writeString(directoryToCreate.resolve("nested-file"), text);
 
-        CacheManager cacheManager = CacheManager.getInstance();
         long bytesRemoved = cacheManager.cleanup();
 
-        assertEquals(4096, bytesRemoved);
+        assertEquals(text.getBytes().length * 2, bytesRemoved);
     }
 
     @Test
@@ -51,6 +61,106 @@ class CacheManagerTest {
         assertEquals(text.getBytes().length, bytesRemoved);
     }
 
+    @Test
+    @DisplayName("Should evict least recently used entries until cache fits in budget")
+    void shouldEvictLeastRecentlyUsedTest() throws IOException {
+        CacheManager cacheManager = CacheManager.getInstance();
+        Path area = getCacheDirectoryLocation().resolve("test-area");
+        Path leastRecentlyUsed = area.resolve("least-recently-used");
+        Path recentlyUsed = area.resolve("recently-used");
+        Files.createDirectories(recentlyUsed);
+        Files.write(leastRecentlyUsed, new byte[100]);
+        Files.write(recentlyUsed.resolve("file"), new byte[100]);
+        Files.setLastModifiedTime(leastRecentlyUsed, FileTime.fromMillis(1000));
+        cacheManager.touch(recentlyUsed);
+
+        long bytesRemoved = cacheManager.evict(cacheManager.size() - 1, 0);
+
+        assertAll(() -> assertEquals(100, bytesRemoved),
+                  () -> assertFalse(Files.exists(leastRecentlyUsed)),
+                  () -> assertTrue(Files.exists(recentlyUsed.resolve("file"))));
+    }
+
+    @Test
+    @DisplayName("Should not evict locked entries and Easefiles referenced by any source")
+    void shouldNotEvictEntriesInUseTest() throws IOException, InterruptedException {
+        CacheManager cacheManager = CacheManager.getInstance();
+        EasefileBlobStore easefileBlobStore = EasefileBlobStore.getInstance();
+        Path locked = getCacheDirectoryLocation().resolve("test-area").resolve("locked");
+        Files.createDirectories(locked.getParent());
+        Files.write(locked, new byte[100]);
+        Files.setLastModifiedTime(locked, FileTime.fromMillis(1000));
+        String hash = easefileBlobStore.put("workspace:/a/Easefile", new byte[100]);
+        Path blob = easefileBlobStore.locate(hash).orElseThrow();
+        Lock lock = cacheManager.entryLock(locked);
+        CountDownLatch locking = new CountDownLatch(1), unlocking = new CountDownLatch(1);
+        Thread user = new Thread(() -> {
+            lock.lock();
+            try {
+                locking.countDown();
+                unlocking.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        user.start();
+        locking.await();
+
+        try {
+            cacheManager.evict(0, 0);
+
+            assertAll(() -> assertTrue(Files.exists(locked)),
+                      () -> assertTrue(Files.exists(blob)));
+        } finally {
+            unlocking.countDown();
+            user.join();
+            easefileBlobStore.release("workspace:/a/Easefile");
+        }
+    }
+
+    @Test
+    @DisplayName("Should not evict anything when cache fits in budget")
+    void shouldNotEvictInBudgetTest() throws IOException {
+        CacheManager cacheManager = CacheManager.getInstance();
+        Path entry = getCacheDirectoryLocation().resolve("test-area").resolve("entry");
+        Files.createDirectories(entry.getParent());
+        Files.write(entry, new byte[100]);
+
+        assertAll(() -> assertEquals(0, cacheManager.evict(cacheManager.size(), 0)),
+                  () -> assertTrue(Files.exists(entry)));
+    }
+
+    @Test
+    @DisplayName("Should save temporary files with unique names in temp directory of cache")
+    void shouldSaveTemporaryFilesConcurrentlyTest() {
+        CacheManager cacheManager = CacheManager.getInstance();
+
+        Set<Path> paths = IntStream.range(0, 200)
+                .parallel()
+                .mapToObj(i -> cacheManager.save("content-" + i))
+                .collect(Collectors.toSet());
+
+        assertAll(() -> assertEquals(200, paths.size()),
+                  () -> assertTrue(paths.stream().allMatch(path -> path.getParent().equals(getCacheDirectoryLocation().resolve("temp")))),
+                  () -> assertTrue(paths.stream().allMatch(path -> FileUtils.fileLoad(path.toString()).startsWith("content-"))));
+    }
+
+    @Test
+    @DisplayName("Should remove temporary file when it is closed")
+    void shouldRemoveTemporaryFileOnCloseTest() throws IOException {
+        CacheManager cacheManager = CacheManager.getInstance();
+        Path path;
+
+        try (TemporaryFile temporaryFile = cacheManager.saveTemporary("content".getBytes())) {
+            path = temporaryFile.getPath();
+            assertEquals("content", Files.readString(path));
+        }
+
+        assertFalse(Files.exists(path));
+    }
+
     @AfterEach
     void cleanup() {
         CacheManager.getInstance().cleanup();
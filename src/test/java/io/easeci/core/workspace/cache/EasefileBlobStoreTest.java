@@ -0,0 +1,88 @@
+package io.easeci.core.workspace.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasefileBlobStoreTest {
+    private final static Path STORE_ROOT = Paths.get("/tmp/easeci-test-blobs");
+    private final static byte[] CONTENT = "pipeline:\n  executor: auto\n".getBytes();
+
+    @Test
+    @DisplayName("Should store the same content only once in sharded directory")
+    void deduplicationTest() throws IOException {
+        EasefileBlobStore easefileBlobStore = new EasefileBlobStore(STORE_ROOT);
+
+        String firstHash = easefileBlobStore.put("workspace:/a/Easefile", CONTENT);
+        String secondHash = easefileBlobStore.put("git:https://github.com/easeci/easeci-core", CONTENT);
+
+        Path blob = easefileBlobStore.locate(firstHash).orElseThrow();
+        assertAll(() -> assertEquals(firstHash, secondHash),
+                  () -> assertEquals(64, firstHash.length()),
+                  () -> assertEquals(firstHash.substring(0, 2), blob.getParent().getFileName().toString()),
+                  () -> assertEquals(1, Files.list(STORE_ROOT).filter(Files::isDirectory).count()),
+                  () -> assertEquals(2, easefileBlobStore.references(firstHash)),
+                  () -> assertEquals(new String(CONTENT), easefileBlobStore.read(firstHash).orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should move reference to new blob when content of source changed")
+    void repointTest() throws IOException {
+        EasefileBlobStore easefileBlobStore = new EasefileBlobStore(STORE_ROOT);
+
+        String oldHash = easefileBlobStore.put("workspace:/a/Easefile", CONTENT);
+        String newHash = easefileBlobStore.put("workspace:/a/Easefile", "pipeline:\n".getBytes());
+
+        assertAll(() -> assertEquals(0, easefileBlobStore.references(oldHash)),
+                  () -> assertEquals(1, easefileBlobStore.references(newHash)),
+                  () -> assertEquals(newHash, easefileBlobStore.hashOf("workspace:/a/Easefile").orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should evict only blobs that are not referenced by any source")
+    void evictUnreferencedTest() throws IOException {
+        EasefileBlobStore easefileBlobStore = new EasefileBlobStore(STORE_ROOT);
+
+        String referencedHash = easefileBlobStore.put("workspace:/a/Easefile", CONTENT);
+        String releasedHash = easefileBlobStore.put("workspace:/b/Easefile", "pipeline:\n".getBytes());
+        String anonymousHash = easefileBlobStore.put(null, "executor: auto\n".getBytes());
+        easefileBlobStore.release("workspace:/b/Easefile");
+
+        long bytesFreed = easefileBlobStore.evictUnreferenced();
+
+        assertAll(() -> assertEquals("pipeline:\n".length() + "executor: auto\n".length(), bytesFreed),
+                  () -> assertTrue(easefileBlobStore.locate(referencedHash).isPresent()),
+                  () -> assertTrue(easefileBlobStore.locate(releasedHash).isEmpty()),
+                  () -> assertTrue(easefileBlobStore.locate(anonymousHash).isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Should count references again after store is created once more, so referenced blobs are not evicted after restart")
+    void referencesAfterRestartTest() throws IOException {
+        EasefileBlobStore easefileBlobStore = new EasefileBlobStore(STORE_ROOT);
+        String referencedHash = easefileBlobStore.put("workspace:/a/Easefile", CONTENT);
+        String releasedHash = easefileBlobStore.put("workspace:/b/Easefile", "pipeline:\n".getBytes());
+        easefileBlobStore.release("workspace:/b/Easefile");
+
+        EasefileBlobStore restartedBlobStore = new EasefileBlobStore(STORE_ROOT);
+        restartedBlobStore.evictUnreferenced();
+
+        assertAll(() -> assertEquals(1, restartedBlobStore.references(referencedHash)),
+                  () -> assertEquals(referencedHash, restartedBlobStore.hashOf("workspace:/a/Easefile").orElseThrow()),
+                  () -> assertTrue(restartedBlobStore.locate(referencedHash).isPresent()),
+                  () -> assertTrue(restartedBlobStore.locate(releasedHash).isEmpty()));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(STORE_ROOT.toFile());
+    }
+}
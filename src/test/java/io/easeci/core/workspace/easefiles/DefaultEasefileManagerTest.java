@@ -1,9 +1,11 @@
 package io.easeci.core.workspace.easefiles;
 
+import io.easeci.core.workspace.easefiles.filetree.FileTree;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static io.easeci.core.workspace.LocationUtils.getEasefilesStorageLocation;
@@ -21,4 +23,55 @@ class DefaultEasefileManagerTest {
         assertTrue(Files.exists(Paths.get(easefilesStorageLocation)));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should scan requested directory, not root of Easefiles storage")
+    void scanPathTest() {
+        EasefileManager easefileManager = DefaultEasefileManager.getInstance();
+        Path directory = Paths.get(getEasefilesStorageLocation()).resolve("scan-path-test");
+        easefileManager.createDirectory(directory);
+        easefileManager.save(directory.resolve("Easefile_scan"), "pipeline:");
+
+        FileTree fileTree = easefileManager.scan(directory);
+
+        assertAll(() -> assertEquals(directory, fileTree.getEntryPoint()),
+                  () -> assertEquals(1, fileTree.nextLocations().size()),
+                  () -> assertEquals(directory.resolve("Easefile_scan"), fileTree.nextLocations().get(0)));
+
+        easefileManager.deleteDirectory(directory, true);
+    }
+
+    @Test
+    @DisplayName("Should not scan or load anything out of Easefiles storage when path leads out of it with '..'")
+    void scanPathTraversalTest() {
+        EasefileManager easefileManager = DefaultEasefileManager.getInstance();
+        Path outside = Paths.get(getEasefilesStorageLocation()).resolve("..").resolve("..");
+        Path outsideFile = outside.resolve("general.yml");
+
+        FileTree fileTree = easefileManager.scan(outside);
+
+        assertAll(() -> assertFalse(EasefileManager.hasAccessRight(outside)),
+                  () -> assertTrue(fileTree.nextLocations().isEmpty()),
+                  () -> assertFalse(easefileManager.scan(outside, 1, null).hasNext()),
+                  () -> assertEquals(EasefileStatus.EDIT_FAILED, easefileManager.load(outsideFile).getEasefileStatus()));
+    }
+
+
+    @Test
+    @DisplayName("Should reject update of Easefile when etag of edited version is outdated")
+    void updateVersionConflictTest() {
+        EasefileManager easefileManager = DefaultEasefileManager.getInstance();
+        Path easefile = Paths.get(getEasefilesStorageLocation()).resolve("Easefile_etag");
+        String etag = easefileManager.save(easefile, "pipeline: first").getEtag();
+
+        EasefileOut firstEditor = easefileManager.update(easefile, "pipeline: second", etag);
+        EasefileOut secondEditor = easefileManager.update(easefile, "pipeline: third", etag);
+
+        assertAll(() -> assertEquals(EasefileStatus.EDITED_CORRECTLY, firstEditor.getEasefileStatus()),
+                  () -> assertNotEquals(etag, firstEditor.getEtag()),
+                  () -> assertEquals(EasefileStatus.VERSION_CONFLICT, secondEditor.getEasefileStatus()),
+                  () -> assertEquals(firstEditor.getEtag(), secondEditor.getEtag()),
+                  () -> assertEquals("pipeline: second", easefileManager.load(easefile).getEasefileContent()));
+
+        easefileManager.delete(easefile);
+    }
+}
@@ -0,0 +1,137 @@
+package io.easeci.core.workspace.easefiles.archive;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasefileArchiverTest {
+    private final static Path TEST_DIRECTORY = Paths.get("/tmp/easeci-test-archive");
+    private final static Path SOURCE = TEST_DIRECTORY.resolve("source"),
+                              TARGET = TEST_DIRECTORY.resolve("target");
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(SOURCE.resolve("easefiles/nested/empty"));
+        Files.createDirectories(TARGET.resolve("easefiles"));
+        Files.writeString(SOURCE.resolve("easefiles/Easefile_root"), "pipeline: root");
+        Files.writeString(SOURCE.resolve("easefiles/nested/Easefile_nested"), "pipeline: nested");
+        Files.writeString(SOURCE.resolve("projects-structure.json"), "{\"projectGroups\":[]}");
+        Files.writeString(TARGET.resolve("easefiles/Easefile_root"), "pipeline: old");
+        Files.writeString(TARGET.resolve("projects-structure.json"), "{}");
+    }
+
+    @Test
+    @DisplayName("Should export Easefiles to archive and import them in another workspace")
+    void exportAndImportTest() throws IOException {
+        Path archive = archiver(SOURCE).export(SOURCE.resolve("easefiles"), true);
+
+        List<Path> imported;
+        try (InputStream inputStream = Files.newInputStream(archive)) {
+            imported = archiver(TARGET).importArchive(inputStream, true);
+        }
+
+        assertAll(() -> assertEquals("pipeline: root", Files.readString(TARGET.resolve("easefiles/Easefile_root"))),
+                  () -> assertEquals("pipeline: nested", Files.readString(TARGET.resolve("easefiles/nested/Easefile_nested"))),
+                  () -> assertTrue(Files.isDirectory(TARGET.resolve("easefiles/nested/empty"))),
+                  () -> assertEquals("{\"projectGroups\":[]}", Files.readString(TARGET.resolve("projects-structure.json"))),
+                  () -> assertTrue(imported.contains(TARGET.resolve("easefiles/nested/Easefile_nested"))));
+    }
+
+    @Test
+    @DisplayName("Should export only requested directory and skip projects structure when not requested")
+    void exportSubtreeTest() throws IOException {
+        Path archive = archiver(SOURCE).export(SOURCE.resolve("easefiles/nested"), false);
+
+        try (InputStream inputStream = Files.newInputStream(archive)) {
+            archiver(TARGET).importArchive(inputStream, true);
+        }
+
+        assertAll(() -> assertEquals("pipeline: old", Files.readString(TARGET.resolve("easefiles/Easefile_root"))),
+                  () -> assertEquals("pipeline: nested", Files.readString(TARGET.resolve("easefiles/nested/Easefile_nested"))),
+                  () -> assertEquals("{}", Files.readString(TARGET.resolve("projects-structure.json"))));
+    }
+
+    @Test
+    @DisplayName("Should reject archive with entry placed out of workspace and not change any file")
+    void rejectEntryOutOfWorkspaceTest() throws IOException {
+        byte[] archive = zip("easefiles/Easefile_root", "pipeline: new",
+                             "easefiles/../../escaped", "pipeline: escaped");
+
+        assertThrows(IOException.class, () -> archiver(TARGET).importArchive(new ByteArrayInputStream(archive), false));
+        assertAll(() -> assertEquals("pipeline: old", Files.readString(TARGET.resolve("easefiles/Easefile_root"))),
+                  () -> assertFalse(Files.exists(TEST_DIRECTORY.resolve("escaped"))));
+    }
+
+    @Test
+    @DisplayName("Should reject archive with Easefile greater than max size and not change any file")
+    void rejectTooLargeEasefileTest() throws IOException {
+        byte[] archive = zip("easefiles/Easefile_root", "pipeline: new",
+                             "easefiles/Easefile_large", "x".repeat(2048));
+
+        assertThrows(IOException.class, () -> archiver(TARGET).importArchive(new ByteArrayInputStream(archive), false));
+        assertAll(() -> assertEquals("pipeline: old", Files.readString(TARGET.resolve("easefiles/Easefile_root"))),
+                  () -> assertFalse(Files.exists(TARGET.resolve("easefiles/Easefile_large"))));
+    }
+
+    @Test
+    @DisplayName("Should reject archive with projects structure greater than max size and not change it")
+    void rejectTooLargeProjectsStructureTest() throws IOException {
+        byte[] archive = zip("easefiles/Easefile_root", "pipeline: new",
+                             "projects-structure.json", "[" + "{},".repeat(1024) + "{}]");
+
+        assertThrows(IOException.class, () -> archiver(TARGET).importArchive(new ByteArrayInputStream(archive), true));
+        assertAll(() -> assertEquals("pipeline: old", Files.readString(TARGET.resolve("easefiles/Easefile_root"))),
+                  () -> assertEquals("{}", Files.readString(TARGET.resolve("projects-structure.json"))));
+    }
+
+    @Test
+    @DisplayName("Should remove directories created by import when archive cannot be applied")
+    void rollbackCreatedDirectoriesTest() throws IOException {
+        Files.createDirectories(TARGET.resolve("easefiles/occupied/inner"));
+        byte[] archive = zip("easefiles/created/deep/Easefile_new", "pipeline: new",
+                             "easefiles/occupied", "pipeline: cannot replace directory");
+
+        assertThrows(IOException.class, () -> archiver(TARGET).importArchive(new ByteArrayInputStream(archive), false));
+        assertAll(() -> assertFalse(Files.exists(TARGET.resolve("easefiles/created"))),
+                  () -> assertTrue(Files.isDirectory(TARGET.resolve("easefiles/occupied/inner"))),
+                  () -> assertEquals("pipeline: old", Files.readString(TARGET.resolve("easefiles/Easefile_root"))));
+    }
+
+    private EasefileArchiver archiver(Path workspace) {
+        return new EasefileArchiver(workspace.resolve("easefiles"), workspace.resolve("projects-structure.json"),
+                workspace.resolve(".cache/temp"), 1024);
+    }
+
+    private byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(TEST_DIRECTORY.toFile());
+    }
+}
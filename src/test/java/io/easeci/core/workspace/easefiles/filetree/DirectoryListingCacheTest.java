@@ -0,0 +1,67 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryListingCacheTest {
+    private final static Path ROOT = Paths.get("/tmp/easeci-test-listing-cache");
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(ROOT);
+        Files.writeString(ROOT.resolve("Easefile_1"), "pipeline:");
+    }
+
+    @Test
+    @DisplayName("Should serve listing from cache when directory was not modified")
+    void cacheHitTest() throws IOException {
+        DirectoryListingCache directoryListingCache = new DirectoryListingCache(16);
+
+        FileTree first = directoryListingCache.dumpOne(ROOT);
+        FileTree second = directoryListingCache.dumpOne(ROOT);
+
+        assertAll(() -> assertSame(first, second),
+                  () -> assertEquals(1, directoryListingCache.size()));
+    }
+
+    @Test
+    @DisplayName("Should list directory again when its modification time changed")
+    void modificationTest() throws IOException {
+        DirectoryListingCache directoryListingCache = new DirectoryListingCache(16);
+
+        directoryListingCache.dumpOne(ROOT);
+        Files.writeString(ROOT.resolve("Easefile_2"), "pipeline:");
+        Files.setLastModifiedTime(ROOT, FileTime.from(Instant.now().plusSeconds(10)));
+        FileTree fileTree = directoryListingCache.dumpOne(ROOT);
+
+        assertEquals(2, fileTree.getRootNode().getChildNodes().size());
+    }
+
+    @Test
+    @DisplayName("Should list directory again after invalidation")
+    void invalidationTest() throws IOException {
+        DirectoryListingCache directoryListingCache = new DirectoryListingCache(16);
+
+        FileTree first = directoryListingCache.dumpOne(ROOT);
+        directoryListingCache.invalidate(ROOT.resolve("Easefile_1"));
+
+        assertNotSame(first, directoryListingCache.dumpOne(ROOT));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(ROOT.toFile());
+    }
+}
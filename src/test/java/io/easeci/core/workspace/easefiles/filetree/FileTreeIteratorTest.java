@@ -0,0 +1,95 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileTreeIteratorTest {
+    private final static Path ROOT = Paths.get("/tmp/easeci-test-iterator");
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(ROOT.resolve("b/nested"));
+        Files.createDirectories(ROOT.resolve("b-sibling"));
+        Files.createDirectories(ROOT.resolve("a"));
+        Files.writeString(ROOT.resolve("b/Easefile_1"), "pipeline:");
+        Files.writeString(ROOT.resolve("b/nested/Easefile_2"), "pipeline:");
+        Files.writeString(ROOT.resolve("b-sibling/Easefile_3"), "pipeline:");
+    }
+
+    @Test
+    @DisplayName("Should walk depth-first with children sorted by path")
+    void orderTest() {
+        List<Path> paths = paths(FileTreeIterator.ofFilesystem(ROOT, Integer.MAX_VALUE, null));
+
+        assertEquals(List.of(ROOT.resolve("a"),
+                             ROOT.resolve("b"),
+                             ROOT.resolve("b/Easefile_1"),
+                             ROOT.resolve("b/nested"),
+                             ROOT.resolve("b/nested/Easefile_2"),
+                             ROOT.resolve("b-sibling"),
+                             ROOT.resolve("b-sibling/Easefile_3")), paths);
+    }
+
+    @Test
+    @DisplayName("Should return the same entries read page by page with cursor as read at once")
+    void pagingTest() throws IOException {
+        WorkspaceTreeIndex workspaceTreeIndex = WorkspaceTreeIndex.build(ROOT);
+        List<Path> all = paths(FileTreeIterator.of(workspaceTreeIndex, ROOT, Integer.MAX_VALUE, null));
+
+        for (int limit = 1; limit <= all.size(); limit++) {
+            List<Path> paged = new ArrayList<>();
+            Path cursor = null;
+            do {
+                Iterator<FileTreeEntry> iterator = FileTreeIterator.of(workspaceTreeIndex, ROOT, Integer.MAX_VALUE, cursor);
+                for (int i = 0; i < limit && iterator.hasNext(); i++) {
+                    paged.add(iterator.next().getPath());
+                }
+                cursor = iterator.hasNext() ? paged.get(paged.size() - 1) : null;
+            } while (cursor != null);
+            assertEquals(all, paged);
+        }
+        workspaceTreeIndex.close();
+    }
+
+    @Test
+    @DisplayName("Should not go deeper than depth but inform that directory has content")
+    void depthTest() {
+        List<FileTreeEntry> entries = new ArrayList<>();
+        FileTreeIterator.ofFilesystem(ROOT, 1, null).forEachRemaining(entries::add);
+
+        assertAll(() -> assertEquals(3, entries.size()),
+                  () -> assertFalse(entries.get(0).isHasNext()),
+                  () -> assertTrue(entries.get(1).isHasNext()),
+                  () -> assertEquals(1, entries.get(2).getDepth()));
+    }
+
+    @Test
+    @DisplayName("Should throw when cursor points out of scanned directory")
+    void wrongCursorTest() {
+        assertThrows(IllegalArgumentException.class, () -> FileTreeIterator.ofFilesystem(ROOT, 1, Paths.get("/tmp")));
+    }
+
+    private List<Path> paths(Iterator<FileTreeEntry> iterator) {
+        List<Path> paths = new ArrayList<>();
+        iterator.forEachRemaining(entry -> paths.add(entry.getPath()));
+        return paths;
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(ROOT.toFile());
+    }
+}
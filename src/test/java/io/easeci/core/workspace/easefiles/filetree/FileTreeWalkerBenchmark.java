@@ -0,0 +1,93 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares single-pass FileTreeWalker with previous implementation,
+ * that listed each directory few times and made stat for each entry.
+ * Run it manually, creating of 100k files takes a while.
+ * */
+@Disabled("Benchmark, run it manually")
+class FileTreeWalkerBenchmark {
+    private final static Path BENCHMARK_ROOT = Paths.get("/tmp/easeci-walker-benchmark");
+    private final static int DIRECTORIES = 1000,
+                             FILES_PER_DIRECTORY = 100,
+                             ROUNDS = 5;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        for (int i = 0; i < DIRECTORIES; i++) {
+            Path directory = Files.createDirectories(BENCHMARK_ROOT.resolve("dir-" + (i % 10)).resolve("dir-" + i));
+            for (int j = 0; j < FILES_PER_DIRECTORY; j++) {
+                Files.createFile(directory.resolve("Easefile_" + j));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark: single-pass walker against previous walker on 100k files tree")
+    void benchmark() throws IOException {
+        long legacyNodes = 0,
+             currentNodes = 0;
+        long legacyNanos = 0,
+             currentNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            legacyNodes = legacyWalk(BENCHMARK_ROOT);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            currentNodes = count(new FileTreeWalker(BENCHMARK_ROOT).dumpAll().getRootNode());
+            currentNanos += System.nanoTime() - start;
+        }
+        System.out.println("Previous walker:    " + legacyNanos / ROUNDS / 1_000_000 + " ms per dumpAll()");
+        System.out.println("Single-pass walker: " + currentNanos / ROUNDS / 1_000_000 + " ms per dumpAll()");
+
+        assertEquals(legacyNodes, currentNodes);
+    }
+
+    // previous algorithm: Files.list() for hasNext in Node constructor, for walk and stat of each entry
+    private static long legacyWalk(Path directory) throws IOException {
+        long nodes = 1;
+        try (Stream<Path> hasNext = Files.list(directory)) {
+            hasNext.count();
+        }
+        List<Path> paths;
+        try (Stream<Path> list = Files.list(directory)) {
+            paths = list.collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            if (Files.isRegularFile(path)) {
+                nodes++;
+                continue;
+            }
+            if (Files.isDirectory(path)) {
+                nodes += legacyWalk(path);
+            }
+        }
+        return nodes;
+    }
+
+    private static long count(Node node) {
+        if (node.getChildNodes() == null) {
+            return 1;
+        }
+        return 1 + node.getChildNodes().stream().mapToLong(FileTreeWalkerBenchmark::count).sum();
+    }
+
+    @AfterAll
+    static void cleanup() throws IOException {
+        FileUtils.deleteDirectory(BENCHMARK_ROOT.toFile());
+    }
+}
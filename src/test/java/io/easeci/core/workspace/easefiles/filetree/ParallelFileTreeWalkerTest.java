@@ -0,0 +1,93 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelFileTreeWalkerTest {
+    private final static String TEST_DIR = "/src/test/java";
+    private final static Path FIXTURE_DIRECTORY = Paths.get("/tmp/easeci-test-parallel-walker");
+
+    @Test
+    @DisplayName("Should produce the same file tree as sequential walker")
+    void sameAsSequentialTest() throws IOException {
+        Path testDirectory = getTestDirPath();
+
+        FileTree sequential = new FileTreeWalker(testDirectory).dumpAll();
+        FileTree parallel = new ParallelFileTreeWalker(testDirectory, new ForkJoinPool(4), Integer.MAX_VALUE).dumpAll();
+
+        assertEquals(flatten(sequential.getRootNode()), flatten(parallel.getRootNode()));
+    }
+
+    @Test
+    @DisplayName("Should not walk deeper than max depth but mark directories that have content")
+    void maxDepthTest() throws IOException {
+        Files.createDirectories(FIXTURE_DIRECTORY.resolve("a/deeper"));
+        Files.createDirectories(FIXTURE_DIRECTORY.resolve("b"));
+        Files.writeString(FIXTURE_DIRECTORY.resolve("a/deeper/Easefile"), "pipeline");
+        Files.writeString(FIXTURE_DIRECTORY.resolve("b/Easefile"), "pipeline");
+
+        FileTree fileTree = new ParallelFileTreeWalker(FIXTURE_DIRECTORY, new ForkJoinPool(2), 1).dumpAll();
+        Node rootNode = fileTree.getRootNode();
+
+        assertAll(() -> assertEquals(2, rootNode.getChildNodes().size()),
+                  () -> assertTrue(rootNode.getChildNodes().get(0).hasNext()),
+                  () -> assertTrue(rootNode.getChildNodes().get(0).getChildNodes().isEmpty()),
+                  () -> assertTrue(rootNode.getChildNodes().get(1).hasNext()),
+                  () -> assertTrue(rootNode.getChildNodes().get(1).getChildNodes().isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Should skip symbolic link to ancestor directory, so cycle of links does not make walk endless")
+    void symbolicLinkCycleTest() throws IOException {
+        Files.createDirectories(FIXTURE_DIRECTORY.resolve("a/b"));
+        Files.writeString(FIXTURE_DIRECTORY.resolve("a/b/Easefile"), "pipeline");
+        Files.createSymbolicLink(FIXTURE_DIRECTORY.resolve("a/b/loop"), FIXTURE_DIRECTORY.resolve("a"));
+
+        FileTree sequential = new FileTreeWalker(FIXTURE_DIRECTORY).dumpAll();
+        FileTree parallel = new ParallelFileTreeWalker(FIXTURE_DIRECTORY, new ForkJoinPool(2), Integer.MAX_VALUE).dumpAll();
+
+        assertAll(() -> assertEquals(flatten(sequential.getRootNode()), flatten(parallel.getRootNode())),
+                  () -> assertFalse(flatten(parallel.getRootNode()).stream().anyMatch(node -> node.contains("loop"))));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(FIXTURE_DIRECTORY.toFile());
+    }
+
+    @Test
+    @DisplayName("Should return file tree without any nodes when we pass not existing path")
+    void notExistingPathTest() throws IOException {
+        Path directoryPath = Paths.get("/tmp/not-existing/path");
+
+        FileTree fileTree = new ParallelFileTreeWalker(directoryPath, new ForkJoinPool(2), 8).dumpAll();
+
+        assertNull(fileTree.getRootNode());
+    }
+
+    private List<String> flatten(Node node) {
+        List<String> nodes = new ArrayList<>();
+        nodes.add(node.getNodeType() + ":" + node.getNodePath() + ":" + node.hasNext());
+        if (node.getChildNodes() != null) {
+            node.getChildNodes().forEach(child -> nodes.addAll(flatten(child)));
+        }
+        return nodes;
+    }
+
+    private Path getTestDirPath() {
+        String pwd = System.getProperty("user.dir");
+        return Path.of(pwd.concat(TEST_DIR));
+    }
+}
@@ -0,0 +1,80 @@
+package io.easeci.core.workspace.easefiles.filetree;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceTreeIndexTest {
+    private final static Path ROOT = Paths.get("/tmp/easeci-test-index");
+    private WorkspaceTreeIndex workspaceTreeIndex;
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(ROOT.resolve("b-dir/nested"));
+        Files.createDirectories(ROOT.resolve("a-dir"));
+        Files.writeString(ROOT.resolve("b-dir/Easefile_1"), "pipeline:");
+        Files.writeString(ROOT.resolve("Easefile_0"), "pipeline:");
+        workspaceTreeIndex = WorkspaceTreeIndex.build(ROOT);
+    }
+
+    @Test
+    @DisplayName("Should serve sorted file tree from index the same as walker does")
+    void dumpAllTest() throws IOException {
+        FileTree fileTree = workspaceTreeIndex.dumpAll();
+        Node rootNode = fileTree.getRootNode();
+        Node bDir = rootNode.getChildNodes().get(2);
+
+        assertAll(() -> assertEquals(ROOT, fileTree.getEntryPoint()),
+                  () -> assertEquals(List.of(ROOT.resolve("Easefile_0"), ROOT.resolve("a-dir"), ROOT.resolve("b-dir")), fileTree.nextLocations()),
+                  () -> assertFalse(rootNode.getChildNodes().get(1).isHasNext()),
+                  () -> assertTrue(bDir.isHasNext()),
+                  () -> assertEquals(2, bDir.getChildNodes().size()),
+                  () -> assertEquals(NodeType.FILE, bDir.getChildNodes().get(0).getNodeType()));
+    }
+
+    @Test
+    @DisplayName("Should list only children of one directory without nested ones")
+    void dumpOneTest() {
+        FileTree fileTree = workspaceTreeIndex.dumpOne(ROOT.resolve("b-dir")).orElseThrow();
+        Node nested = fileTree.getRootNode().getChildNodes().get(1);
+
+        assertAll(() -> assertEquals(2, fileTree.getRootNode().getChildNodes().size()),
+                  () -> assertTrue(nested.getChildNodes().isEmpty()),
+                  () -> assertTrue(workspaceTreeIndex.dumpOne(ROOT.resolve("not-existing")).isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Should update index when notified about created and deleted resources")
+    void notificationTest() throws IOException {
+        Path directory = Files.createDirectories(ROOT.resolve("c-dir/deep"));
+        Files.writeString(directory.resolve("Easefile_2"), "pipeline:");
+
+        workspaceTreeIndex.created(ROOT.resolve("c-dir"));
+        Node cDir = workspaceTreeIndex.dumpAll().getRootNode().getChildNodes().get(3);
+
+        assertAll(() -> assertEquals(ROOT.resolve("c-dir"), cDir.getNodePath()),
+                  () -> assertEquals(1, cDir.getChildNodes().get(0).getChildNodes().size()));
+
+        FileUtils.deleteDirectory(ROOT.resolve("c-dir").toFile());
+        workspaceTreeIndex.deleted(ROOT.resolve("c-dir"));
+
+        assertAll(() -> assertEquals(3, workspaceTreeIndex.dumpAll().getRootNode().getChildNodes().size()),
+                  () -> assertTrue(workspaceTreeIndex.dumpOne(directory).isEmpty()));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        workspaceTreeIndex.close();
+        FileUtils.deleteDirectory(ROOT.toFile());
+    }
+}
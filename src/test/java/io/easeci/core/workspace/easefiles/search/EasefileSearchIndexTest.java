@@ -0,0 +1,88 @@
+package io.easeci.core.workspace.easefiles.search;
+
+import io.easeci.core.workspace.projects.PipelinePointer;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasefileSearchIndexTest {
+    private final static Path ROOT = Paths.get("/tmp/easeci-test-search/easefiles");
+    private final static Path INDEX_FILE = Paths.get("/tmp/easeci-test-search/.cache/" + EasefileSearchIndex.INDEX_FILE);
+    private final static Path GIT_EASEFILE = ROOT.resolve("Easefile_git"),
+                              MAVEN_EASEFILE = ROOT.resolve("nested/Easefile_maven");
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(MAVEN_EASEFILE.getParent());
+        Files.writeString(GIT_EASEFILE, "flow:\n  - $git clone https://github.com/easeci/easeci-core\n");
+        Files.writeString(MAVEN_EASEFILE, "flow:\n  - $git clone https://github.com/easeci/easeci-core\n  - $maven install\n");
+    }
+
+    @Test
+    @DisplayName("Should find Easefiles containing all terms from query")
+    void searchTest() throws IOException {
+        EasefileSearchIndex searchIndex = EasefileSearchIndex.build(ROOT, INDEX_FILE);
+
+        assertAll(() -> assertEquals(List.of(GIT_EASEFILE, MAVEN_EASEFILE), searchIndex.search("$git", 10)),
+                  () -> assertEquals(List.of(MAVEN_EASEFILE), searchIndex.search("$GIT   $maven", 10)),
+                  () -> assertEquals(List.of(GIT_EASEFILE), searchIndex.search("$git", 1)),
+                  () -> assertTrue(searchIndex.search("$gradle", 10).isEmpty()),
+                  () -> assertTrue(searchIndex.search("maven", 10).isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Should update index incrementally after Easefile was changed or removed")
+    void incrementalUpdateTest() throws IOException {
+        EasefileSearchIndex searchIndex = EasefileSearchIndex.build(ROOT, INDEX_FILE);
+
+        searchIndex.index(GIT_EASEFILE, "flow:\n  - $gradle build\n");
+        searchIndex.remove(MAVEN_EASEFILE.getParent());
+
+        assertAll(() -> assertTrue(searchIndex.search("$git", 10).isEmpty()),
+                  () -> assertEquals(List.of(GIT_EASEFILE), searchIndex.search("$gradle", 10)),
+                  () -> assertEquals(1, searchIndex.size()));
+    }
+
+    @Test
+    @DisplayName("Should reuse persisted terms of Easefiles not modified since last build")
+    void persistedIndexTest() throws IOException {
+        EasefileSearchIndex.build(ROOT, INDEX_FILE);
+        Files.delete(MAVEN_EASEFILE);
+
+        EasefileSearchIndex searchIndex = EasefileSearchIndex.build(ROOT, INDEX_FILE);
+
+        assertAll(() -> assertTrue(Files.exists(INDEX_FILE)),
+                  () -> assertEquals(List.of(GIT_EASEFILE), searchIndex.search("$git", 10)),
+                  () -> assertEquals(1, searchIndex.size()));
+    }
+
+    @Test
+    @DisplayName("Should find Easefiles by metadata of PipelinePointer")
+    void metadataSearchTest() throws IOException {
+        EasefileSearchIndex searchIndex = EasefileSearchIndex.build(ROOT, INDEX_FILE);
+        PipelinePointer pointer = new PipelinePointer();
+        pointer.setEasefilePath(MAVEN_EASEFILE);
+        pointer.setName("Backend release");
+        pointer.setTag("production");
+
+        searchIndex.attachMetadata(() -> List.of(pointer), INDEX_FILE);
+
+        assertAll(() -> assertEquals(List.of(MAVEN_EASEFILE), searchIndex.search("tag:production", 10)),
+                  () -> assertEquals(List.of(MAVEN_EASEFILE), searchIndex.search("$git release", 10)));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        FileUtils.deleteDirectory(Paths.get("/tmp/easeci-test-search").toFile());
+    }
+}
@@ -6,8 +6,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -136,6 +142,45 @@ class FileUtilsTest {
         assertThrows(RuntimeException.class, () -> FileUtils.fileChange(FILE_PATH, NEW_FILE_CONTENT));
     }
 
+    @Test
+    @DisplayName("Should replace content of file atomically and not leave temporary file")
+    void fileWriteAtomicallyTest() throws IOException {
+        final String FILE_CONTENT = Utils.ymlContent();
+        final String NEW_FILE_CONTENT = Utils.ymlContentUpdated();
+
+        FileUtils.fileWriteAtomically(Path.of(FILE_PATH), FILE_CONTENT.getBytes(StandardCharsets.UTF_8), false);
+        Path path = FileUtils.fileWriteAtomically(Path.of(FILE_PATH), NEW_FILE_CONTENT.getBytes(StandardCharsets.UTF_8), true);
+
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertAll(() -> assertEquals(NEW_FILE_CONTENT, FileUtils.fileLoad(FILE_PATH)),
+                    () -> assertTrue(files.noneMatch(file -> file.getFileName().toString().startsWith(".example.file"))));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep permissions of file replaced atomically")
+    void fileWriteAtomicallyPermissionsTest() throws IOException {
+        final Set<PosixFilePermission> PERMISSIONS = PosixFilePermissions.fromString("rw-r-----");
+
+        FileUtils.fileSave(FILE_PATH, Utils.ymlContent(), false);
+        Files.setPosixFilePermissions(Path.of(FILE_PATH), PERMISSIONS);
+        FileUtils.fileWriteAtomically(Path.of(FILE_PATH), Utils.ymlContentUpdated().getBytes(StandardCharsets.UTF_8), true);
+
+        assertEquals(PERMISSIONS, Files.getPosixFilePermissions(Path.of(FILE_PATH)));
+    }
+
+    @Test
+    @DisplayName("Should not overwrite existing file when atomic write is not allowed to overwrite")
+    void fileWriteAtomicallyNotOverwriteTest() throws IOException {
+        final String FILE_CONTENT = Utils.ymlContent();
+
+        FileUtils.fileSave(FILE_PATH, FILE_CONTENT, false);
+
+        assertAll(() -> assertThrows(FileAlreadyExistsException.class,
+                        () -> FileUtils.fileWriteAtomically(Path.of(FILE_PATH), "changed".getBytes(StandardCharsets.UTF_8), false)),
+                () -> assertEquals(FILE_CONTENT, FileUtils.fileLoad(FILE_PATH)));
+    }
+
     @AfterEach
     void cleanup() {
         try {